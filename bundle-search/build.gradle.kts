@@ -3,6 +3,7 @@ plugins {
     id("maven-publish")
     id("org.springframework.boot") version "3.4.+"
     id("io.spring.dependency-management") version "1.1.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "cz.muni.xmichalk"
@@ -57,6 +58,8 @@ dependencies {
     implementation("org.apache.httpcomponents:httpclient:4.5.13")
 
     implementation("io.github.erdtman:java-json-canonicalization:1.1")
+
+    implementation("com.github.ben-manes.caffeine:caffeine")
 }
 
 tasks.register("installCore") {
@@ -71,6 +74,10 @@ tasks.named("clean") {
     finalizedBy("installCore", "installTemplate")
 }
 
+jmh {
+    profilers.add("gc")
+}
+
 tasks.test {
     useJUnitPlatform()
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package cz.muni.xmichalk.storage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.fi.cpm.merged.CpmMergedFactory;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.ICpmFactory;
+import cz.muni.fi.cpm.model.ICpmProvFactory;
+import cz.muni.fi.cpm.vanilla.CpmProvFactory;
+import cz.muni.xmichalk.storage.storageDTO.Token;
+import cz.muni.xmichalk.util.ProvDocumentUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openprovenance.prov.model.Document;
+import org.openprovenance.prov.model.interop.Formats;
+import org.openprovenance.prov.vanilla.ProvFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageDocumentLoadingBenchmark {
+    private static final ProvFactory pF = new ProvFactory();
+    private static final ICpmFactory cF = new CpmMergedFactory(pF);
+    private static final ICpmProvFactory cPF = new CpmProvFactory(pF);
+    private static final String dataFolder = System.getProperty("user.dir") + "/../setup/data/";
+
+    @Param({
+            "dataset1/SamplingBundle_V0.json",
+            "dataset1/SamplingBundle_V1.json",
+            "dataset2/ProcessingBundle_V0.json",
+            "dataset2/ProcessingBundle_V1.json",
+            "dataset3/SpeciesIdentificationBundle_V0.json",
+            "dataset4/DnaSequencingBundle_V0.json"
+    })
+    public String bundle;
+
+    private byte[] storageResponse;
+
+    @Setup public void setup() throws IOException {
+        byte[] document = Files.readAllBytes(Path.of(dataFolder, bundle));
+        storageResponse = ("{\"document\": \"" + Base64.getEncoder().encodeToString(document) + "\", \"token\": null}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    // the loading path before the storage response and the PROV-JSON were streamed
+    @Benchmark public CpmDocument stringLoading() throws IOException {
+        String responseBody = new String(storageResponse, StandardCharsets.UTF_8);
+        GetDocumentResponse response = new ObjectMapper().readValue(responseBody, GetDocumentResponse.class);
+        String decodedDocument = new String(Base64.getDecoder().decode(response.document), StandardCharsets.UTF_8);
+        Document document = ProvDocumentUtils.deserialize(decodedDocument, Formats.ProvFormat.JSON);
+        return new CpmDocument(document, pF, cPF, cF);
+    }
+
+    @Benchmark public CpmDocument streamingLoading() throws IOException {
+        StorageDocument storageDocument =
+                Storage.readStorageDocument(new ByteArrayInputStream(storageResponse), "document");
+        return new CpmDocument(storageDocument.document, pF, cPF, cF);
+    }
+
+    public static class GetDocumentResponse {
+        public String document;
+        public Token token;
+    }
+}
@@ -0,0 +1,140 @@
+package cz.muni.xmichalk.util;
+
+import cz.muni.fi.cpm.merged.MergedEdge;
+import cz.muni.fi.cpm.merged.MergedNode;
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.models.EdgeToNode;
+import cz.muni.xmichalk.models.QualifiedNameData;
+import cz.muni.xmichalk.models.SubgraphWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openprovenance.prov.model.StatementOrBundle;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static cz.muni.xmichalk.util.NameSpaceConstants.BLANK_URI;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinearPathMatcherBenchmark {
+    private static final int NODE_COUNT = 50000;
+    private static final int HUB_EVERY = 1000;
+    private static final int HUB_DEGREE = 300;
+    private static final int START_NODE_STEP = 100;
+
+    @Param({"3", "5"})
+    public int pathLength;
+
+    private List<INode> nodes;
+    private List<Predicate<EdgeToNode>> specification;
+
+    @Setup public void setup() {
+        // a synthetic bundle of derivation chains with hub nodes similar to main activities
+        Random random = new Random(42);
+        nodes = new ArrayList<>(NODE_COUNT);
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodes.add(new MergedNode(new org.openprovenance.prov.vanilla.Entity(
+                    new QualifiedNameData(BLANK_URI, "entity" + i).toQN(), new ArrayList<>()
+            )));
+        }
+        for (int i = 0; i < NODE_COUNT; i++) {
+            if (i % HUB_EVERY == 0) {
+                for (int j = 0; j < HUB_DEGREE; j++) {
+                    link(nodes.get(i), nodes.get(random.nextInt(NODE_COUNT)));
+                }
+            }
+            link(nodes.get(i), nodes.get((i + 1) % NODE_COUNT));
+            if (random.nextInt(4) == 0) {
+                link(nodes.get(random.nextInt(NODE_COUNT)), nodes.get(i));
+            }
+        }
+
+        specification = new ArrayList<>();
+        for (int i = 0; i < pathLength - 1; i++) {
+            specification.add(edgeToNode -> true);
+        }
+        specification.add(edgeToNode -> edgeToNode.node.getId().getLocalPart().endsWith("7"));
+    }
+
+    private static void link(INode cause, INode effect) {
+        IEdge edge = new MergedEdge(() -> StatementOrBundle.Kind.PROV_DERIVATION, effect, cause);
+        cause.getCauseEdges().add(edge);
+        effect.getEffectEdges().add(edge);
+    }
+
+    // the finder before paths were matched in place, copying the path and visited nodes for every branch
+    @Benchmark public int copyingFinder() {
+        int found = 0;
+        for (int i = 0; i < NODE_COUNT; i += START_NODE_STEP) {
+            List<SubgraphWrapper> results = new ArrayList<>();
+            copyingFind(new EdgeToNode(null, nodes.get(i)), new SubgraphWrapper(), new HashSet<>(), results);
+            found += results.size();
+        }
+        return found;
+    }
+
+    @Benchmark public int linearPathMatcher() {
+        LinearPathMatcher matcher = new LinearPathMatcher(specification);
+        int found = 0;
+        for (int i = 0; i < NODE_COUNT; i += START_NODE_STEP) {
+            found += matcher.findMatchesFrom(nodes.get(i)).size();
+        }
+        return found;
+    }
+
+    private void copyingFind(
+            EdgeToNode current,
+            SubgraphWrapper foundPart,
+            Set<INode> visited,
+            List<SubgraphWrapper> results
+    ) {
+        INode node = current.node;
+        int index = foundPart.getNodes().size();
+        if (node == null || !visited.add(node) || specification.size() <= index) return;
+        if (!specification.get(index).test(current)) return;
+
+        foundPart.getNodes().add(node);
+        if (current.edge != null) foundPart.getEdges().add(current.edge);
+        if (foundPart.getNodes().size() == specification.size()) {
+            results.add(foundPart);
+            return;
+        }
+
+        for (IEdge e : node.getCauseEdges()) {
+            copyingFind(
+                    new EdgeToNode(e, e.getEffect()),
+                    new SubgraphWrapper(foundPart),
+                    new HashSet<>(visited),
+                    results
+            );
+        }
+        for (IEdge e : node.getEffectEdges()) {
+            copyingFind(
+                    new EdgeToNode(e, e.getCause()),
+                    new SubgraphWrapper(foundPart),
+                    new HashSet<>(visited),
+                    results
+            );
+        }
+    }
+}
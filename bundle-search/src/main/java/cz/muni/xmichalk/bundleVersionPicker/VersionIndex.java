@@ -0,0 +1,70 @@
+package cz.muni.xmichalk.bundleVersionPicker;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.util.AttributeUtils;
+import cz.muni.xmichalk.util.GraphTraverser;
+import org.openprovenance.prov.model.LangString;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static cz.muni.xmichalk.util.AttributeNames.ATTR_PROV_TYPE;
+import static cz.muni.xmichalk.util.AttributeNames.ATTR_VERSION;
+import static cz.muni.xmichalk.util.NameSpaceConstants.PROV_URI;
+
+public class VersionIndex {
+    // a meta document gets new versions only as a newly loaded document, so the index lives as long as its document
+    private static final Cache<CpmDocument, VersionIndex> indexesByDocument =
+            Caffeine.newBuilder().weakKeys().build();
+
+    private final NavigableMap<Double, INode> versionNodes = new TreeMap<>();
+
+    public static VersionIndex of(CpmDocument metaDocument) {
+        return indexesByDocument.get(metaDocument, VersionIndex::new);
+    }
+
+    public VersionIndex(CpmDocument metaDocument) {
+        if (metaDocument.getNodes().isEmpty()) {
+            return;
+        }
+
+        Set<INode> bundleNodes = GraphTraverser.traverseAndFindNodes(
+                metaDocument.getNodes().getFirst(),
+                node -> hasProvTypeBundle(node) && hasVersionAttribute(node)
+        );
+        for (INode node : bundleNodes) {
+            if (AttributeUtils.getAttributeValue(node, ATTR_VERSION) instanceof String version) {
+                versionNodes.putIfAbsent(Double.parseDouble(version), node);
+            }
+        }
+    }
+
+    public INode getLatestVersionNode() {
+        Map.Entry<Double, INode> latest = versionNodes.lastEntry();
+        return latest == null ? null : latest.getValue();
+    }
+
+    private static boolean hasProvTypeBundle(INode node) {
+        return AttributeUtils.hasAttributeTargetValue(
+                node,
+                ATTR_PROV_TYPE,
+                QualifiedName.class,
+                qn -> qn.getUri().equals(PROV_URI + "bundle")
+        ) || AttributeUtils.hasAttributeTargetValue(
+                node,
+                ATTR_PROV_TYPE,
+                LangString.class,
+                langString -> langString.getValue().equals("prov:bundle")
+        );
+    }
+
+    private static boolean hasVersionAttribute(INode node) {
+        return AttributeUtils.hasAttributeTargetValue(node, ATTR_VERSION, String.class, v -> true);
+    }
+}
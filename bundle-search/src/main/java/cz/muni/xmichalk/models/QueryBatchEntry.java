@@ -0,0 +1,21 @@
+package cz.muni.xmichalk.models;
+
+import cz.muni.xmichalk.storage.EBundlePart;
+import cz.muni.xmichalk.storage.storageDTO.Token;
+
+public class QueryBatchEntry {
+    public EBundlePart tokenPart;
+    public Token token;
+    public Object result;
+    public String error;
+
+    public QueryBatchEntry() {
+    }
+
+    public QueryBatchEntry(EBundlePart tokenPart, Token token, Object result, String error) {
+        this.tokenPart = tokenPart;
+        this.token = token;
+        this.result = result;
+        this.error = error;
+    }
+}
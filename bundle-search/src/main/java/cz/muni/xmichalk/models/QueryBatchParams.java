@@ -0,0 +1,24 @@
+package cz.muni.xmichalk.models;
+
+import cz.muni.xmichalk.queries.IQuery;
+
+import java.util.Map;
+
+public class QueryBatchParams {
+    public QualifiedNameData bundleId;
+    public QualifiedNameData startNodeId;
+    public Map<String, IQuery<?>> querySpecifications;
+
+    public QueryBatchParams() {
+    }
+
+    public QueryBatchParams(
+            QualifiedNameData bundleId,
+            QualifiedNameData startNodeId,
+            Map<String, IQuery<?>> querySpecifications
+    ) {
+        this.bundleId = bundleId;
+        this.startNodeId = startNodeId;
+        this.querySpecifications = querySpecifications;
+    }
+}
@@ -0,0 +1,19 @@
+package cz.muni.xmichalk.models;
+
+import cz.muni.xmichalk.storage.EBundlePart;
+import cz.muni.xmichalk.storage.storageDTO.Token;
+
+import java.util.Map;
+
+public class QueryBatchResult {
+    public Map<EBundlePart, Token> tokens;
+    public Map<String, QueryBatchEntry> results;
+
+    public QueryBatchResult() {
+    }
+
+    public QueryBatchResult(Map<EBundlePart, Token> tokens, Map<String, QueryBatchEntry> results) {
+        this.tokens = tokens;
+        this.results = results;
+    }
+}
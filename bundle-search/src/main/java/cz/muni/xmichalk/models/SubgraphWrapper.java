@@ -3,33 +3,41 @@ package cz.muni.xmichalk.models;
 import cz.muni.fi.cpm.model.CpmDocument;
 import cz.muni.fi.cpm.model.IEdge;
 import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.util.AttributeIndex;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class SubgraphWrapper {
     private final List<INode> nodes;
     private final List<IEdge> edges;
+    private final AttributeIndex attributeIndex;
 
     public SubgraphWrapper() {
         this.nodes = new ArrayList<>();
         this.edges = new ArrayList<>();
+        this.attributeIndex = null;
     }
 
     public SubgraphWrapper(Collection<INode> nodes, Collection<IEdge> edges) {
         this.nodes = new ArrayList<>(nodes);
         this.edges = new ArrayList<>(edges);
+        this.attributeIndex = null;
     }
 
     public SubgraphWrapper(SubgraphWrapper other) {
         this.nodes = new ArrayList<>(other.getNodes());
         this.edges = new ArrayList<>(other.getEdges());
+        this.attributeIndex = null;
     }
 
     public SubgraphWrapper(CpmDocument cpmDocument) {
-        this.nodes = new ArrayList<>(cpmDocument.getNodes());
-        this.edges = new ArrayList<>(cpmDocument.getEdges());
+        // read-only views of the document lists instead of copies for every query
+        this.nodes = Collections.unmodifiableList(cpmDocument.getNodes());
+        this.edges = Collections.unmodifiableList(cpmDocument.getEdges());
+        this.attributeIndex = AttributeIndex.of(cpmDocument);
     }
 
     public List<INode> getNodes() {
@@ -39,4 +47,9 @@ public class SubgraphWrapper {
     public List<IEdge> getEdges() {
         return edges;
     }
+
+    // only set for subgraphs covering a whole document
+    public AttributeIndex getAttributeIndex() {
+        return attributeIndex;
+    }
 }
@@ -0,0 +1,105 @@
+package cz.muni.xmichalk.queries;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.models.ConnectorData;
+import cz.muni.xmichalk.querySpecification.findable.DerivationPathFromStartNode;
+import cz.muni.xmichalk.util.AttributeUtils;
+import cz.muni.xmichalk.util.GraphTraverser;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static cz.muni.xmichalk.util.AttributeNames.ATTR_PROV_TYPE;
+import static cz.muni.xmichalk.util.NameSpaceConstants.CPM_URI;
+
+public class ConnectorIndex {
+    private static final Cache<CpmDocument, ConnectorIndex> indexesByDocument =
+            Caffeine.newBuilder().weakKeys().build();
+    private static final Boolean[] pathDirections = {null, true, false};
+
+    // reachable connectors of each connector, one list per derivation path direction
+    private final Map<INode, List<ReachableConnector>[]> connectorsByStartNode = new IdentityHashMap<>();
+
+    public static ConnectorIndex of(CpmDocument document) {
+        return indexesByDocument.get(document, ConnectorIndex::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConnectorIndex(CpmDocument document) {
+        Set<INode> connectors = new LinkedHashSet<>(document.getBackwardConnectors());
+        connectors.addAll(document.getForwardConnectors());
+
+        // connector data is built once per connector and shared by all lists it appears in
+        Map<INode, ReachableConnector> reachableConnectors = new IdentityHashMap<>();
+        for (INode connector : connectors) {
+            List<ReachableConnector>[] byDirection = new List[pathDirections.length];
+            for (int direction = 0; direction < pathDirections.length; direction++) {
+                List<ReachableConnector> reached = new ArrayList<>();
+                for (INode node : GraphTraverser.findSubgraphFrom(
+                        connector,
+                        DerivationPathFromStartNode.getDerivationPathCondition(pathDirections[direction])
+                ).getNodes()) {
+                    ReachableConnector reachable =
+                            reachableConnectors.computeIfAbsent(node, ConnectorIndex::toReachable);
+                    if (reachable.isBackward || reachable.isForward) {
+                        reached.add(reachable);
+                    }
+                }
+                byDirection[direction] = List.copyOf(reached);
+            }
+            connectorsByStartNode.put(connector, byDirection);
+        }
+    }
+
+    /**
+     * Connectors reachable from the start connector over the derivation path in the given direction, filtered the
+     * same way as {@link GetConnectors} filters them. Null when the start node is not a connector of the document.
+     */
+    public List<ConnectorData> getConnectors(INode startNode, Boolean pathBackward, Boolean connectorsBackward) {
+        List<ReachableConnector>[] byDirection = startNode == null ? null : connectorsByStartNode.get(startNode);
+        if (byDirection == null) {
+            return null;
+        }
+
+        List<ReachableConnector> reached = byDirection[pathBackward == null ? 0 : pathBackward ? 1 : 2];
+        List<ConnectorData> connectors = new ArrayList<>(reached.size());
+        for (ReachableConnector reachable : reached) {
+            if (connectorsBackward == null ?
+                    reachable.isBackward || reachable.isForward :
+                    connectorsBackward ? reachable.isBackward : reachable.isForward) {
+                connectors.add(reachable.data);
+            }
+        }
+        return connectors;
+    }
+
+    private static ReachableConnector toReachable(INode node) {
+        boolean isBackward = hasProvType(node, CPM_URI + "backwardConnector");
+        boolean isForward = hasProvType(node, CPM_URI + "forwardConnector");
+        return new ReachableConnector(
+                isBackward || isForward ? GetConnectors.transformToConnectorData(node) : null,
+                isBackward,
+                isForward
+        );
+    }
+
+    private static boolean hasProvType(INode node, String typeUri) {
+        return AttributeUtils.hasAttributeTargetValue(
+                node,
+                ATTR_PROV_TYPE,
+                QualifiedName.class,
+                qn -> qn.getUri().equals(typeUri)
+        );
+    }
+
+    private record ReachableConnector(ConnectorData data, boolean isBackward, boolean isForward) {
+    }
+}
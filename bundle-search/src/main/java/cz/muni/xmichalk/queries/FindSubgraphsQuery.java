@@ -33,12 +33,14 @@ public abstract class FindSubgraphsQuery<T> implements IQuery<T> {
             throw new IllegalStateException("Value of fromSubgraphs cannot be null in " + this.getClass().getName());
         }
 
-        EBundlePart requiredBundlePart = decideRequiredBundlePart();
-        StorageCpmDocument retrievedDocument = context.documentLoader.loadCpmDocument(
-                context.documentId.getUri(),
-                requiredBundlePart,
-                context.authorizationHeader
-        );
+        return evaluate(context, fromSubgraphs, loadDocument(context));
+    }
+
+    protected QueryResult<T> evaluate(
+            QueryContext context,
+            IFindableSubgraph fromSubgraphs,
+            StorageCpmDocument retrievedDocument
+    ) {
         CpmDocument document = retrievedDocument.document;
         INode startNode = document.getNode(context.startNodeId);
 
@@ -51,6 +53,14 @@ public abstract class FindSubgraphsQuery<T> implements IQuery<T> {
         return evaluate(context, fromSubgraphs);
     }
 
+    protected StorageCpmDocument loadDocument(QueryContext context) throws AccessDeniedException {
+        return context.documentLoader.loadCpmDocument(
+                context.documentId.getUri(),
+                decideRequiredBundlePart(),
+                context.authorizationHeader
+        );
+    }
+
     protected abstract EBundlePart decideRequiredBundlePart();
 
     protected abstract T transformResult(List<SubgraphWrapper> subgraphs);
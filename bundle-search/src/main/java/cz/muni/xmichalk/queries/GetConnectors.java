@@ -2,10 +2,12 @@ package cz.muni.xmichalk.queries;
 
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.models.*;
+import cz.muni.xmichalk.querySpecification.findable.DerivationPathFromStartNode;
 import cz.muni.xmichalk.querySpecification.findable.FittingNodes;
 import cz.muni.xmichalk.querySpecification.findable.IFindableSubgraph;
 import cz.muni.xmichalk.querySpecification.nodeConditions.HasAttrQualifiedNameValue;
 import cz.muni.xmichalk.storage.EBundlePart;
+import cz.muni.xmichalk.storage.StorageCpmDocument;
 import cz.muni.xmichalk.util.AttributeUtils;
 import cz.muni.xmichalk.util.CpmUtils;
 import org.openprovenance.prov.model.LangString;
@@ -42,6 +44,20 @@ public class GetConnectors extends FindSubgraphsQuery<List<ConnectorData>> {
         IFindableSubgraph finder =
                 new FittingNodes(new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), typeValueRegex), fromSubgraphs);
 
+        // the derivation path from a connector, as sent on every traversal hop, is answered from the connector index
+        if (fromSubgraphs != null && fromSubgraphs.getClass() == DerivationPathFromStartNode.class) {
+            StorageCpmDocument retrievedDocument = loadDocument(context);
+            List<ConnectorData> indexedConnectors = ConnectorIndex.of(retrievedDocument.document).getConnectors(
+                    retrievedDocument.document.getNode(context.startNodeId),
+                    ((DerivationPathFromStartNode) fromSubgraphs).backward,
+                    backward
+            );
+            if (indexedConnectors != null) {
+                return new QueryResult<>(indexedConnectors, retrievedDocument.token);
+            }
+            return super.evaluate(context, finder, retrievedDocument);
+        }
+
         return super.evaluate(context, finder);
     }
 
@@ -60,10 +76,10 @@ public class GetConnectors extends FindSubgraphsQuery<List<ConnectorData>> {
         if (connectors.isEmpty()) {
             return List.of();
         }
-        return connectors.stream().map(this::transformToConnectorData).toList();
+        return connectors.stream().map(GetConnectors::transformToConnectorData).toList();
     }
 
-    private ConnectorData transformToConnectorData(INode node) {
+    static ConnectorData transformToConnectorData(INode node) {
         ConnectorData connectorData = new ConnectorData();
 
 
@@ -6,7 +6,6 @@ import cz.muni.xmichalk.models.SubgraphWrapper;
 import cz.muni.xmichalk.querySpecification.findable.IFindableSubgraph;
 import cz.muni.xmichalk.storage.EBundlePart;
 import cz.muni.xmichalk.util.ResultsTransformationUtils;
-import org.openprovenance.prov.model.Document;
 
 import java.util.List;
 import java.util.Set;
@@ -36,7 +35,6 @@ public class GetNodes extends FindSubgraphsQuery<JsonNode> {
             return null;
         }
 
-        Document encapsulatingDocument = ResultsTransformationUtils.encapsulateInDocument(nodes, null);
-        return ResultsTransformationUtils.transformToJsonNode(encapsulatingDocument);
+        return ResultsTransformationUtils.transformToJsonNode(nodes, null);
     }
 }
@@ -38,7 +38,7 @@ public class GetPreferredVersion implements IQuery<QualifiedNameData> {
                     "Value of versionPreference cannot be null in " + this.getClass().getName());
         }
 
-        String metaUri = this.metaUri != null ? this.metaUri : getMetaBundleId(context).getUri();
+        String metaUri = this.metaUri != null ? this.metaUri : getMetaBundleUri(context);
 
         StorageCpmDocument retrievedDocument =
                 context.documentLoader.loadMetaCpmDocument(metaUri, context.authorizationHeader);
@@ -68,13 +68,20 @@ public class GetPreferredVersion implements IQuery<QualifiedNameData> {
         return null;
     }
 
-    private QualifiedName getMetaBundleId(QueryContext context) throws AccessDeniedException {
+    private String getMetaBundleUri(QueryContext context) throws AccessDeniedException {
+        // a bundle loaded before does not have to be loaded again only to read its meta bundle id
+        String knownMetaUri =
+                context.documentLoader.getKnownMetaBundleUri(context.documentId.getUri(), context.authorizationHeader);
+        if (knownMetaUri != null) {
+            return knownMetaUri;
+        }
+
         StorageCpmDocument retrievedDocument = context.documentLoader.loadCpmDocument(
                 context.documentId.getUri(),
                 EBundlePart.TraversalInformation,
                 context.authorizationHeader
         );
         CpmDocument document = retrievedDocument.document;
-        return CpmUtils.getMetaBundleId(document);
+        return CpmUtils.getMetaBundleId(document).getUri();
     }
 }
@@ -5,7 +5,6 @@ import cz.muni.xmichalk.models.SubgraphWrapper;
 import cz.muni.xmichalk.querySpecification.findable.IFindableSubgraph;
 import cz.muni.xmichalk.storage.EBundlePart;
 import cz.muni.xmichalk.util.ResultsTransformationUtils;
-import org.openprovenance.prov.model.Document;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -35,9 +34,6 @@ public class GetSubgraphs extends FindSubgraphsQuery<List<JsonNode>> {
             return null;
         }
 
-        Document encapsulatigDocument =
-                ResultsTransformationUtils.encapsulateInDocument(subgraph.getNodes(), subgraph.getEdges());
-
-        return ResultsTransformationUtils.transformToJsonNode(encapsulatigDocument);
+        return ResultsTransformationUtils.transformToJsonNode(subgraph.getNodes(), subgraph.getEdges());
     }
 }
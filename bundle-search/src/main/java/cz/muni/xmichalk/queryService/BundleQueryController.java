@@ -1,5 +1,7 @@
 package cz.muni.xmichalk.queryService;
 
+import cz.muni.xmichalk.models.QueryBatchParams;
+import cz.muni.xmichalk.models.QueryBatchResult;
 import cz.muni.xmichalk.models.QueryParams;
 import cz.muni.xmichalk.models.QueryResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -306,6 +308,108 @@ public class BundleQueryController {
         }
     }
 
+    @Operation(
+            summary = "Answer several named queries about a given bundle at once",
+            description = "Evaluate all queries from the same start node of the bundle. Each required bundle part is loaded once and its token is returned once, the result of each query references the part it was answered from."
+    ) @PostMapping(value = "/api/bundleQueries", produces = MediaType.APPLICATION_JSON_VALUE)
+    @SecurityRequirement(name = "auth") @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            description = "Query Batch Params", required = true, content = @Content(
+            schema = @Schema(implementation = QueryBatchParams.class), examples = {
+            @ExampleObject(
+                    name = "Get backward connectors and test whether bundle has exactly one main activity",
+                    value = """
+                            {
+                              "bundleId": {
+                                "nameSpaceUri": "http://prov-storage-2:8000/api/v1/organizations/ORG2/documents/",
+                                "localPart": "ProcessingBundle_V0"
+                              },
+                              "startNodeId": {
+                                "nameSpaceUri": "https://openprovenance.org/blank/",
+                                "localPart": "StoredSampleCon_r1"
+                              },
+                              "querySpecifications": {
+                                "connectors": {
+                                  "type" : "GetConnectors",
+                                  "backward" : true,
+                                  "fromSubgraphs" : {
+                                    "type" : "DerivationPathFromStartNode",
+                                    "backward" : true
+                                  }
+                                },
+                                "hasOneMainActivity": {
+                                  "type" : "TestBundleFits",
+                                  "condition" : {
+                                    "type" : "CountComparisonCondition",
+                                    "first" : {
+                                      "type" : "FittingNodes",
+                                      "nodeCondition" : {
+                                        "type" : "HasAttrQualifiedNameValue",
+                                        "attributeNameUri" : "http://www.w3.org/ns/prov#type",
+                                        "valueUriRegex" : "https://www.commonprovenancemodel.org/cpm-namespace-v1-0/mainActivity"
+                                      }
+                                    },
+                                    "comparisonResult" : "EQUALS",
+                                    "second" : {
+                                      "type" : "CountConstant",
+                                      "count" : 1
+                                    }
+                                  }
+                                }
+                              }
+                            }
+                            """
+            )
+    }
+    )
+    ) public ResponseEntity<?> bundleQueries(
+            @RequestBody QueryBatchParams queryBatchParams,
+            HttpServletRequest request
+    ) {
+
+        List<String> missingParams = getMissingParams(queryBatchParams);
+        if (!missingParams.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getMissingParamsMessage(missingParams));
+        }
+
+        String authorizationHeader = request.getHeader("Authorization");
+
+        if (authorizationHeader == null || authorizationHeader.isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Missing Authorization header");
+        }
+
+        try {
+            QualifiedName bundleId = queryBatchParams.bundleId.toQN();
+            QualifiedName connectorId =
+                    queryBatchParams.startNodeId == null ? null : queryBatchParams.startNodeId.toQN();
+
+            log.info(
+                    "Received bundle query batch request for bundleId: {}, startNodeId: {}, queries: {}",
+                    bundleId,
+                    connectorId,
+                    queryBatchParams.querySpecifications.keySet()
+            );
+
+            QueryBatchResult queryBatchResult = bundleQueryService.evaluateBundleQueries(
+                    bundleId,
+                    connectorId,
+                    queryBatchParams.querySpecifications,
+                    authorizationHeader
+            );
+
+            log.info(
+                    "Answering bundle query batch request for bundleId: {}, startNodeId: {}, with {} results from parts: {}",
+                    bundleId,
+                    connectorId,
+                    queryBatchResult.results.size(),
+                    queryBatchResult.tokens.keySet()
+            );
+            return ResponseEntity.ok(queryBatchResult);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
     private static String getMissingParamsMessage(List<String> missingParams) {
         StringBuilder builder = new StringBuilder("Missing required fields in the request body: ");
         for (int i = 0; i < missingParams.size(); i++) {
@@ -325,4 +429,15 @@ public class BundleQueryController {
 
         return missing;
     }
+
+    private static List<String> getMissingParams(QueryBatchParams params) {
+        List<String> missing = new ArrayList<String>();
+        if (params.bundleId == null) missing.add("bundleId");
+        if (params.querySpecifications == null || params.querySpecifications.isEmpty() ||
+                params.querySpecifications.containsValue(null)) {
+            missing.add("querySpecifications");
+        }
+
+        return missing;
+    }
 }
@@ -1,18 +1,29 @@
 package cz.muni.xmichalk.queryService;
 
+import cz.muni.xmichalk.models.QueryBatchEntry;
+import cz.muni.xmichalk.models.QueryBatchResult;
 import cz.muni.xmichalk.models.QueryContext;
 import cz.muni.xmichalk.models.QueryResult;
 import cz.muni.xmichalk.queries.IQuery;
+import cz.muni.xmichalk.storage.EBundlePart;
 import cz.muni.xmichalk.storage.IStorage;
+import cz.muni.xmichalk.storage.MemoizingStorage;
+import cz.muni.xmichalk.storage.storageDTO.Token;
 import org.openprovenance.prov.model.QualifiedName;
 
 import java.nio.file.AccessDeniedException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class BundleQueryService {
     public final IStorage documentLoader;
+    private final QueryPlanCache queryPlanCache;
 
-    public BundleQueryService(IStorage documentLoader) {
+    public BundleQueryService(IStorage documentLoader, QueryPlanCache queryPlanCache) {
         this.documentLoader = documentLoader;
+        this.queryPlanCache = queryPlanCache;
     }
 
     public <T> QueryResult<T> evaluateBundleQuery(
@@ -22,6 +33,64 @@ public class BundleQueryService {
             String authorizationHeader
     ) throws AccessDeniedException {
         QueryContext context = new QueryContext(bundleId, startNodeId, authorizationHeader, this.documentLoader);
-        return query.evaluate(context);
+        return queryPlanCache.getPlan(query).evaluate(context);
+    }
+
+    public QueryBatchResult evaluateBundleQueries(
+            QualifiedName bundleId,
+            QualifiedName startNodeId,
+            Map<String, IQuery<?>> queries,
+            String authorizationHeader
+    ) {
+        // every bundle part is loaded once for the whole batch, the queries only read the loaded documents
+        MemoizingStorage batchStorage = new MemoizingStorage(this.documentLoader);
+        QueryContext context = new QueryContext(bundleId, startNodeId, authorizationHeader, batchStorage);
+
+        Map<String, CompletableFuture<QueryResult<?>>> pending = new LinkedHashMap<>();
+        for (Map.Entry<String, IQuery<?>> entry : queries.entrySet()) {
+            IQuery<?> plan = queryPlanCache.getPlan(entry.getValue());
+            pending.put(
+                    entry.getKey(), CompletableFuture.<QueryResult<?>>supplyAsync(
+                            () -> {
+                                try {
+                                    return plan.evaluate(context);
+                                } catch (AccessDeniedException e) {
+                                    throw new CompletionException(e);
+                                }
+                            }, Thread::startVirtualThread
+                    )
+            );
+        }
+
+        CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new)).exceptionally(_ -> null).join();
+        Map<EBundlePart, Token> tokens = batchStorage.getTokens(bundleId.getUri());
+
+        Map<String, QueryBatchEntry> results = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<QueryResult<?>>> entry : pending.entrySet()) {
+            try {
+                QueryResult<?> queryResult = entry.getValue().join();
+                results.put(
+                        entry.getKey(), queryResult != null ?
+                                toBatchEntry(queryResult, tokens) :
+                                new QueryBatchEntry(null, null, null, "Query returned no result.")
+                );
+            } catch (CompletionException e) {
+                // a failed query does not fail the others, its entry carries the error instead of a result
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                results.put(entry.getKey(), new QueryBatchEntry(null, null, null, cause.getMessage()));
+            }
+        }
+
+        return new QueryBatchResult(tokens, results);
+    }
+
+    private static QueryBatchEntry toBatchEntry(QueryResult<?> queryResult, Map<EBundlePart, Token> tokens) {
+        // results of a bundle part reference its token, others such as meta bundle results carry their own
+        for (Map.Entry<EBundlePart, Token> token : tokens.entrySet()) {
+            if (token.getValue().equals(queryResult.token)) {
+                return new QueryBatchEntry(token.getKey(), null, queryResult.result, null);
+            }
+        }
+        return new QueryBatchEntry(null, queryResult.token, queryResult.result, null);
     }
 }
@@ -5,6 +5,7 @@ import cz.muni.fi.cpm.merged.CpmMergedFactory;
 import cz.muni.fi.cpm.model.ICpmFactory;
 import cz.muni.fi.cpm.model.ICpmProvFactory;
 import cz.muni.fi.cpm.vanilla.CpmProvFactory;
+import cz.muni.xmichalk.storage.CachingStorage;
 import cz.muni.xmichalk.storage.IStorage;
 import cz.muni.xmichalk.storage.Storage;
 import cz.muni.xmichalk.storage.mockedAuth.MockedAuthConfig;
@@ -14,12 +15,16 @@ import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.openprovenance.prov.vanilla.ProvFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 
 @Configuration
 @SecurityScheme(name = "auth", type = SecuritySchemeType.HTTP, scheme = "bearer", bearerFormat = "JWT")
@@ -33,6 +38,38 @@ import java.io.IOException;
 )
 )
 public class Config {
+    @Value("${storageCache.maximumDocumentsWeight:2000000}")
+    private long maximumDocumentsWeight;
+
+    @Value("${storageCache.maximumMetaDocumentsWeight:200000}")
+    private long maximumMetaDocumentsWeight;
+
+    @Value("${storageCache.metaDocumentTtlSeconds:30}")
+    private long metaDocumentTtlSeconds;
+
+    @Value("${storageCache.maximumMetaBundleUris:100000}")
+    private long maximumMetaBundleUris;
+
+    @Value("${storage.maxConnections:64}")
+    private int storageMaxConnections;
+
+    @Value("${storage.maxConnectionsPerRoute:32}")
+    private int storageMaxConnectionsPerRoute;
+
+    @Value("${storage.connectTimeoutMillis:5000}")
+    private long storageConnectTimeoutMillis;
+
+    @Value("${storage.readTimeoutMillis:60000}")
+    private long storageReadTimeoutMillis;
+
+    @Value("${storage.keepAliveSeconds:30}")
+    private long storageKeepAliveSeconds;
+
+    @Value("${storage.compressionEnabled:true}")
+    private boolean storageCompressionEnabled;
+
+    @Value("${queryPlanCache.maximumSize:1000}")
+    private long queryPlanCacheMaximumSize;
 
     @Bean public ProvFactory provFactory() {
         return new ProvFactory();
@@ -46,19 +83,46 @@ public class Config {
         return new CpmProvFactory(provFactory);
     }
 
-    @Bean
-    public IStorage documentLoader(ProvFactory provFactory, ICpmFactory cpmFactory, ICpmProvFactory cpmProvFactory)
-            throws IOException {
-        IStorage storage = new Storage(provFactory, cpmFactory, cpmProvFactory);
+    @Bean public CloseableHttpClient storageHttpClient() {
+        return Storage.createPooledHttpClient(
+                storageMaxConnections,
+                storageMaxConnectionsPerRoute,
+                Duration.ofMillis(storageConnectTimeoutMillis),
+                Duration.ofMillis(storageReadTimeoutMillis),
+                Duration.ofSeconds(storageKeepAliveSeconds),
+                storageCompressionEnabled
+        );
+    }
 
+    @Bean public CachingStorage cachingStorage(
+            ProvFactory provFactory,
+            ICpmFactory cpmFactory,
+            ICpmProvFactory cpmProvFactory,
+            CloseableHttpClient storageHttpClient
+    ) {
+        return new CachingStorage(
+                new Storage(provFactory, cpmFactory, cpmProvFactory, storageHttpClient),
+                maximumDocumentsWeight,
+                maximumMetaDocumentsWeight,
+                Duration.ofSeconds(metaDocumentTtlSeconds),
+                maximumMetaBundleUris
+        );
+    }
+
+    @Bean @Primary public IStorage documentLoader(CachingStorage cachingStorage) throws IOException {
         ObjectMapper mapper = new ObjectMapper();
         MockedAuthConfig config =
                 mapper.readValue(new File("src/main/resources/mockedAuthorizationConfig.json"), MockedAuthConfig.class);
 
-        return new MockedAuthStorage(storage, config);
+        // authorization is checked above the cache, so cached documents are never served without it
+        return new MockedAuthStorage(cachingStorage, config);
+    }
+
+    @Bean public QueryPlanCache queryPlanCache() {
+        return new QueryPlanCache(queryPlanCacheMaximumSize);
     }
 
-    @Bean public BundleQueryService bundleQueryService(IStorage documentLoader) {
-        return new BundleQueryService(documentLoader);
+    @Bean public BundleQueryService bundleQueryService(IStorage documentLoader, QueryPlanCache queryPlanCache) {
+        return new BundleQueryService(documentLoader, queryPlanCache);
     }
 }
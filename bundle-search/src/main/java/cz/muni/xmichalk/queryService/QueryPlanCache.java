@@ -0,0 +1,49 @@
+package cz.muni.xmichalk.queryService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.xmichalk.queries.IQuery;
+import org.erdtman.jcs.JsonCanonicalizer;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class QueryPlanCache {
+    private static final ObjectWriter queryWriter = new ObjectMapper()
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .writerFor(IQuery.class);
+
+    private final Cache<String, IQuery<?>> plansByQueryHash;
+
+    public QueryPlanCache(long maximumSize) {
+        this.plansByQueryHash = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> IQuery<T> getPlan(IQuery<T> query) {
+        // equal queries share one instance, so regexes, timestamps and condition trees compiled on first use are reused
+        return (IQuery<T>) plansByQueryHash.get(getQueryHash(query), _ -> query);
+    }
+
+    public long size() {
+        return plansByQueryHash.estimatedSize();
+    }
+
+    public static String getQueryHash(IQuery<?> query) {
+        try {
+            byte[] canonized = new JsonCanonicalizer(queryWriter.writeValueAsString(query)).getEncodedUTF8();
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonized));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Query cannot be serialized: " + e.getMessage(), e);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
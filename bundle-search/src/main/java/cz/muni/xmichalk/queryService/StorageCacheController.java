@@ -0,0 +1,28 @@
+package cz.muni.xmichalk.queryService;
+
+import cz.muni.xmichalk.storage.CachingStorage;
+import cz.muni.xmichalk.storage.StorageCacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class StorageCacheController {
+    private final CachingStorage cachingStorage;
+
+    public StorageCacheController(CachingStorage cachingStorage) {
+        this.cachingStorage = cachingStorage;
+    }
+
+    @Operation(
+            summary = "Get document cache statistics",
+            description = "Returns hit ratio and load time saved by the document cache of the storage layer."
+    ) @GetMapping(value = "/api/getCacheStats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<StorageCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(cachingStorage.getStats());
+    }
+}
@@ -0,0 +1,11 @@
+package cz.muni.xmichalk.querySpecification;
+
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.util.AttributeIndex;
+
+import java.util.List;
+
+public interface IIndexableCondition {
+    // returns null when the condition cannot be answered from the index alone
+    List<INode> findFittingNodes(AttributeIndex index);
+}
@@ -28,8 +28,16 @@ public class CountComparisonCondition<T> implements ICondition<T> {
             throw new IllegalStateException("Value of second cannot be null in " + this.getClass().getSimpleName());
         }
 
-        int firstCount = first.count(source);
-        int secondCount = second.count(source);
+        // one side is counted only as far as needed to compare it with the other, fully counted side
+        int firstCount;
+        int secondCount;
+        if (first instanceof CountConstant<T> && !(second instanceof CountConstant<T>)) {
+            firstCount = first.count(source);
+            secondCount = second.countUpTo(source, getDecidingLimit(firstCount));
+        } else {
+            secondCount = second.count(source);
+            firstCount = first.countUpTo(source, getDecidingLimit(secondCount));
+        }
 
         return switch (comparisonResult) {
             case EComparisonResult.EQUALS -> firstCount == secondCount;
@@ -41,4 +49,9 @@ public class CountComparisonCondition<T> implements ICondition<T> {
         };
     }
 
+    private static int getDecidingLimit(int otherCount) {
+        // any count above the other one compares the same way, so one more is enough
+        return otherCount == Integer.MAX_VALUE ? otherCount : Math.max(otherCount + 1, 0);
+    }
+
 }
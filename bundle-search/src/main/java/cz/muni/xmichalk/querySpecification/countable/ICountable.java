@@ -21,4 +21,9 @@ import cz.muni.xmichalk.querySpecification.findable.*;
 public interface ICountable<T> {
     int count(T source);
 
+    // the count when it is below the limit, otherwise the limit, so counting can stop once the limit is reached
+    default int countUpTo(T source, int limit) {
+        return Math.min(count(source), limit);
+    }
+
 }
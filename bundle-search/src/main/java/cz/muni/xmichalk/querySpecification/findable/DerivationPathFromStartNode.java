@@ -10,6 +10,7 @@ import cz.muni.xmichalk.querySpecification.subgraphConditions.edgeConditions.IsR
 import org.openprovenance.prov.model.StatementOrBundle;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public class DerivationPathFromStartNode implements IFindableSubgraph {
     public Boolean backward;
@@ -22,9 +23,15 @@ public class DerivationPathFromStartNode implements IFindableSubgraph {
     }
 
     @Override public List<SubgraphWrapper> find(final SubgraphWrapper graph, final INode startNode) {
-        IFindableSubgraph finder = new FilteredSubgraphs(getDerivationPathCondition(backward), new StartNode());
+        return createFinder().find(graph, startNode);
+    }
+
+    @Override public Stream<SubgraphWrapper> stream(final SubgraphWrapper graph, final INode startNode) {
+        return createFinder().stream(graph, startNode);
+    }
 
-        return finder.find(graph, startNode);
+    private IFindableSubgraph createFinder() {
+        return new FilteredSubgraphs(getDerivationPathCondition(backward), new StartNode());
     }
 
     public static ICondition<EdgeToNode> getDerivationPathCondition(Boolean backward) {
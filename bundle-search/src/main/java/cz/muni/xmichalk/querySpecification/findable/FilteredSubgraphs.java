@@ -9,6 +9,7 @@ import cz.muni.xmichalk.util.GraphTraverser;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FilteredSubgraphs implements IFindableSubgraph {
     public ICondition<EdgeToNode> filter;
@@ -28,32 +29,30 @@ public class FilteredSubgraphs implements IFindableSubgraph {
     }
 
     @Override public List<SubgraphWrapper> find(SubgraphWrapper graph, INode startNode) {
+        validate();
+
+        Set<INode> startingNodes =
+                startsIn.find(graph, startNode).stream().flatMap(subgraph -> subgraph.getNodes().stream())
+                        .collect(Collectors.toSet());
+
+        return startingNodes.stream()
+                .map(startingNode -> GraphTraverser.findSubgraphFrom(startingNode, filter))
+                .toList();
+    }
+
+    @Override public Stream<SubgraphWrapper> stream(SubgraphWrapper graph, INode startNode) {
+        validate();
+
+        return startsIn.stream(graph, startNode).flatMap(subgraph -> subgraph.getNodes().stream()).distinct()
+                .map(startingNode -> GraphTraverser.findSubgraphFrom(startingNode, filter));
+    }
+
+    private void validate() {
         if (filter == null) {
             throw new IllegalStateException("Value of filter cannot be null in " + this.getClass().getSimpleName());
         }
         if (startsIn == null) {
             throw new IllegalStateException("Value of startsIn cannot be null in " + this.getClass().getSimpleName());
         }
-
-        Set<INode> startingNodes =
-                startsIn.find(graph, startNode).stream().flatMap(subgraph -> subgraph.getNodes().stream())
-                        .collect(Collectors.toSet());
-
-        return startingNodes.stream().map(startingNode -> {
-            SubgraphWrapper foundSubgraph = new SubgraphWrapper();
-
-            GraphTraverser.traverseFrom(
-                    startingNode, edgeToNode -> {
-                        if (edgeToNode.node != null && !foundSubgraph.getNodes().contains(edgeToNode.node)) {
-                            foundSubgraph.getNodes().add(edgeToNode.node);
-                        }
-                        if (edgeToNode.edge != null && !foundSubgraph.getEdges().contains(edgeToNode.edge)) {
-                            foundSubgraph.getEdges().add(edgeToNode.edge);
-                        }
-                    }, filter
-            );
-
-            return foundSubgraph;
-        }).toList();
     }
 }
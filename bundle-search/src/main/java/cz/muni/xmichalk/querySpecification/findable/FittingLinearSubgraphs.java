@@ -4,13 +4,14 @@ import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.models.EdgeToNode;
 import cz.muni.xmichalk.models.SubgraphWrapper;
 import cz.muni.xmichalk.querySpecification.ICondition;
-import cz.muni.xmichalk.util.LinearSubgraphFinder;
+import cz.muni.xmichalk.util.LinearPathMatcher;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FittingLinearSubgraphs implements IFindableSubgraph {
     public List<ICondition<EdgeToNode>> graphParts;
@@ -29,22 +30,39 @@ public class FittingLinearSubgraphs implements IFindableSubgraph {
     }
 
     @Override public List<SubgraphWrapper> find(SubgraphWrapper graph, INode startNode) {
+        validate();
+
+        Set<INode> startingNodes =
+                startsIn.find(graph, startNode).stream().flatMap(subgraph -> subgraph.getNodes().stream())
+                        .collect(Collectors.toSet());
+
+        LinearPathMatcher matcher = createMatcher();
+
+        return startingNodes.stream()
+                .flatMap(matcher::streamMatchesFrom).collect(Collectors.toList());
+    }
+
+    @Override public Stream<SubgraphWrapper> stream(SubgraphWrapper graph, INode startNode) {
+        validate();
+
+        LinearPathMatcher matcher = createMatcher();
+
+        return startsIn.stream(graph, startNode).flatMap(subgraph -> subgraph.getNodes().stream()).distinct()
+                .flatMap(matcher::streamMatchesFrom);
+    }
+
+    private void validate() {
         if (graphParts == null) {
             throw new IllegalStateException("Value of graphParts cannot be null in " + this.getClass().getSimpleName());
         }
         if (startsIn == null) {
             throw new IllegalStateException("Value of startsIn cannot be null in " + this.getClass().getSimpleName());
         }
+    }
 
-        Set<INode> startingNodes =
-                startsIn.find(graph, startNode).stream().flatMap(subgraph -> subgraph.getNodes().stream())
-                        .collect(Collectors.toSet());
-
-
+    private LinearPathMatcher createMatcher() {
         List<Predicate<EdgeToNode>> graphSpecification = List.copyOf(graphParts);
-
-        return startingNodes.stream()
-                .map(startingNode -> LinearSubgraphFinder.findSubgraphsFrom(startingNode, graphSpecification))
-                .flatMap(List::stream).collect(Collectors.toList());
+        // one matcher for all starting nodes, so dead-ends found from one are skipped from the others
+        return new LinearPathMatcher(graphSpecification);
     }
 }
@@ -3,11 +3,13 @@ package cz.muni.xmichalk.querySpecification.findable;
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.models.SubgraphWrapper;
 import cz.muni.xmichalk.querySpecification.ICondition;
+import cz.muni.xmichalk.querySpecification.IIndexableCondition;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class FittingNodes implements IFindableSubgraph {
     public ICondition<INode> nodeCondition;
@@ -26,6 +28,35 @@ public class FittingNodes implements IFindableSubgraph {
     }
 
     @Override public List<SubgraphWrapper> find(SubgraphWrapper graph, INode startNode) {
+        validate();
+
+        List<INode> indexedNodes = findIndexedNodes(graph);
+        if (indexedNodes != null) {
+            return toSubgraphs(indexedNodes.stream()).toList();
+        }
+
+        Set<INode> startingNodes =
+                startsIn.find(graph, startNode).stream().flatMap(subgraph -> subgraph.getNodes().stream())
+                        .collect(Collectors.toSet());
+
+        return toSubgraphs(startingNodes.stream().filter(node -> nodeCondition.test(node))).toList();
+    }
+
+    @Override public Stream<SubgraphWrapper> stream(SubgraphWrapper graph, INode startNode) {
+        validate();
+
+        List<INode> indexedNodes = findIndexedNodes(graph);
+        if (indexedNodes != null) {
+            return toSubgraphs(indexedNodes.stream());
+        }
+
+        Stream<INode> startingNodes =
+                startsIn.stream(graph, startNode).flatMap(subgraph -> subgraph.getNodes().stream()).distinct();
+
+        return toSubgraphs(startingNodes.filter(node -> nodeCondition.test(node)));
+    }
+
+    private void validate() {
         if (nodeCondition == null) {
             throw new IllegalStateException(
                     "Value of nodeCondition cannot be null in " + this.getClass().getSimpleName());
@@ -33,12 +64,17 @@ public class FittingNodes implements IFindableSubgraph {
         if (startsIn == null) {
             throw new IllegalStateException("Value of startsIn cannot be null in " + this.getClass().getSimpleName());
         }
+    }
 
-        Set<INode> startingNodes =
-                startsIn.find(graph, startNode).stream().flatMap(subgraph -> subgraph.getNodes().stream())
-                        .collect(Collectors.toSet());
+    private List<INode> findIndexedNodes(SubgraphWrapper graph) {
+        if (startsIn instanceof WholeGraph && graph.getAttributeIndex() != null &&
+                nodeCondition instanceof IIndexableCondition indexableCondition) {
+            return indexableCondition.findFittingNodes(graph.getAttributeIndex());
+        }
+        return null;
+    }
 
-        return startingNodes.stream().filter(node -> nodeCondition.test(node))
-                .map(node -> new SubgraphWrapper(List.of(node), new ArrayList<>())).toList();
+    private static Stream<SubgraphWrapper> toSubgraphs(Stream<INode> nodes) {
+        return nodes.map(node -> new SubgraphWrapper(List.of(node), new ArrayList<>()));
     }
 }
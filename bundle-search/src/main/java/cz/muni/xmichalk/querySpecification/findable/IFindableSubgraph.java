@@ -8,6 +8,7 @@ import cz.muni.xmichalk.models.SubgraphWrapper;
 import cz.muni.xmichalk.querySpecification.countable.ICountable;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.PROPERTY, property = "type")
 @JsonSubTypes(
@@ -23,7 +24,16 @@ import java.util.List;
 public interface IFindableSubgraph extends ICountable<DocumentStart> {
     List<SubgraphWrapper> find(SubgraphWrapper graph, INode startNode);
 
+    // the same subgraphs as find, but only searched for as far as the stream is consumed
+    default Stream<SubgraphWrapper> stream(SubgraphWrapper graph, INode startNode) {
+        return find(graph, startNode).stream();
+    }
+
     @Override default int count(DocumentStart documentStart) {
-        return find(new SubgraphWrapper(documentStart.document), documentStart.startNode).size();
+        return countUpTo(documentStart, Integer.MAX_VALUE);
+    }
+
+    @Override default int countUpTo(DocumentStart documentStart, int limit) {
+        return (int) stream(new SubgraphWrapper(documentStart.document), documentStart.startNode).limit(limit).count();
     }
 }
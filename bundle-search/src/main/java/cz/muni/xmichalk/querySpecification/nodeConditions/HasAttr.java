@@ -2,11 +2,13 @@ package cz.muni.xmichalk.querySpecification.nodeConditions;
 
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.querySpecification.ICondition;
+import cz.muni.xmichalk.querySpecification.IIndexableCondition;
+import cz.muni.xmichalk.util.AttributeIndex;
 import cz.muni.xmichalk.util.AttributeUtils;
 
 import java.util.List;
 
-public class HasAttr implements ICondition<INode> {
+public class HasAttr implements ICondition<INode>, IIndexableCondition {
     public String attributeNameUri;
 
     public HasAttr() {
@@ -17,12 +19,22 @@ public class HasAttr implements ICondition<INode> {
     }
 
     @Override public boolean test(INode node) {
+        validate();
+
+        Object value = AttributeUtils.getAttributeValue(node, attributeNameUri);
+        return (value != null && !(value instanceof List<?> && ((List<?>) value).isEmpty()));
+    }
+
+    @Override public List<INode> findFittingNodes(AttributeIndex index) {
+        validate();
+
+        return index.findNodesWithAttribute(attributeNameUri);
+    }
+
+    private void validate() {
         if (attributeNameUri == null) {
             throw new IllegalStateException(
                     "Value of attributeNameUri cannot be null in " + this.getClass().getSimpleName());
         }
-
-        Object value = AttributeUtils.getAttributeValue(node, attributeNameUri);
-        return (value != null && !(value instanceof List<?> && ((List<?>) value).isEmpty()));
     }
 }
@@ -2,13 +2,20 @@ package cz.muni.xmichalk.querySpecification.nodeConditions;
 
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.querySpecification.ICondition;
+import cz.muni.xmichalk.querySpecification.IIndexableCondition;
+import cz.muni.xmichalk.util.AttributeIndex;
 import cz.muni.xmichalk.util.AttributeUtils;
+import cz.muni.xmichalk.util.CompiledRegex;
 import org.openprovenance.prov.model.LangString;
 
-public class HasAttrLangStringValue implements ICondition<INode> {
+import java.util.List;
+
+public class HasAttrLangStringValue implements ICondition<INode>, IIndexableCondition {
     public String attributeNameUri;
     public String langRegex;
     public String valueRegex;
+    private volatile CompiledRegex compiledLangRegex;
+    private volatile CompiledRegex compiledValueRegex;
 
     public HasAttrLangStringValue() {
     }
@@ -20,20 +27,17 @@ public class HasAttrLangStringValue implements ICondition<INode> {
     }
 
     @Override public boolean test(INode node) {
-        if (attributeNameUri == null) {
-            throw new IllegalStateException(
-                    "Value of attributeNameUri cannot be null in " + this.getClass().getSimpleName());
-        }
-        if (langRegex == null && valueRegex == null) {
-            throw new IllegalStateException(
-                    "At least one of langRegex or valueRegex must be non-null in " + this.getClass().getSimpleName());
-        }
+        validate();
 
         try {
+            CompiledRegex langPattern = langRegex == null ? null : CompiledRegex.of(compiledLangRegex, langRegex);
+            CompiledRegex valuePattern = valueRegex == null ? null : CompiledRegex.of(compiledValueRegex, valueRegex);
+            compiledLangRegex = langPattern;
+            compiledValueRegex = valuePattern;
             return AttributeUtils.hasAttributeTargetValue(
                     node, attributeNameUri, LangString.class, (langString) -> {
-                        boolean langMatch = langRegex == null || langString.getLang().matches(langRegex);
-                        boolean valueMatch = valueRegex == null || langString.getValue().matches(valueRegex);
+                        boolean langMatch = langPattern == null || langPattern.matches(langString.getLang());
+                        boolean valueMatch = valuePattern == null || valuePattern.matches(langString.getValue());
                         return langMatch && valueMatch;
                     }
             );
@@ -42,4 +46,29 @@ public class HasAttrLangStringValue implements ICondition<INode> {
         }
     }
 
+    @Override public List<INode> findFittingNodes(AttributeIndex index) {
+        validate();
+
+        // the index holds lang string values only, conditions on the language are tested node by node
+        if (langRegex != null) {
+            return null;
+        }
+
+        try {
+            return index.findNodesWithLangStringValue(attributeNameUri, valueRegex);
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    private void validate() {
+        if (attributeNameUri == null) {
+            throw new IllegalStateException(
+                    "Value of attributeNameUri cannot be null in " + this.getClass().getSimpleName());
+        }
+        if (langRegex == null && valueRegex == null) {
+            throw new IllegalStateException(
+                    "At least one of langRegex or valueRegex must be non-null in " + this.getClass().getSimpleName());
+        }
+    }
 }
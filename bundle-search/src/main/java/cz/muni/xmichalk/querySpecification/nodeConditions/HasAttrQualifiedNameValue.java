@@ -2,12 +2,18 @@ package cz.muni.xmichalk.querySpecification.nodeConditions;
 
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.querySpecification.ICondition;
+import cz.muni.xmichalk.querySpecification.IIndexableCondition;
+import cz.muni.xmichalk.util.AttributeIndex;
 import cz.muni.xmichalk.util.AttributeUtils;
+import cz.muni.xmichalk.util.CompiledRegex;
 import org.openprovenance.prov.model.QualifiedName;
 
-public class HasAttrQualifiedNameValue implements ICondition<INode> {
+import java.util.List;
+
+public class HasAttrQualifiedNameValue implements ICondition<INode>, IIndexableCondition {
     public String attributeNameUri;
     public String valueUriRegex;
+    private volatile CompiledRegex compiledValueUriRegex;
 
     public HasAttrQualifiedNameValue() {
     }
@@ -18,23 +24,39 @@ public class HasAttrQualifiedNameValue implements ICondition<INode> {
     }
 
     @Override public boolean test(INode node) {
-        if (attributeNameUri == null) {
-            throw new IllegalStateException(
-                    "Value of attributeNameUri cannot be null in " + this.getClass().getSimpleName());
-        }
-        if (valueUriRegex == null) {
-            throw new IllegalStateException("Value of uriRegex cannot be null in " + this.getClass().getSimpleName());
-        }
+        validate();
 
         try {
+            CompiledRegex valueUriPattern = CompiledRegex.of(compiledValueUriRegex, valueUriRegex);
+            compiledValueUriRegex = valueUriPattern;
             return AttributeUtils.hasAttributeTargetValue(
                     node,
                     attributeNameUri,
                     QualifiedName.class,
-                    (qn) -> qn.getUri().matches(valueUriRegex)
+                    (qn) -> valueUriPattern.matches(qn.getUri())
             );
         } catch (Exception e) {
             return false;
         }
     }
+
+    @Override public List<INode> findFittingNodes(AttributeIndex index) {
+        validate();
+
+        try {
+            return index.findNodesWithQualifiedNameValue(attributeNameUri, valueUriRegex);
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    private void validate() {
+        if (attributeNameUri == null) {
+            throw new IllegalStateException(
+                    "Value of attributeNameUri cannot be null in " + this.getClass().getSimpleName());
+        }
+        if (valueUriRegex == null) {
+            throw new IllegalStateException("Value of uriRegex cannot be null in " + this.getClass().getSimpleName());
+        }
+    }
 }
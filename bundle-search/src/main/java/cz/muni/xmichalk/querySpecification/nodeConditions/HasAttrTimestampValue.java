@@ -4,15 +4,18 @@ import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.querySpecification.ICondition;
 import cz.muni.xmichalk.util.AttributeUtils;
 
+import javax.xml.datatype.DatatypeConfigurationException;
 import javax.xml.datatype.DatatypeConstants;
 import javax.xml.datatype.DatatypeFactory;
 import javax.xml.datatype.XMLGregorianCalendar;
+import java.util.Objects;
 
 public class HasAttrTimestampValue implements ICondition<INode> {
     public String attributeNameUri;
     public String isEqual;
     public String isBefore;
     public String isAfter;
+    private volatile TimestampBounds parsedBounds;
 
     public HasAttrTimestampValue() {
     }
@@ -34,28 +37,25 @@ public class HasAttrTimestampValue implements ICondition<INode> {
                     "At least one of isEqual, isBefore or isAfter must be set in " + this.getClass().getSimpleName());
         }
 
-
         try {
             XMLGregorianCalendar value =
                     (XMLGregorianCalendar) AttributeUtils.getAttributeValue(node, attributeNameUri);
             if (value == null) {
                 return false;
             }
+            TimestampBounds bounds = getParsedBounds();
             boolean match = true;
 
-            if (isEqual != null) {
-                XMLGregorianCalendar toCompareValue = DatatypeFactory.newInstance().newXMLGregorianCalendar(isEqual);
-                match = toCompareValue.compare(value) == DatatypeConstants.EQUAL;
+            if (bounds.equal != null) {
+                match = bounds.equal.compare(value) == DatatypeConstants.EQUAL;
             }
 
-            if (isBefore != null) {
-                XMLGregorianCalendar toCompareValue = DatatypeFactory.newInstance().newXMLGregorianCalendar(isBefore);
-                match = match && value.compare(toCompareValue) == DatatypeConstants.LESSER;
+            if (bounds.before != null) {
+                match = match && value.compare(bounds.before) == DatatypeConstants.LESSER;
             }
 
-            if (isAfter != null) {
-                XMLGregorianCalendar toCompareValue = DatatypeFactory.newInstance().newXMLGregorianCalendar(isAfter);
-                match = match && value.compare(toCompareValue) == DatatypeConstants.GREATER;
+            if (bounds.after != null) {
+                match = match && value.compare(bounds.after) == DatatypeConstants.GREATER;
             }
 
             return match;
@@ -63,4 +63,37 @@ public class HasAttrTimestampValue implements ICondition<INode> {
             return false;
         }
     }
+
+    private TimestampBounds getParsedBounds() throws DatatypeConfigurationException {
+        // the bounds are parsed once and reused for every tested node while the fields stay the same
+        TimestampBounds bounds = parsedBounds;
+        if (bounds == null || !bounds.isParsedFrom(isEqual, isBefore, isAfter)) {
+            DatatypeFactory datatypeFactory = DatatypeFactory.newInstance();
+            bounds = new TimestampBounds(
+                    isEqual,
+                    isBefore,
+                    isAfter,
+                    isEqual == null ? null : datatypeFactory.newXMLGregorianCalendar(isEqual),
+                    isBefore == null ? null : datatypeFactory.newXMLGregorianCalendar(isBefore),
+                    isAfter == null ? null : datatypeFactory.newXMLGregorianCalendar(isAfter)
+            );
+            parsedBounds = bounds;
+        }
+        return bounds;
+    }
+
+    private record TimestampBounds(
+            String isEqual,
+            String isBefore,
+            String isAfter,
+            XMLGregorianCalendar equal,
+            XMLGregorianCalendar before,
+            XMLGregorianCalendar after
+    ) {
+        private boolean isParsedFrom(String isEqual, String isBefore, String isAfter) {
+            return Objects.equals(this.isEqual, isEqual)
+                    && Objects.equals(this.isBefore, isBefore)
+                    && Objects.equals(this.isAfter, isAfter);
+        }
+    }
 }
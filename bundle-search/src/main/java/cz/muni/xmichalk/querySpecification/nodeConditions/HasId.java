@@ -2,9 +2,11 @@ package cz.muni.xmichalk.querySpecification.nodeConditions;
 
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.querySpecification.ICondition;
+import cz.muni.xmichalk.util.CompiledRegex;
 
 public class HasId implements ICondition<INode> {
     public String idUriRegex;
+    private volatile CompiledRegex compiledIdUriRegex;
 
     public HasId() {
     }
@@ -19,6 +21,8 @@ public class HasId implements ICondition<INode> {
                     "Value of attributeNameUri cannot be null in " + this.getClass().getSimpleName());
         }
 
-        return node.getId().getUri().matches(idUriRegex);
+        CompiledRegex idUriPattern = CompiledRegex.of(compiledIdUriRegex, idUriRegex);
+        compiledIdUriRegex = idUriPattern;
+        return idUriPattern.matches(node.getId().getUri());
     }
 }
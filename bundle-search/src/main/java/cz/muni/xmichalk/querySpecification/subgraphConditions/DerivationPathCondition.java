@@ -7,9 +7,11 @@ import cz.muni.xmichalk.querySpecification.subgraphConditions.edgeConditions.IsR
 import org.openprovenance.prov.model.StatementOrBundle;
 
 import java.util.List;
+import java.util.Objects;
 
 public class DerivationPathCondition implements ICondition<EdgeToNode> {
     public Boolean backward;
+    private volatile HoistedCondition hoistedCondition;
 
     public DerivationPathCondition() {
     }
@@ -29,6 +31,15 @@ public class DerivationPathCondition implements ICondition<EdgeToNode> {
     }
 
     @Override public boolean test(final EdgeToNode target) {
-        return getCondition(backward).test(target);
+        // the condition tree only depends on the direction, so it is built once instead of for every edge
+        HoistedCondition hoisted = hoistedCondition;
+        if (hoisted == null || !Objects.equals(hoisted.backward, backward)) {
+            hoisted = new HoistedCondition(backward, getCondition(backward));
+            hoistedCondition = hoisted;
+        }
+        return hoisted.condition.test(target);
+    }
+
+    private record HoistedCondition(Boolean backward, ICondition<EdgeToNode> condition) {
     }
 }
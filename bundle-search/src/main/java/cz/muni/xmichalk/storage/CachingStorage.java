@@ -0,0 +1,193 @@
+package cz.muni.xmichalk.storage;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.xmichalk.util.AttributeIndex;
+import cz.muni.xmichalk.util.CpmUtils;
+import org.openprovenance.prov.model.QualifiedName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.AccessDeniedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CachingStorage implements IStorage {
+    private static final Logger log = LoggerFactory.getLogger(CachingStorage.class);
+
+    private final IStorage storage;
+    private final DocumentCache documents;
+    private final DocumentCache metaDocuments;
+    private final Cache<String, String> metaBundleUris;
+
+    public CachingStorage(
+            IStorage storage,
+            long maximumDocumentsWeight,
+            long maximumMetaDocumentsWeight,
+            Duration metaDocumentTtl,
+            long maximumMetaBundleUris
+    ) {
+        this.storage = storage;
+        // bundle versions never change, meta documents get new versions appended, so they are kept only shortly
+        this.documents = new DocumentCache(
+                "documents",
+                Caffeine.newBuilder()
+                        .maximumWeight(maximumDocumentsWeight)
+                        .weigher((DocumentKey _, CachedDocument cached) -> cached.weight())
+                        .recordStats()
+                        .buildAsync()
+        );
+        this.metaDocuments = new DocumentCache(
+                "metaDocuments",
+                Caffeine.newBuilder()
+                        .maximumWeight(maximumMetaDocumentsWeight)
+                        .weigher((DocumentKey _, CachedDocument cached) -> cached.weight())
+                        .expireAfterWrite(metaDocumentTtl)
+                        .recordStats()
+                        .buildAsync()
+        );
+        // the meta bundle of a bundle never changes, so it stays known after the bundle itself is evicted
+        this.metaBundleUris = Caffeine.newBuilder().maximumSize(maximumMetaBundleUris).build();
+        log.info(
+                "Instantiated caching storage with maximum documents weight: {}, maximum meta documents weight: {}, meta document ttl: {}, maximum meta bundle uris: {}",
+                maximumDocumentsWeight,
+                maximumMetaDocumentsWeight,
+                metaDocumentTtl,
+                maximumMetaBundleUris
+        );
+    }
+
+    @Override public StorageCpmDocument loadCpmDocument(String uri, EBundlePart part, String authorizationHeader)
+            throws AccessDeniedException {
+        return documents.load(
+                new DocumentKey(uri, part), () -> {
+                    StorageCpmDocument loaded = storage.loadCpmDocument(uri, part, authorizationHeader);
+                    rememberMetaBundleUri(uri, loaded);
+                    return loaded;
+                }
+        );
+    }
+
+    @Override public StorageCpmDocument loadMetaCpmDocument(String uri, String authorizationHeader)
+            throws AccessDeniedException {
+        return metaDocuments.load(
+                new DocumentKey(uri, EBundlePart.Whole),
+                () -> storage.loadMetaCpmDocument(uri, authorizationHeader)
+        );
+    }
+
+    @Override public String getKnownMetaBundleUri(String uri, String authorizationHeader) {
+        return metaBundleUris.getIfPresent(uri);
+    }
+
+    public List<StorageCacheStats> getStats() {
+        return List.of(documents.getStats(), metaDocuments.getStats());
+    }
+
+    public void invalidateAll() {
+        documents.cache.synchronous().invalidateAll();
+        metaDocuments.cache.synchronous().invalidateAll();
+        metaBundleUris.invalidateAll();
+    }
+
+    private void rememberMetaBundleUri(String uri, StorageCpmDocument loaded) {
+        if (loaded == null || loaded.document == null || loaded.document.getMainActivity() == null) {
+            return;
+        }
+        QualifiedName metaBundleId = CpmUtils.getMetaBundleId(loaded.document);
+        if (metaBundleId != null) {
+            metaBundleUris.put(uri, metaBundleId.getUri());
+        }
+    }
+
+    // attribute lookups and traversals find the indexes by node, so every cached document gets them once here;
+    // the attribute index is built over the graph snapshot, so its weight covers both
+    private static int buildIndexes(StorageCpmDocument loaded) {
+        if (loaded == null || loaded.document == null) {
+            return 0;
+        }
+        return AttributeIndex.of(loaded.document).estimateWeight();
+    }
+
+    private static int estimateWeight(CpmDocument document, int indexWeight) {
+        long weight = 1L + document.getNodes().size() + document.getEdges().size() + indexWeight;
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private record DocumentKey(String uri, EBundlePart part) {
+    }
+
+    private record CachedDocument(StorageCpmDocument document, long loadNanos, int weight) {
+    }
+
+    private static class DocumentCache {
+        private final String name;
+        private final AsyncCache<DocumentKey, CachedDocument> cache;
+        private final LongAdder loadCount = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+        private final LongAdder loadNanosSaved = new LongAdder();
+
+        private DocumentCache(String name, AsyncCache<DocumentKey, CachedDocument> cache) {
+            this.name = name;
+            this.cache = cache;
+        }
+
+        // concurrent misses of a key wait for the storage load of the first one, which runs on its own thread
+        // outside the cache, so a slow storage response does not block other keys; failed loads are not kept.
+        // The documents are keyed without the authorization header, which is checked above this cache
+        private StorageCpmDocument load(DocumentKey key, DocumentLoader<StorageCpmDocument> loader)
+                throws AccessDeniedException {
+            CompletableFuture<CachedDocument> pending = new CompletableFuture<>();
+            CompletableFuture<CachedDocument> registered = cache.get(key, (_, _) -> pending);
+            CachedDocument cached = DocumentLoader.loadOnce(pending, registered, () -> loadUncached(loader));
+            if (cached == null) {
+                return null;
+            }
+
+            if (registered != pending) {
+                loadNanosSaved.add(cached.loadNanos());
+            } else if (cached.document().document == null) {
+                // a response without a document is passed to the waiting callers, but not kept
+                cache.asMap().remove(key, registered);
+            }
+            return cached.document();
+        }
+
+        private CachedDocument loadUncached(DocumentLoader<StorageCpmDocument> loader) throws AccessDeniedException {
+            long startedAt = System.nanoTime();
+            StorageCpmDocument loaded = loader.load();
+            int indexWeight = buildIndexes(loaded);
+            long loadNanos = System.nanoTime() - startedAt;
+            this.loadCount.increment();
+            this.loadNanos.add(loadNanos);
+            if (loaded == null) {
+                return null;
+            }
+            int weight = loaded.document == null ? 1 : estimateWeight(loaded.document, indexWeight);
+            return new CachedDocument(loaded, loadNanos, weight);
+        }
+
+        private StorageCacheStats getStats() {
+            Cache<DocumentKey, CachedDocument> cache = this.cache.synchronous();
+            CacheStats stats = cache.stats();
+            long loads = loadCount.sum();
+            return new StorageCacheStats(
+                    name,
+                    cache.estimatedSize(),
+                    cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L),
+                    stats.hitCount(),
+                    stats.missCount(),
+                    stats.hitRate(),
+                    stats.evictionCount(),
+                    loads,
+                    loads == 0 ? 0 : loadNanos.sum() / (double) loads / 1_000_000d,
+                    loadNanosSaved.sum() / 1_000_000d
+            );
+        }
+    }
+}
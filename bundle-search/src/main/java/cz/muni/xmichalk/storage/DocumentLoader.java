@@ -0,0 +1,43 @@
+package cz.muni.xmichalk.storage;
+
+import java.nio.file.AccessDeniedException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@FunctionalInterface interface DocumentLoader<T> {
+    T load() throws AccessDeniedException;
+
+    // the caller whose pending future got registered runs the load, the others wait for its result;
+    // the future is always completed, so waiters are never left hanging when the load fails
+    static <T> T loadOnce(
+            CompletableFuture<T> pending,
+            CompletableFuture<T> registered,
+            DocumentLoader<T> loader
+    ) throws AccessDeniedException {
+        if (registered == pending) {
+            try {
+                T loaded = loader.load();
+                pending.complete(loaded);
+                return loaded;
+            } catch (Throwable e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return registered.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AccessDeniedException accessDeniedException) {
+                throw accessDeniedException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
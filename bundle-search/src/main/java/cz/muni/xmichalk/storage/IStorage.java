@@ -7,4 +7,9 @@ public interface IStorage {
             throws AccessDeniedException;
 
     StorageCpmDocument loadMetaCpmDocument(String uri, String authorizationHeader) throws AccessDeniedException;
+
+    // meta bundle uri of a bundle that was loaded before, null when it is not known without loading the bundle
+    default String getKnownMetaBundleUri(String uri, String authorizationHeader) {
+        return null;
+    }
 }
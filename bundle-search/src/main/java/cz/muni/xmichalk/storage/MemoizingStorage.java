@@ -0,0 +1,65 @@
+package cz.muni.xmichalk.storage;
+
+import cz.muni.xmichalk.storage.storageDTO.Token;
+
+import java.nio.file.AccessDeniedException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class MemoizingStorage implements IStorage {
+    private final IStorage storage;
+    private final ConcurrentMap<DocumentKey, CompletableFuture<StorageCpmDocument>> documents =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<StorageCpmDocument>> metaDocuments =
+            new ConcurrentHashMap<>();
+
+    public MemoizingStorage(IStorage storage) {
+        this.storage = storage;
+    }
+
+    @Override public StorageCpmDocument loadCpmDocument(String uri, EBundlePart part, String authorizationHeader)
+            throws AccessDeniedException {
+        return load(
+                documents,
+                new DocumentKey(uri, part),
+                () -> storage.loadCpmDocument(uri, part, authorizationHeader)
+        );
+    }
+
+    @Override public StorageCpmDocument loadMetaCpmDocument(String uri, String authorizationHeader)
+            throws AccessDeniedException {
+        return load(metaDocuments, uri, () -> storage.loadMetaCpmDocument(uri, authorizationHeader));
+    }
+
+    @Override public String getKnownMetaBundleUri(String uri, String authorizationHeader) {
+        return storage.getKnownMetaBundleUri(uri, authorizationHeader);
+    }
+
+    public Map<EBundlePart, Token> getTokens(String uri) {
+        Map<EBundlePart, Token> tokens = new EnumMap<>(EBundlePart.class);
+        for (Map.Entry<DocumentKey, CompletableFuture<StorageCpmDocument>> entry : documents.entrySet()) {
+            StorageCpmDocument loaded = entry.getValue().getNow(null);
+            if (entry.getKey().uri().equals(uri) && loaded != null && loaded.token != null) {
+                tokens.put(entry.getKey().part(), loaded.token);
+            }
+        }
+        return Collections.unmodifiableMap(tokens);
+    }
+
+    private static <K> StorageCpmDocument load(
+            ConcurrentMap<K, CompletableFuture<StorageCpmDocument>> loaded,
+            K key,
+            DocumentLoader<StorageCpmDocument> loader
+    ) throws AccessDeniedException {
+        // concurrent queries of one batch wait for the first load of a document instead of repeating it
+        CompletableFuture<StorageCpmDocument> pending = new CompletableFuture<>();
+        return DocumentLoader.loadOnce(pending, loaded.computeIfAbsent(key, _ -> pending), loader);
+    }
+
+    private record DocumentKey(String uri, EBundlePart part) {
+    }
+}
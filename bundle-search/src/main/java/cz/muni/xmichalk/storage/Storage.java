@@ -1,53 +1,91 @@
 package cz.muni.xmichalk.storage;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.muni.fi.cpm.model.CpmDocument;
 import cz.muni.fi.cpm.model.ICpmFactory;
 import cz.muni.fi.cpm.model.ICpmProvFactory;
-import cz.muni.xmichalk.storage.storageDTO.GetDocumentResponse;
-import cz.muni.xmichalk.storage.storageDTO.GetMetaResponse;
+import cz.muni.xmichalk.storage.storageDTO.Token;
 import cz.muni.xmichalk.util.ProvDocumentUtils;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
-import org.openprovenance.prov.model.Document;
 import org.openprovenance.prov.model.ProvFactory;
 import org.openprovenance.prov.model.interop.Formats;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 public class Storage implements IStorage {
     private static final Formats.ProvFormat FORMAT = Formats.ProvFormat.JSON;
     private static final String FORMAT_QUERY_PARAM = "format=json";
-    private static final Charset CHARSET = StandardCharsets.UTF_8;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
     private final ProvFactory provFactory;
     private final ICpmFactory cpmFactory;
     private final ICpmProvFactory cpmProvFactory;
+    private final CloseableHttpClient httpClient;
 
-    public Storage(ProvFactory provFactory, ICpmFactory cpmFactory, ICpmProvFactory cpmProvFactory) {
+    public Storage(
+            ProvFactory provFactory,
+            ICpmFactory cpmFactory,
+            ICpmProvFactory cpmProvFactory,
+            CloseableHttpClient httpClient
+    ) {
         this.provFactory = provFactory;
         this.cpmFactory = cpmFactory;
         this.cpmProvFactory = cpmProvFactory;
+        this.httpClient = httpClient;
     }
 
+    public static CloseableHttpClient createPooledHttpClient(
+            int maxConnections,
+            int maxConnectionsPerRoute,
+            Duration connectTimeout,
+            Duration readTimeout,
+            Duration keepAlive,
+            boolean compressionEnabled
+    ) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
 
-    public StorageDocument loadDocument(String uri, String authorizationHeader) {
-        try {
-            uri += (uri.contains("?") ? "&" : "?") + FORMAT_QUERY_PARAM;
-            String responseBody = getRequest(uri, authorizationHeader);
-            ObjectMapper mapper = new ObjectMapper();
-            GetDocumentResponse storageResponse = mapper.readValue(responseBody, GetDocumentResponse.class);
-            String decodedDocument = decodeData(storageResponse.document);
-            Document document = ProvDocumentUtils.deserialize(decodedDocument, FORMAT);
-            return new StorageDocument(document, storageResponse.token);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load document " + uri, e);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    // storage might not send a keep-alive header, connections are then kept for the configured time
+                    long serverKeepAlive =
+                            DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        if (!compressionEnabled) {
+            builder.disableContentCompression();
         }
+        return builder.build();
+    }
+
+
+    public StorageDocument loadDocument(String uri, String authorizationHeader) {
+        return loadStorageDocument(uri, authorizationHeader, "document");
     }
 
     @Override public StorageCpmDocument loadCpmDocument(String uri, EBundlePart part, String authorizationHeader) {
@@ -57,17 +95,7 @@ public class Storage implements IStorage {
     }
 
     public StorageDocument loadMetaDocument(String uri, String authorizationHeader) {
-        try {
-            uri += (uri.contains("?") ? "&" : "?") + FORMAT_QUERY_PARAM;
-            String responseBody = getRequest(uri, authorizationHeader);
-            ObjectMapper mapper = new ObjectMapper();
-            GetMetaResponse storageResponse = mapper.readValue(responseBody, GetMetaResponse.class);
-            String decodedDocument = decodeData(storageResponse.graph);
-            Document document = ProvDocumentUtils.deserialize(decodedDocument, FORMAT);
-            return new StorageDocument(document, storageResponse.token);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to load document " + uri, e);
-        }
+        return loadStorageDocument(uri, authorizationHeader, "graph");
     }
 
     @Override public StorageCpmDocument loadMetaCpmDocument(String uri, String authorizationHeader) {
@@ -94,22 +122,72 @@ public class Storage implements IStorage {
         );
     }
 
-    private static String getRequest(String url, String authorizationHeader) throws IOException {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet httpGet = new HttpGet(url);
-            httpGet.setHeader("Authorization", authorizationHeader);
-            try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-                int statusCode = response.getStatusLine().getStatusCode();
-                if (statusCode != 200) {
-                    throw new IOException("Unexpected response code: " + statusCode);
+    private StorageDocument loadStorageDocument(String uri, String authorizationHeader, String documentField) {
+        try {
+            uri += (uri.contains("?") ? "&" : "?") + FORMAT_QUERY_PARAM;
+            // the document is deserialized after the connection went back to the pool
+            return getRequest(uri, authorizationHeader, documentField).toStorageDocument();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load document " + uri, e);
+        }
+    }
+
+    private StorageResponse getRequest(String url, String authorizationHeader, String documentField)
+            throws IOException {
+        HttpGet httpGet = new HttpGet(url);
+        httpGet.setHeader("Authorization", authorizationHeader);
+        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != 200) {
+                // the rest of the body is read, so the connection can go back to the pool
+                EntityUtils.consume(response.getEntity());
+                throw new IOException("Unexpected response code: " + statusCode);
+            }
+            try (InputStream content = response.getEntity().getContent()) {
+                return readStorageResponse(content, documentField);
+            }
+        }
+    }
+
+    static StorageDocument readStorageDocument(InputStream storageResponse, String documentField) throws IOException {
+        return readStorageResponse(storageResponse, documentField).toStorageDocument();
+    }
+
+    private static StorageResponse readStorageResponse(InputStream storageResponse, String documentField)
+            throws IOException {
+        // the base64 document is decoded while the response is read, without keeping either as a String
+        byte[] decodedDocument = null;
+        Token token = null;
+        try (JsonParser parser = objectMapper.createParser(storageResponse)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected storage response");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (fieldName.equals(documentField) && value == JsonToken.VALUE_STRING) {
+                    ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+                    parser.readBinaryValue(decoded);
+                    decodedDocument = decoded.toByteArray();
+                } else if (fieldName.equals("token")) {
+                    token = parser.readValueAs(Token.class);
+                } else {
+                    parser.skipChildren();
                 }
-                return EntityUtils.toString(response.getEntity());
             }
         }
+        return new StorageResponse(decodedDocument, token);
     }
 
-    private static String decodeData(String base64Data) {
-        byte[] decodedBytes = Base64.getDecoder().decode(base64Data);
-        return new String(decodedBytes, CHARSET);
+    private record StorageResponse(byte[] document, Token token) {
+        StorageDocument toStorageDocument() throws IOException {
+            if (document == null) {
+                return new StorageDocument(null, token);
+            }
+            return new StorageDocument(
+                    ProvDocumentUtils.deserialize(new ByteArrayInputStream(document), FORMAT),
+                    token
+            );
+        }
     }
 }
@@ -0,0 +1,41 @@
+package cz.muni.xmichalk.storage;
+
+public class StorageCacheStats {
+    public String cacheName;
+    public long estimatedSize;
+    public long weightedSize;
+    public long hitCount;
+    public long missCount;
+    public double hitRate;
+    public long evictionCount;
+    public long loadCount;
+    public double averageLoadMillis;
+    public double loadTimeSavedMillis;
+
+    public StorageCacheStats() {
+    }
+
+    public StorageCacheStats(
+            String cacheName,
+            long estimatedSize,
+            long weightedSize,
+            long hitCount,
+            long missCount,
+            double hitRate,
+            long evictionCount,
+            long loadCount,
+            double averageLoadMillis,
+            double loadTimeSavedMillis
+    ) {
+        this.cacheName = cacheName;
+        this.estimatedSize = estimatedSize;
+        this.weightedSize = weightedSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.evictionCount = evictionCount;
+        this.loadCount = loadCount;
+        this.averageLoadMillis = averageLoadMillis;
+        this.loadTimeSavedMillis = loadTimeSavedMillis;
+    }
+}
@@ -33,6 +33,13 @@ public class MockedAuthStorage implements IStorage {
         }
     }
 
+    @Override public String getKnownMetaBundleUri(String uri, String authorizationHeader) {
+        if (isAuthorized(uri, EBundlePart.TraversalInformation, authorizationHeader)) {
+            return storage.getKnownMetaBundleUri(uri, authorizationHeader);
+        }
+        return null;
+    }
+
     private boolean isAuthorized(String uri, EBundlePart part, String authorizationHeader) {
         AuthEntry authEntry = config.authEntries.stream()
                 .filter(entry -> entry.authHeader().equals(authorizationHeader) && entry.uri().equals(uri)).findFirst()
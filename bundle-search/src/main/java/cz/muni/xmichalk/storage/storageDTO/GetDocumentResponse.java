@@ -1,7 +0,0 @@
-package cz.muni.xmichalk.storage.storageDTO;
-
-public class GetDocumentResponse {
-    public String document;
-    public Token token;
-}
-
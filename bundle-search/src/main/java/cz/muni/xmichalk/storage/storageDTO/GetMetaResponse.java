@@ -1,6 +0,0 @@
-package cz.muni.xmichalk.storage.storageDTO;
-
-public class GetMetaResponse {
-    public String graph;
-    public Token token;
-}
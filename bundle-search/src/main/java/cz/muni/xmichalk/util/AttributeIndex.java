@@ -0,0 +1,201 @@
+package cz.muni.xmichalk.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.INode;
+import org.openprovenance.prov.model.Element;
+import org.openprovenance.prov.model.LangString;
+import org.openprovenance.prov.model.Other;
+import org.openprovenance.prov.model.QualifiedName;
+import org.openprovenance.prov.model.StatementOrBundle;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static cz.muni.xmichalk.util.AttributeNames.*;
+
+public class AttributeIndex {
+    private static final Cache<CpmDocument, AttributeIndex> indexesByDocument =
+            Caffeine.newBuilder().weakKeys().build();
+    // the index references its nodes, so it is only kept alive by its document
+    private static final Cache<INode, AttributeIndex> indexesByNode =
+            Caffeine.newBuilder().weakKeys().weakValues().build();
+    private static final Pattern regexMetaCharacters = Pattern.compile("[\\\\^$.|?*+()\\[\\]{}]");
+
+    // positions are the ordinals of the document nodes in the snapshot
+    private final GraphSnapshot snapshot;
+    private final int nodeCount;
+    private int indexedValueCount;
+    private final Map<String, Object[]> valuesByAttribute = new HashMap<>();
+    private final Map<String, NavigableMap<String, BitSet>> nodesByQualifiedNameValue = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> nodesByLangStringValue = new HashMap<>();
+
+    public static AttributeIndex of(CpmDocument document) {
+        return indexesByDocument.get(
+                document, _ -> {
+                    AttributeIndex index = new AttributeIndex(GraphSnapshot.of(document));
+                    for (int position = 0; position < index.nodeCount; position++) {
+                        indexesByNode.put(index.snapshot.getNode(position), index);
+                    }
+                    return index;
+                }
+        );
+    }
+
+    public static AttributeIndex forNode(INode node) {
+        return indexesByNode.getIfPresent(node);
+    }
+
+    public AttributeIndex(GraphSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.nodeCount = snapshot.documentNodeCount();
+
+        for (int position = 0; position < nodeCount; position++) {
+            INode node = snapshot.getNode(position);
+
+            Set<String> attributeNameUris = new LinkedHashSet<>();
+            for (Element element : node.getElements()) {
+                collectAttributeNameUris(element, attributeNameUris);
+            }
+
+            for (String attributeNameUri : attributeNameUris) {
+                Object value = AttributeUtils.collectAttributeValue(node, attributeNameUri);
+                if (value == null) {
+                    continue;
+                }
+                if (value instanceof List<?> list) {
+                    value = Collections.unmodifiableList(list);
+                }
+                valuesByAttribute.computeIfAbsent(attributeNameUri, _ -> new Object[nodeCount])[position] = value;
+                indexValue(attributeNameUri, value, position);
+            }
+        }
+    }
+
+    public Object getAttributeValue(INode node, String attributeNameUri) {
+        int position = snapshot.getOrdinal(node);
+        if (position < 0 || position >= nodeCount) {
+            return AttributeUtils.collectAttributeValue(node, attributeNameUri);
+        }
+
+        Object[] values = valuesByAttribute.get(attributeNameUri);
+        return values == null ? null : values[position];
+    }
+
+    public List<INode> findNodesWithAttribute(String attributeNameUri) {
+        Object[] values = valuesByAttribute.get(attributeNameUri);
+        if (values == null) {
+            return List.of();
+        }
+
+        List<INode> found = new ArrayList<>();
+        for (int position = 0; position < values.length; position++) {
+            Object value = values[position];
+            if (value != null && !(value instanceof List<?> list && list.isEmpty())) {
+                found.add(snapshot.getNode(position));
+            }
+        }
+        return found;
+    }
+
+    public List<INode> findNodesWithQualifiedNameValue(String attributeNameUri, String valueUriRegex) {
+        NavigableMap<String, BitSet> nodesByValue = nodesByQualifiedNameValue.get(attributeNameUri);
+        if (nodesByValue == null) {
+            return List.of();
+        }
+
+        // literal and prefix patterns only need to look at the matching part of the sorted values
+        Map<String, BitSet> candidates = nodesByValue;
+        if (!regexMetaCharacters.matcher(valueUriRegex).find()) {
+            BitSet exactMatch = nodesByValue.get(valueUriRegex);
+            return exactMatch == null ? List.of() : toNodes(exactMatch);
+        }
+        if (valueUriRegex.endsWith(".*")) {
+            String prefix = valueUriRegex.substring(0, valueUriRegex.length() - 2);
+            if (!regexMetaCharacters.matcher(prefix).find()) {
+                candidates = nodesByValue.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            }
+        }
+
+        return findNodesWithValue(candidates, Pattern.compile(valueUriRegex).asMatchPredicate());
+    }
+
+    public List<INode> findNodesWithLangStringValue(String attributeNameUri, String valueRegex) {
+        Map<String, BitSet> nodesByValue = nodesByLangStringValue.get(attributeNameUri);
+        if (nodesByValue == null) {
+            return List.of();
+        }
+        return findNodesWithValue(nodesByValue, Pattern.compile(valueRegex).asMatchPredicate());
+    }
+
+    private List<INode> findNodesWithValue(Map<String, BitSet> nodesByValue, Predicate<String> isTargetValue) {
+        BitSet found = new BitSet(nodeCount);
+        for (Map.Entry<String, BitSet> entry : nodesByValue.entrySet()) {
+            if (isTargetValue.test(entry.getKey())) {
+                found.or(entry.getValue());
+            }
+        }
+        return toNodes(found);
+    }
+
+    private List<INode> toNodes(BitSet positions) {
+        List<INode> found = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            found.add(snapshot.getNode(position));
+        }
+        return found;
+    }
+
+    // in the units of GraphSnapshot.estimateWeight, which is included
+    public int estimateWeight() {
+        long entries = (long) valuesByAttribute.size() * nodeCount + indexedValueCount * 4L;
+        return (int) Math.min(Integer.MAX_VALUE, snapshot.estimateWeight() + entries / 16);
+    }
+
+    private void indexValue(String attributeNameUri, Object value, int position) {
+        if (value instanceof Collection<?> collection) {
+            for (Object item : collection) {
+                indexValueItem(attributeNameUri, item, position);
+            }
+        } else {
+            indexValueItem(attributeNameUri, value, position);
+        }
+    }
+
+    private void indexValueItem(String attributeNameUri, Object item, int position) {
+        indexedValueCount++;
+        if (item instanceof QualifiedName qualifiedName) {
+            nodesByQualifiedNameValue.computeIfAbsent(attributeNameUri, _ -> new TreeMap<>())
+                    .computeIfAbsent(qualifiedName.getUri(), _ -> new BitSet()).set(position);
+        } else if (item instanceof LangString langString && langString.getValue() != null) {
+            nodesByLangStringValue.computeIfAbsent(attributeNameUri, _ -> new HashMap<>())
+                    .computeIfAbsent(langString.getValue(), _ -> new BitSet()).set(position);
+        }
+    }
+
+    private static void collectAttributeNameUris(Element element, Set<String> attributeNameUris) {
+        // every attribute name for which AttributeUtils can find a value in the element
+        if (element.getKind() == StatementOrBundle.Kind.PROV_ACTIVITY) {
+            attributeNameUris.add(ATTR_START_TIME.getUri());
+            attributeNameUris.add(ATTR_END_TIME.getUri());
+        }
+        attributeNameUris.add(ATTR_LOCATION.getUri());
+        attributeNameUris.add(ATTR_PROV_TYPE.getUri());
+        attributeNameUris.add(ATTR_LABEL.getUri());
+        for (Other other : element.getOther()) {
+            attributeNameUris.add(other.getElementName().getUri());
+        }
+    }
+}
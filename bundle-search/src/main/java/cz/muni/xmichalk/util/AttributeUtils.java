@@ -16,6 +16,14 @@ public class AttributeUtils {
     }
 
     public static Object getAttributeValue(INode node, String attributeNameUri) {
+        AttributeIndex index = AttributeIndex.forNode(node);
+        if (index != null) {
+            return index.getAttributeValue(node, attributeNameUri);
+        }
+        return collectAttributeValue(node, attributeNameUri);
+    }
+
+    static Object collectAttributeValue(INode node, String attributeNameUri) {
         List<Object> values = new ArrayList<>();
         boolean isList = false;
         boolean found = false;
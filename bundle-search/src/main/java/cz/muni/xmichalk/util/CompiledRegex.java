@@ -0,0 +1,17 @@
+package cz.muni.xmichalk.util;
+
+import java.util.regex.Pattern;
+
+public record CompiledRegex(String regex, Pattern pattern) {
+    public static CompiledRegex of(CompiledRegex compiled, String regex) {
+        // query fields are public, so the compiled pattern is only reused while the regex stays the same
+        if (compiled != null && compiled.regex.equals(regex)) {
+            return compiled;
+        }
+        return new CompiledRegex(regex, Pattern.compile(regex));
+    }
+
+    public boolean matches(String value) {
+        return pattern.matcher(value).matches();
+    }
+}
@@ -57,12 +57,14 @@ public class CpmUtils {
                 );
                 return isSpecialization && isGeneralEntity && isForwardConnector;
             });
-            List<SubgraphWrapper> subgraphs =
-                    LinearSubgraphFinder.findSubgraphsFrom(connectorNode, subgraphConstraints);
-            if (subgraphs.isEmpty() || subgraphs.getFirst().getNodes().size() != 2) {
+            // only the first match is used, so the search stops there
+            SubgraphWrapper subgraph =
+                    LinearSubgraphFinder.streamSubgraphsFrom(connectorNode, subgraphConstraints).findFirst()
+                            .orElse(null);
+            if (subgraph == null || subgraph.getNodes().size() != 2) {
                 return null;
             }
-            return subgraphs.getFirst().getNodes().getLast();
+            return subgraph.getNodes().getLast();
         }
 
         return null;
@@ -0,0 +1,5 @@
+package cz.muni.xmichalk.util;
+
+public enum ETraversalOrder {
+    DEPTH_FIRST, BREADTH_FIRST
+}
@@ -0,0 +1,210 @@
+package cz.muni.xmichalk.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
+import org.openprovenance.prov.model.StatementOrBundle;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+public class GraphSnapshot {
+    private static final Cache<CpmDocument, GraphSnapshot> snapshotsByDocument =
+            Caffeine.newBuilder().weakKeys().build();
+    // the snapshot references its nodes, so it is only kept alive by its document
+    private static final Cache<INode, GraphSnapshot> snapshotsByNode =
+            Caffeine.newBuilder().weakKeys().weakValues().build();
+    private static final StatementOrBundle.Kind[] kinds = StatementOrBundle.Kind.values();
+
+    private final int documentNodeCount;
+    private final IdentityOrdinals nodeOrdinals;
+    // edges are only looked up while the snapshot is built
+    private IdentityOrdinals edgeOrdinals;
+    private INode[] nodes;
+    private IEdge[] edges;
+    private byte[] nodeKinds;
+    private byte[] edgeKinds;
+    // the slots of a node are its cause edges followed by its effect edges, in the order of the node's lists
+    private final int[] adjacencyOffsets;
+    private final int[] effectEdgesOffsets;
+    private int[] neighbours;
+    private int[] slotEdges;
+
+    public static GraphSnapshot of(CpmDocument document) {
+        return snapshotsByDocument.get(
+                document, _ -> {
+                    GraphSnapshot snapshot = new GraphSnapshot(document.getNodes(), document.getEdges());
+                    for (INode node : snapshot.nodes) {
+                        snapshotsByNode.put(node, snapshot);
+                    }
+                    return snapshot;
+                }
+        );
+    }
+
+    public static GraphSnapshot forNode(INode node) {
+        return snapshotsByNode.getIfPresent(node);
+    }
+
+    public GraphSnapshot(Collection<INode> nodes, Collection<IEdge> edges) {
+        this.nodeOrdinals = new IdentityOrdinals(nodes.size());
+        this.edgeOrdinals = new IdentityOrdinals(edges.size());
+
+        // node ordinals follow the document order, so the AttributeIndex uses them as its positions
+        this.nodes = new INode[Math.max(nodes.size(), 16)];
+        this.nodeKinds = new byte[this.nodes.length];
+        this.edges = new IEdge[Math.max(edges.size(), 16)];
+        this.edgeKinds = new byte[this.edges.length];
+        for (INode node : nodes) {
+            addNode(node);
+        }
+        this.documentNodeCount = nodeOrdinals.size();
+        for (IEdge edge : edges) {
+            addEdge(edge);
+        }
+
+        // nodes only reachable over edges get ordinals after the document nodes, so every traversal stays inside
+        int[] adjacency = new int[this.nodes.length + 1];
+        int[] effectEdgesStarts = new int[this.nodes.length];
+        this.neighbours = new int[Math.max(this.edges.length * 2, 16)];
+        this.slotEdges = new int[this.neighbours.length];
+        int slotCount = 0;
+        for (int ordinal = 0; ordinal < nodeOrdinals.size(); ordinal++) {
+            INode node = this.nodes[ordinal];
+            adjacency[ordinal] = slotCount;
+            for (IEdge edge : node.getCauseEdges()) {
+                slotCount = addSlot(slotCount, edge, edge.getEffect());
+            }
+            effectEdgesStarts[ordinal] = slotCount;
+            for (IEdge edge : node.getEffectEdges()) {
+                slotCount = addSlot(slotCount, edge, edge.getCause());
+            }
+            if (adjacency.length < this.nodes.length + 1) {
+                adjacency = Arrays.copyOf(adjacency, this.nodes.length + 1);
+                effectEdgesStarts = Arrays.copyOf(effectEdgesStarts, this.nodes.length);
+            }
+        }
+        adjacency[nodeOrdinals.size()] = slotCount;
+
+        this.adjacencyOffsets = Arrays.copyOf(adjacency, nodeOrdinals.size() + 1);
+        this.effectEdgesOffsets = Arrays.copyOf(effectEdgesStarts, nodeOrdinals.size());
+        this.nodes = Arrays.copyOf(this.nodes, nodeOrdinals.size());
+        this.nodeKinds = Arrays.copyOf(this.nodeKinds, nodeOrdinals.size());
+        this.edges = Arrays.copyOf(this.edges, edgeOrdinals.size());
+        this.edgeKinds = Arrays.copyOf(this.edgeKinds, edgeOrdinals.size());
+        this.neighbours = Arrays.copyOf(this.neighbours, slotCount);
+        this.slotEdges = Arrays.copyOf(this.slotEdges, slotCount);
+        this.edgeOrdinals = null;
+    }
+
+    // the document nodes have the ordinals from 0, nodes only reachable over edges follow them
+    public int documentNodeCount() {
+        return documentNodeCount;
+    }
+
+    public int nodeCount() {
+        return nodes.length;
+    }
+
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    public int getOrdinal(INode node) {
+        return nodeOrdinals.get(node);
+    }
+
+    // in units of one node or edge object of the document, which takes about as much memory as 16 snapshot entries
+    public int estimateWeight() {
+        long entries = nodeOrdinals.capacity() * 2L + nodes.length * 3L + edges.length * 2L + neighbours.length * 2L;
+        return (int) Math.min(Integer.MAX_VALUE, 1 + entries / 16);
+    }
+
+    public INode getNode(int nodeOrdinal) {
+        return nodes[nodeOrdinal];
+    }
+
+    public IEdge getEdge(int edgeOrdinal) {
+        return edges[edgeOrdinal];
+    }
+
+    public StatementOrBundle.Kind getNodeKind(int nodeOrdinal) {
+        return toKind(nodeKinds[nodeOrdinal]);
+    }
+
+    public StatementOrBundle.Kind getEdgeKind(int edgeOrdinal) {
+        return toKind(edgeKinds[edgeOrdinal]);
+    }
+
+    public int getAdjacencyStart(int nodeOrdinal) {
+        return adjacencyOffsets[nodeOrdinal];
+    }
+
+    public int getEffectEdgesStart(int nodeOrdinal) {
+        return effectEdgesOffsets[nodeOrdinal];
+    }
+
+    public int getAdjacencyEnd(int nodeOrdinal) {
+        return adjacencyOffsets[nodeOrdinal + 1];
+    }
+
+    // -1 when the edge has no node on the other end
+    public int getNeighbour(int slot) {
+        return neighbours[slot];
+    }
+
+    public int getSlotEdge(int slot) {
+        return slotEdges[slot];
+    }
+
+    private int addSlot(int slot, IEdge edge, INode neighbour) {
+        if (slot == neighbours.length) {
+            neighbours = Arrays.copyOf(neighbours, slot * 2);
+            slotEdges = Arrays.copyOf(slotEdges, slot * 2);
+        }
+        neighbours[slot] = neighbour == null ? -1 : addNode(neighbour);
+        slotEdges[slot] = addEdge(edge);
+        return slot + 1;
+    }
+
+    private int addNode(INode node) {
+        int ordinal = nodeOrdinals.size();
+        if (nodeOrdinals.add(node) != ordinal) {
+            return nodeOrdinals.get(node);
+        }
+
+        if (ordinal == nodes.length) {
+            nodes = Arrays.copyOf(nodes, ordinal * 2);
+            nodeKinds = Arrays.copyOf(nodeKinds, ordinal * 2);
+        }
+        nodes[ordinal] = node;
+        nodeKinds[ordinal] = toKindByte(node.getKind());
+        return ordinal;
+    }
+
+    private int addEdge(IEdge edge) {
+        int ordinal = edgeOrdinals.size();
+        int known = edgeOrdinals.add(edge);
+        if (known != ordinal) {
+            return known;
+        }
+
+        if (ordinal == edges.length) {
+            edges = Arrays.copyOf(edges, ordinal * 2);
+            edgeKinds = Arrays.copyOf(edgeKinds, ordinal * 2);
+        }
+        edges[ordinal] = edge;
+        edgeKinds[ordinal] = toKindByte(edge.getKind());
+        return ordinal;
+    }
+
+    private static byte toKindByte(StatementOrBundle.Kind kind) {
+        return kind == null ? -1 : (byte) kind.ordinal();
+    }
+
+    private static StatementOrBundle.Kind toKind(byte kind) {
+        return kind < 0 ? null : kinds[kind];
+    }
+}
@@ -3,8 +3,15 @@ package cz.muni.xmichalk.util;
 import cz.muni.fi.cpm.model.IEdge;
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.models.EdgeToNode;
+import cz.muni.xmichalk.models.SubgraphWrapper;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -30,36 +37,278 @@ public class GraphTraverser {
             Consumer<EdgeToNode> traversedConsumer,
             Predicate<EdgeToNode> pathFilter
     ) {
-        traverseRecursive(new EdgeToNode(null, startNode), pathFilter, new HashSet<>(), traversedConsumer);
+        traverseFrom(startNode, traversedConsumer, pathFilter, ETraversalOrder.DEPTH_FIRST);
     }
 
-    private static void traverseRecursive(
-            EdgeToNode current,
+    // the consumer and the path filter get the same EdgeToNode instance for every traversed edge,
+    // so they have to copy its edge and node if they want to keep them
+    public static void traverseFrom(
+            INode startNode,
+            Consumer<EdgeToNode> traversedConsumer,
             Predicate<EdgeToNode> pathFilter,
-            Set<INode> visited,
-            Consumer<EdgeToNode> traversedConsumer
+            ETraversalOrder order
     ) {
-        if (current == null) return;
+        traverseFrom(GraphSnapshot.forNode(startNode), startNode, traversedConsumer, pathFilter, order);
+    }
+
+    // nodes and edges traversed under the path filter, each once and in the order they were first traversed
+    public static SubgraphWrapper findSubgraphFrom(INode startNode, Predicate<EdgeToNode> pathFilter) {
+        return findSubgraphFrom(GraphSnapshot.forNode(startNode), startNode, pathFilter);
+    }
+
+    static void traverseFrom(
+            GraphSnapshot snapshot,
+            INode startNode,
+            Consumer<EdgeToNode> traversedConsumer,
+            Predicate<EdgeToNode> pathFilter,
+            ETraversalOrder order
+    ) {
+        if (startNode == null) return;
+
+        int startOrdinal = snapshot == null ? -1 : snapshot.getOrdinal(startNode);
+        if (startOrdinal >= 0) {
+            SnapshotTraversal traversal = new SnapshotTraversal(snapshot, pathFilter);
+            traversal.traverse(startOrdinal, order, (_, _) -> traversedConsumer.accept(traversal.cursor));
+            return;
+        }
+
+        Traversal traversal = new Traversal(traversedConsumer, pathFilter);
+        if (order == ETraversalOrder.BREADTH_FIRST) {
+            traversal.breadthFirst(startNode);
+        } else {
+            traversal.depthFirst(startNode);
+        }
+    }
+
+    static SubgraphWrapper findSubgraphFrom(GraphSnapshot snapshot, INode startNode, Predicate<EdgeToNode> pathFilter) {
+        SubgraphWrapper foundSubgraph = new SubgraphWrapper();
+
+        int startOrdinal = snapshot == null || startNode == null ? -1 : snapshot.getOrdinal(startNode);
+        if (startOrdinal >= 0) {
+            // the found parts are collected as ordinals and only resolved to nodes and edges once
+            BitSet foundNodes = new BitSet();
+            BitSet foundEdges = new BitSet();
+            new SnapshotTraversal(snapshot, pathFilter).traverse(
+                    startOrdinal, ETraversalOrder.DEPTH_FIRST, (edgeOrdinal, nodeOrdinal) -> {
+                        if (!foundNodes.get(nodeOrdinal)) {
+                            foundNodes.set(nodeOrdinal);
+                            foundSubgraph.getNodes().add(snapshot.getNode(nodeOrdinal));
+                        }
+                        if (edgeOrdinal >= 0 && !foundEdges.get(edgeOrdinal)) {
+                            foundEdges.set(edgeOrdinal);
+                            foundSubgraph.getEdges().add(snapshot.getEdge(edgeOrdinal));
+                        }
+                    }
+            );
+            return foundSubgraph;
+        }
+
+        // graph components hash all their neighbours, so found ones are collected by identity
+        Set<INode> foundNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<IEdge> foundEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+        traverseFrom(
+                null, startNode, edgeToNode -> {
+                    if (edgeToNode.node != null && foundNodes.add(edgeToNode.node)) {
+                        foundSubgraph.getNodes().add(edgeToNode.node);
+                    }
+                    if (edgeToNode.edge != null && foundEdges.add(edgeToNode.edge)) {
+                        foundSubgraph.getEdges().add(edgeToNode.edge);
+                    }
+                }, pathFilter, ETraversalOrder.DEPTH_FIRST
+        );
+        return foundSubgraph;
+    }
+
+    private static class SnapshotTraversal {
+        private final GraphSnapshot snapshot;
+        private final Predicate<EdgeToNode> pathFilter;
+        private final EdgeToNode cursor = new EdgeToNode();
+        private final BitSet visited = new BitSet();
+        private int[] pendingNodes = new int[16];
+        private int[] nextSlots = new int[16];
+
+        private SnapshotTraversal(GraphSnapshot snapshot, Predicate<EdgeToNode> pathFilter) {
+            this.snapshot = snapshot;
+            this.pathFilter = pathFilter;
+        }
+
+        private void traverse(int startOrdinal, ETraversalOrder order, OrdinalConsumer traversedConsumer) {
+            if (!reach(-1, startOrdinal, traversedConsumer)) return;
 
-        IEdge edge = current.edge;
-        INode node = current.node;
+            if (order == ETraversalOrder.BREADTH_FIRST) {
+                int head = 0;
+                int tail = 0;
+                pendingNodes[tail++] = startOrdinal;
+                while (head < tail) {
+                    int ordinal = pendingNodes[head++];
+                    int end = snapshot.getAdjacencyEnd(ordinal);
+                    for (int slot = snapshot.getAdjacencyStart(ordinal); slot < end; slot++) {
+                        int neighbour = snapshot.getNeighbour(slot);
+                        if (reach(snapshot.getSlotEdge(slot), neighbour, traversedConsumer)) {
+                            tail = push(tail, neighbour, 0);
+                        }
+                    }
+                }
+                return;
+            }
+
+            // same order as the object graph traversal, each node on the stack remembers its next slot
+            int stackSize = push(0, startOrdinal, snapshot.getAdjacencyStart(startOrdinal));
+            while (stackSize > 0) {
+                int ordinal = pendingNodes[stackSize - 1];
+                int slot = nextSlots[stackSize - 1];
+                if (slot >= snapshot.getAdjacencyEnd(ordinal)) {
+                    stackSize--;
+                    continue;
+                }
+                nextSlots[stackSize - 1] = slot + 1;
+
+                int neighbour = snapshot.getNeighbour(slot);
+                if (reach(snapshot.getSlotEdge(slot), neighbour, traversedConsumer)) {
+                    stackSize = push(stackSize, neighbour, snapshot.getAdjacencyStart(neighbour));
+                }
+            }
+        }
+
+        private int push(int size, int ordinal, int nextSlot) {
+            if (size == pendingNodes.length) {
+                pendingNodes = Arrays.copyOf(pendingNodes, size * 2);
+                nextSlots = Arrays.copyOf(nextSlots, size * 2);
+            }
+            pendingNodes[size] = ordinal;
+            nextSlots[size] = nextSlot;
+            return size + 1;
+        }
+
+        // returns whether the node was reached for the first time
+        private boolean reach(int edgeOrdinal, int nodeOrdinal, OrdinalConsumer traversedConsumer) {
+            if (nodeOrdinal < 0) return false;
+
+            cursor.edge = edgeOrdinal < 0 ? null : snapshot.getEdge(edgeOrdinal);
+            cursor.node = snapshot.getNode(nodeOrdinal);
+            if (pathFilter != null && !pathFilter.test(cursor)) return false;
+
+            traversedConsumer.accept(edgeOrdinal, nodeOrdinal);
+
+            if (visited.get(nodeOrdinal)) return false;
+
+            visited.set(nodeOrdinal);
+            return true;
+        }
+    }
+
+    private interface OrdinalConsumer {
+        void accept(int edgeOrdinal, int nodeOrdinal);
+    }
 
-        if (node == null) return;
+    private static class Traversal {
+        private final Consumer<EdgeToNode> traversedConsumer;
+        private final Predicate<EdgeToNode> pathFilter;
+        private final EdgeToNode cursor = new EdgeToNode();
+        // node hash codes cover all their edges, so nodes are told apart by identity
+        private final Map<INode, Integer> ordinals = new IdentityHashMap<>();
+        private final BitSet visited = new BitSet();
+        private INode[] nodes = new INode[16];
+        private int[] nextEdgePositions = new int[16];
+        private int[] pending = new int[16];
 
+        private Traversal(Consumer<EdgeToNode> traversedConsumer, Predicate<EdgeToNode> pathFilter) {
+            this.traversedConsumer = traversedConsumer;
+            this.pathFilter = pathFilter;
+        }
+
+        private void depthFirst(INode startNode) {
+            int start = reach(null, startNode);
+            if (start < 0) return;
+
+            // same order as visiting the edges recursively, each node on the stack remembers its next edge
+            int stackSize = 0;
+            pending[stackSize++] = start;
+            while (stackSize > 0) {
+                int ordinal = pending[stackSize - 1];
+                INode node = nodes[ordinal];
+                List<IEdge> causeEdges = node.getCauseEdges();
+                List<IEdge> effectEdges = node.getEffectEdges();
+
+                int edgePosition = nextEdgePositions[ordinal];
+                if (edgePosition >= causeEdges.size() + effectEdges.size()) {
+                    stackSize--;
+                    continue;
+                }
+                nextEdgePositions[ordinal] = edgePosition + 1;
 
-        if (pathFilter != null && !pathFilter.test(current)) return;
+                int reached = reachOverEdge(causeEdges, effectEdges, edgePosition);
+                if (reached >= 0) {
+                    pending[stackSize++] = reached;
+                }
+            }
+        }
 
-        traversedConsumer.accept(current);
+        private void breadthFirst(INode startNode) {
+            int start = reach(null, startNode);
+            if (start < 0) return;
 
-        if (visited.contains(node)) return;
+            int head = 0;
+            int tail = 0;
+            pending[tail++] = start;
+            while (head < tail) {
+                INode node = nodes[pending[head++]];
+                List<IEdge> causeEdges = node.getCauseEdges();
+                List<IEdge> effectEdges = node.getEffectEdges();
 
-        visited.add(node);
+                int edgeCount = causeEdges.size() + effectEdges.size();
+                for (int edgePosition = 0; edgePosition < edgeCount; edgePosition++) {
+                    int reached = reachOverEdge(causeEdges, effectEdges, edgePosition);
+                    if (reached >= 0) {
+                        pending[tail++] = reached;
+                    }
+                }
+            }
+        }
 
-        for (IEdge e : node.getCauseEdges()) {
-            traverseRecursive(new EdgeToNode(e, e.getEffect()), pathFilter, visited, traversedConsumer);
+        private int reachOverEdge(List<IEdge> causeEdges, List<IEdge> effectEdges, int edgePosition) {
+            if (edgePosition < causeEdges.size()) {
+                IEdge edge = causeEdges.get(edgePosition);
+                return reach(edge, edge.getEffect());
+            }
+            IEdge edge = effectEdges.get(edgePosition - causeEdges.size());
+            return reach(edge, edge.getCause());
         }
-        for (IEdge e : node.getEffectEdges()) {
-            traverseRecursive(new EdgeToNode(e, e.getCause()), pathFilter, visited, traversedConsumer);
+
+        // returns the ordinal of the node if it was reached for the first time, -1 otherwise
+        private int reach(IEdge edge, INode node) {
+            if (node == null) return -1;
+
+            cursor.edge = edge;
+            cursor.node = node;
+            if (pathFilter != null && !pathFilter.test(cursor)) return -1;
+
+            traversedConsumer.accept(cursor);
+
+            int ordinal = getOrdinal(node);
+            if (visited.get(ordinal)) return -1;
+
+            visited.set(ordinal);
+            return ordinal;
+        }
+
+        private int getOrdinal(INode node) {
+            Integer ordinal = ordinals.get(node);
+            if (ordinal != null) {
+                return ordinal;
+            }
+
+            int newOrdinal = ordinals.size();
+            ordinals.put(node, newOrdinal);
+            if (newOrdinal == nodes.length) {
+                // every node is pending at most once, so the pending array never outgrows the nodes
+                int capacity = nodes.length * 2;
+                nodes = Arrays.copyOf(nodes, capacity);
+                nextEdgePositions = Arrays.copyOf(nextEdgePositions, capacity);
+                pending = Arrays.copyOf(pending, capacity);
+            }
+            nodes[newOrdinal] = node;
+            return newOrdinal;
         }
     }
 }
@@ -0,0 +1,76 @@
+package cz.muni.xmichalk.util;
+
+// identity map from objects to consecutive ordinals, open addressed over plain arrays instead of boxed map entries
+final class IdentityOrdinals {
+    private Object[] keys;
+    private int[] ordinals;
+    private int size = 0;
+
+    IdentityOrdinals(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) * 2 - 1) * 2;
+        this.keys = new Object[capacity];
+        this.ordinals = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    // -1 when the key has no ordinal
+    int get(Object key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return ordinals[slot];
+            }
+        }
+        return -1;
+    }
+
+    // the existing ordinal of the key, or the next free one assigned to it
+    int add(Object key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return ordinals[slot];
+            }
+        }
+
+        keys[slot] = key;
+        ordinals[slot] = size;
+        size++;
+        if (size * 2 > keys.length) {
+            resize();
+        }
+        return size - 1;
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldOrdinals = ordinals;
+        keys = new Object[oldKeys.length * 2];
+        ordinals = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+            if (oldKeys[oldSlot] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[oldSlot]) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[oldSlot];
+            ordinals[slot] = oldOrdinals[oldSlot];
+        }
+    }
+
+    private static int hash(Object key) {
+        int hash = System.identityHashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+}
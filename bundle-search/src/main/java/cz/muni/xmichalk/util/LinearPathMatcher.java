@@ -0,0 +1,166 @@
+package cz.muni.xmichalk.util;
+
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.models.EdgeToNode;
+import cz.muni.xmichalk.models.SubgraphWrapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class LinearPathMatcher {
+    private final List<Predicate<EdgeToNode>> specification;
+    // node hash codes cover all their edges, so nodes are told apart by identity
+    private final Map<INode, Integer> ordinals = new IdentityHashMap<>();
+    // (position, node) pairs from which the rest of the specification cannot be matched on any path
+    private final BitSet[] deadEnds;
+
+    public LinearPathMatcher(List<Predicate<EdgeToNode>> specification) {
+        this.specification = List.copyOf(specification);
+        this.deadEnds = new BitSet[this.specification.size()];
+        for (int position = 0; position < deadEnds.length; position++) {
+            deadEnds[position] = new BitSet();
+        }
+    }
+
+    public List<SubgraphWrapper> findMatchesFrom(INode startNode) {
+        return streamMatchesFrom(startNode).collect(Collectors.toList());
+    }
+
+    public Stream<SubgraphWrapper> streamMatchesFrom(INode startNode) {
+        return StreamSupport.stream(new MatchSpliterator(startNode), false);
+    }
+
+    private int getOrdinal(INode node) {
+        Integer ordinal = ordinals.get(node);
+        if (ordinal == null) {
+            ordinal = ordinals.size();
+            ordinals.put(node, ordinal);
+        }
+        return ordinal;
+    }
+
+    private class MatchSpliterator extends Spliterators.AbstractSpliterator<SubgraphWrapper> {
+        private final INode startNode;
+        private final int length = specification.size();
+        private final EdgeToNode cursor = new EdgeToNode();
+        // the path is matched in place, position i holds the i-th node and the edge it was reached by
+        private final INode[] pathNodes = new INode[length];
+        private final IEdge[] pathEdges = new IEdge[length];
+        private final int[] pathOrdinals = new int[length];
+        private final int[] nextEdgePositions = new int[length];
+        private final boolean[] matched = new boolean[length];
+        private final boolean[] blockedByPath = new boolean[length];
+        private final BitSet onPath = new BitSet();
+        private int depth = 0;
+        private boolean started = false;
+
+        private MatchSpliterator(INode startNode) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.startNode = startNode;
+        }
+
+        @Override public boolean tryAdvance(Consumer<? super SubgraphWrapper> action) {
+            if (!started) {
+                started = true;
+                if (length > 0 && tryPush(null, startNode) && depth == length) {
+                    return emitMatch(action);
+                }
+            }
+
+            while (depth > 0) {
+                int position = depth - 1;
+                INode node = pathNodes[position];
+                List<IEdge> causeEdges = node.getCauseEdges();
+                List<IEdge> effectEdges = node.getEffectEdges();
+
+                int edgePosition = nextEdgePositions[position];
+                if (edgePosition >= causeEdges.size() + effectEdges.size()) {
+                    pop();
+                    continue;
+                }
+                nextEdgePositions[position] = edgePosition + 1;
+
+                boolean pushed;
+                if (edgePosition < causeEdges.size()) {
+                    IEdge edge = causeEdges.get(edgePosition);
+                    pushed = tryPush(edge, edge.getEffect());
+                } else {
+                    IEdge edge = effectEdges.get(edgePosition - causeEdges.size());
+                    pushed = tryPush(edge, edge.getCause());
+                }
+
+                if (pushed && depth == length) {
+                    return emitMatch(action);
+                }
+            }
+            return false;
+        }
+
+        private boolean tryPush(IEdge edge, INode node) {
+            if (node == null) return false;
+
+            int position = depth;
+            int ordinal = getOrdinal(node);
+            if (onPath.get(ordinal)) {
+                // this branch failed only because of the current path, so the parent is no dead-end for other paths
+                if (position > 0) blockedByPath[position - 1] = true;
+                return false;
+            }
+            if (deadEnds[position].get(ordinal)) return false;
+
+            cursor.edge = edge;
+            cursor.node = node;
+            if (!specification.get(position).test(cursor)) return false;
+
+            pathNodes[position] = node;
+            pathEdges[position] = edge;
+            pathOrdinals[position] = ordinal;
+            nextEdgePositions[position] = 0;
+            matched[position] = false;
+            blockedByPath[position] = false;
+            onPath.set(ordinal);
+            depth++;
+            return true;
+        }
+
+        private void pop() {
+            int position = --depth;
+            onPath.clear(pathOrdinals[position]);
+            if (!matched[position] && !blockedByPath[position]) {
+                deadEnds[position].set(pathOrdinals[position]);
+            }
+            if (position > 0) {
+                matched[position - 1] |= matched[position];
+                blockedByPath[position - 1] |= blockedByPath[position];
+            }
+            pathNodes[position] = null;
+            pathEdges[position] = null;
+        }
+
+        private boolean emitMatch(Consumer<? super SubgraphWrapper> action) {
+            List<INode> nodes = new ArrayList<>(Arrays.asList(pathNodes));
+            List<IEdge> edges = new ArrayList<>(length - 1);
+            for (int position = 1; position < length; position++) {
+                edges.add(pathEdges[position]);
+            }
+            SubgraphWrapper match = new SubgraphWrapper(nodes, edges);
+
+            matched[depth - 1] = true;
+            pop();
+            action.accept(match);
+            return true;
+        }
+    }
+}
@@ -10,7 +10,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -47,9 +46,21 @@ public class ProvDocumentUtils {
         return interop.readDocument(inputStream, format);
     }
 
+    public static Document deserialize(InputStream serialized, Formats.ProvFormat format) throws IOException {
+        if (format == Formats.ProvFormat.JSON) {
+            PreparedDocumentBuffer prepared = new PreparedDocumentBuffer();
+            ProvJsonUtils.prepareJsonForDeserialization(serialized, prepared);
+            serialized = prepared.toInputStream();
+        }
+
+        InteropFramework interop = new InteropFramework();
+        return interop.readDocument(serialized, format);
+    }
+
     public static Document deserializeFile(Path filePath, Formats.ProvFormat format) throws IOException {
-        String serialized = Files.readString(filePath, StandardCharsets.UTF_8);
-        return deserialize(serialized, format);
+        try (InputStream inputStream = Files.newInputStream(filePath)) {
+            return deserialize(inputStream, format);
+        }
     }
 
     public static String prepareForDeserialization(String serializedDocument, Formats.ProvFormat format) {
@@ -71,4 +82,11 @@ public class ProvDocumentUtils {
             default -> throw new IllegalStateException("Switch case for: " + format + " is not defined.");
         };
     }
+
+    private static class PreparedDocumentBuffer extends ByteArrayOutputStream {
+        // hands the written bytes to the reader without copying them
+        private InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
 }
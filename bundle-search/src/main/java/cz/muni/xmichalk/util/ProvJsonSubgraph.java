@@ -0,0 +1,343 @@
+package cz.muni.xmichalk.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
+import org.openprovenance.prov.model.*;
+import org.openprovenance.prov.vanilla.HasAttributes;
+
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cz.muni.xmichalk.util.NameSpaceConstants.BLANK_URI;
+
+/**
+ * Nodes and edges written as a PROV-JSON document with a single anonymous bundle.
+ * The statements are written straight to the generator of the response and the prefixes they use are collected
+ * while writing them, so no intermediate prov document, string or tree is built.
+ */
+public class ProvJsonSubgraph extends JsonSerializable.Base {
+    private static final String XSD_STRING_URI = "http://www.w3.org/2001/XMLSchema#string";
+    private static final String BUNDLE_LOCAL_NAME = "anonymous_encapsulating_bundle";
+
+    private final Collection<INode> nodes;
+    private final Collection<IEdge> edges;
+
+    public ProvJsonSubgraph(Collection<INode> nodes, Collection<IEdge> edges) {
+        this.nodes = nodes == null ? List.of() : nodes;
+        this.edges = edges == null ? List.of() : edges;
+
+        // the statements are only written once the response has started, so unsupported ones are rejected up front
+        for (INode node : this.nodes) {
+            if (node != null) {
+                node.getElements().forEach(element -> getStatementTypeName(element.getKind()));
+            }
+        }
+        for (IEdge edge : this.edges) {
+            if (edge != null) {
+                edge.getRelations().forEach(relation -> getStatementTypeName(relation.getKind()));
+            }
+        }
+    }
+
+    @Override public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        new Writer().write(generator);
+    }
+
+    @Override public void serializeWithType(
+            JsonGenerator generator,
+            SerializerProvider serializers,
+            TypeSerializer typeSerializer
+    ) throws IOException {
+        WritableTypeId typeId =
+                typeSerializer.writeTypePrefix(generator, typeSerializer.typeId(this, JsonToken.START_OBJECT));
+        new Writer().writeContent(generator);
+        typeSerializer.writeTypeSuffix(generator, typeId);
+    }
+
+    private class Writer {
+        private final Map<String, String> prefixesByNamespace = new HashMap<>();
+        private final Map<String, String> namespacesByPrefix = new LinkedHashMap<>();
+        private int blankIdCounter = 0;
+
+        private void write(JsonGenerator generator) throws IOException {
+            generator.writeStartObject();
+            writeContent(generator);
+            generator.writeEndObject();
+        }
+
+        private void writeContent(JsonGenerator generator) throws IOException {
+            String bundleId = toPrefixed(BLANK_URI, "blank", BUNDLE_LOCAL_NAME);
+
+            // prefixes are only known once the statements are written, so those wait in a token buffer
+            TokenBuffer statements = new TokenBuffer(generator.getCodec(), false);
+            statements.writeStartObject();
+            writeStatements(statements);
+            statements.writeEndObject();
+
+            generator.writeObjectFieldStart("prefix");
+            for (Map.Entry<String, String> prefix : namespacesByPrefix.entrySet()) {
+                generator.writeStringField(prefix.getKey(), prefix.getValue());
+            }
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("bundle");
+            generator.writeFieldName(bundleId);
+            statements.serialize(generator);
+            generator.writeEndObject();
+        }
+
+        private void writeStatements(JsonGenerator generator) throws IOException {
+            // PROV-JSON groups statements by kind and statements sharing an id within a kind by that id
+            Map<StatementOrBundle.Kind, Map<String, List<Statement>>> statementsByKind =
+                    new EnumMap<>(StatementOrBundle.Kind.class);
+            for (INode node : nodes) {
+                if (node == null) {
+                    continue;
+                }
+                for (Element element : node.getElements()) {
+                    addStatement(statementsByKind, element);
+                }
+            }
+            for (IEdge edge : edges) {
+                if (edge == null) {
+                    continue;
+                }
+                for (Relation relation : edge.getRelations()) {
+                    addStatement(statementsByKind, relation);
+                }
+            }
+
+            for (Map.Entry<StatementOrBundle.Kind, Map<String, List<Statement>>> kind : statementsByKind.entrySet()) {
+                generator.writeObjectFieldStart(getStatementTypeName(kind.getKey()));
+                for (Map.Entry<String, List<Statement>> statements : kind.getValue().entrySet()) {
+                    generator.writeFieldName(statements.getKey());
+                    if (statements.getValue().size() == 1) {
+                        writeStatement(generator, statements.getValue().getFirst());
+                    } else {
+                        generator.writeStartArray();
+                        for (Statement statement : statements.getValue()) {
+                            writeStatement(generator, statement);
+                        }
+                        generator.writeEndArray();
+                    }
+                }
+                generator.writeEndObject();
+            }
+        }
+
+        private void addStatement(
+                Map<StatementOrBundle.Kind, Map<String, List<Statement>>> statementsByKind,
+                Statement statement
+        ) {
+            QualifiedName id = statement instanceof Identifiable identifiable ? identifiable.getId() : null;
+            String statementId = id != null ? toPrefixed(id) : "_:n" + ++blankIdCounter;
+            statementsByKind.computeIfAbsent(statement.getKind(), _ -> new LinkedHashMap<>())
+                    .computeIfAbsent(statementId, _ -> new ArrayList<>(1)).add(statement);
+        }
+
+        private void writeStatement(JsonGenerator generator, Statement statement) throws IOException {
+            generator.writeStartObject();
+            switch (statement) {
+                case Activity activity -> {
+                    writeTime(generator, "prov:startTime", activity.getStartTime());
+                    writeTime(generator, "prov:endTime", activity.getEndTime());
+                }
+                case WasGeneratedBy generation -> {
+                    writeReference(generator, "prov:entity", generation.getEntity());
+                    writeReference(generator, "prov:activity", generation.getActivity());
+                    writeTime(generator, "prov:time", generation.getTime());
+                }
+                case Used usage -> {
+                    writeReference(generator, "prov:activity", usage.getActivity());
+                    writeReference(generator, "prov:entity", usage.getEntity());
+                    writeTime(generator, "prov:time", usage.getTime());
+                }
+                case WasInformedBy communication -> {
+                    writeReference(generator, "prov:informed", communication.getInformed());
+                    writeReference(generator, "prov:informant", communication.getInformant());
+                }
+                case WasStartedBy start -> {
+                    writeReference(generator, "prov:activity", start.getActivity());
+                    writeReference(generator, "prov:trigger", start.getTrigger());
+                    writeReference(generator, "prov:starter", start.getStarter());
+                    writeTime(generator, "prov:time", start.getTime());
+                }
+                case WasEndedBy end -> {
+                    writeReference(generator, "prov:activity", end.getActivity());
+                    writeReference(generator, "prov:trigger", end.getTrigger());
+                    writeReference(generator, "prov:ender", end.getEnder());
+                    writeTime(generator, "prov:time", end.getTime());
+                }
+                case WasInvalidatedBy invalidation -> {
+                    writeReference(generator, "prov:entity", invalidation.getEntity());
+                    writeReference(generator, "prov:activity", invalidation.getActivity());
+                    writeTime(generator, "prov:time", invalidation.getTime());
+                }
+                case WasDerivedFrom derivation -> {
+                    writeReference(generator, "prov:generatedEntity", derivation.getGeneratedEntity());
+                    writeReference(generator, "prov:usedEntity", derivation.getUsedEntity());
+                    writeReference(generator, "prov:activity", derivation.getActivity());
+                    writeReference(generator, "prov:generation", derivation.getGeneration());
+                    writeReference(generator, "prov:usage", derivation.getUsage());
+                }
+                case WasAttributedTo attribution -> {
+                    writeReference(generator, "prov:entity", attribution.getEntity());
+                    writeReference(generator, "prov:agent", attribution.getAgent());
+                }
+                case WasAssociatedWith association -> {
+                    writeReference(generator, "prov:activity", association.getActivity());
+                    writeReference(generator, "prov:agent", association.getAgent());
+                    writeReference(generator, "prov:plan", association.getPlan());
+                }
+                case ActedOnBehalfOf delegation -> {
+                    writeReference(generator, "prov:delegate", delegation.getDelegate());
+                    writeReference(generator, "prov:responsible", delegation.getResponsible());
+                    writeReference(generator, "prov:activity", delegation.getActivity());
+                }
+                case WasInfluencedBy influence -> {
+                    writeReference(generator, "prov:influencee", influence.getInfluencee());
+                    writeReference(generator, "prov:influencer", influence.getInfluencer());
+                }
+                case MentionOf mention -> {
+                    writeReference(generator, "prov:specificEntity", mention.getSpecificEntity());
+                    writeReference(generator, "prov:generalEntity", mention.getGeneralEntity());
+                    writeReference(generator, "prov:bundle", mention.getBundle());
+                }
+                case SpecializationOf specialization -> {
+                    writeReference(generator, "prov:specificEntity", specialization.getSpecificEntity());
+                    writeReference(generator, "prov:generalEntity", specialization.getGeneralEntity());
+                }
+                case AlternateOf alternate -> {
+                    writeReference(generator, "prov:alternate1", alternate.getAlternate1());
+                    writeReference(generator, "prov:alternate2", alternate.getAlternate2());
+                }
+                case HadMember membership -> {
+                    writeReference(generator, "prov:collection", membership.getCollection());
+                    generator.writeArrayFieldStart("prov:entity");
+                    for (QualifiedName member : membership.getEntity()) {
+                        generator.writeString(toPrefixed(member));
+                    }
+                    generator.writeEndArray();
+                }
+                default -> {
+                }
+            }
+            if (statement instanceof HasAttributes hasAttributes) {
+                writeAttributes(generator, hasAttributes.getAttributes());
+            }
+            generator.writeEndObject();
+        }
+
+        private void writeAttributes(JsonGenerator generator, Collection<Attribute> attributes) throws IOException {
+            Map<QualifiedName, List<Attribute>> attributesByName = new LinkedHashMap<>();
+            for (Attribute attribute : attributes) {
+                attributesByName.computeIfAbsent(attribute.getElementName(), _ -> new ArrayList<>(1)).add(attribute);
+            }
+
+            for (Map.Entry<QualifiedName, List<Attribute>> attributesWithName : attributesByName.entrySet()) {
+                generator.writeArrayFieldStart(toPrefixed(attributesWithName.getKey()));
+                for (Attribute attribute : attributesWithName.getValue()) {
+                    writeAttributeValue(generator, attribute);
+                }
+                generator.writeEndArray();
+            }
+        }
+
+        private void writeAttributeValue(JsonGenerator generator, Attribute attribute) throws IOException {
+            Object value = attribute.getValue();
+            QualifiedName type = attribute.getType();
+
+            if (value instanceof LangString langString) {
+                if (langString.getLang() == null) {
+                    generator.writeString(langString.getValue());
+                } else {
+                    generator.writeStartObject();
+                    generator.writeStringField("$", langString.getValue());
+                    generator.writeStringField("lang", langString.getLang());
+                    generator.writeEndObject();
+                }
+            } else if (type == null || (XSD_STRING_URI.equals(type.getUri()) && !(value instanceof QualifiedName))) {
+                generator.writeString(String.valueOf(value));
+            } else {
+                generator.writeStartObject();
+                generator.writeStringField(
+                        "$",
+                        value instanceof QualifiedName qualifiedName ? toPrefixed(qualifiedName) : String.valueOf(value)
+                );
+                generator.writeStringField("type", toPrefixed(type));
+                generator.writeEndObject();
+            }
+        }
+
+        private void writeReference(JsonGenerator generator, String fieldName, QualifiedName reference)
+                throws IOException {
+            if (reference != null) {
+                generator.writeStringField(fieldName, toPrefixed(reference));
+            }
+        }
+
+        private void writeTime(JsonGenerator generator, String fieldName, XMLGregorianCalendar time)
+                throws IOException {
+            if (time != null) {
+                generator.writeStringField(fieldName, time.toXMLFormat());
+            }
+        }
+
+        private String toPrefixed(QualifiedName qualifiedName) {
+            return toPrefixed(qualifiedName.getNamespaceURI(), qualifiedName.getPrefix(), qualifiedName.getLocalPart());
+        }
+
+        private String toPrefixed(String namespaceUri, String preferredPrefix, String localPart) {
+            String prefix = prefixesByNamespace.get(namespaceUri);
+            if (prefix == null) {
+                // a prefix bound to another namespace in a different part of the subgraph gets a numbered variant
+                String basePrefix = preferredPrefix == null || preferredPrefix.isEmpty() ? "ns" : preferredPrefix;
+                prefix = basePrefix;
+                for (int suffix = 1; namespacesByPrefix.containsKey(prefix); suffix++) {
+                    prefix = basePrefix + "_" + suffix;
+                }
+                prefixesByNamespace.put(namespaceUri, prefix);
+                namespacesByPrefix.put(prefix, namespaceUri);
+            }
+            return prefix + ":" + localPart;
+        }
+    }
+
+    private static String getStatementTypeName(StatementOrBundle.Kind kind) {
+        return switch (kind) {
+            case PROV_ENTITY -> "entity";
+            case PROV_ACTIVITY -> "activity";
+            case PROV_AGENT -> "agent";
+            case PROV_GENERATION -> "wasGeneratedBy";
+            case PROV_USAGE -> "used";
+            case PROV_COMMUNICATION -> "wasInformedBy";
+            case PROV_START -> "wasStartedBy";
+            case PROV_END -> "wasEndedBy";
+            case PROV_INVALIDATION -> "wasInvalidatedBy";
+            case PROV_DERIVATION -> "wasDerivedFrom";
+            case PROV_ATTRIBUTION -> "wasAttributedTo";
+            case PROV_ASSOCIATION -> "wasAssociatedWith";
+            case PROV_DELEGATION -> "actedOnBehalfOf";
+            case PROV_INFLUENCE -> "wasInfluencedBy";
+            case PROV_SPECIALIZATION -> "specializationOf";
+            case PROV_ALTERNATE -> "alternateOf";
+            case PROV_MEMBERSHIP -> "hadMember";
+            case PROV_MENTION -> "mentionOf";
+            default -> throw new IllegalStateException("Statements of kind " + kind + " cannot be written as PROV-JSON.");
+        };
+    }
+}
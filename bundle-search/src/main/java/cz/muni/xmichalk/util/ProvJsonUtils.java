@@ -1,17 +1,26 @@
 package cz.muni.xmichalk.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.Set;
 
 public class ProvJsonUtils {
-
+    private static final ObjectMapper streamingMapper = new ObjectMapper()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private static final Set<String> stringArrayStatements = Set.of("entity", "activity", "agent");
 
     public static String prepareJsonForDeserialization(String json) {
         try {
@@ -31,6 +40,202 @@ public class ProvJsonUtils {
         }
     }
 
+    /**
+     * Streaming variant of {@link #prepareJsonForDeserialization(String)} producing the same document.
+     * Only the values of statement attributes and prefixes are read into trees, the rest is copied token by token.
+     *
+     * @param json     the original PROV-JSON
+     * @param prepared the stream the JSON prepared for provtoolbox deserialization is written to
+     */
+    public static void prepareJsonForDeserialization(InputStream json, OutputStream prepared) {
+        try (JsonParser parser = streamingMapper.createParser(json);
+             JsonGenerator generator = streamingMapper.createGenerator(prepared)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("PROV-JSON document must be an object");
+            }
+            writePreparedDocument(parser, generator);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare JSON for deserialization", e);
+        }
+    }
+
+    private static void writePreparedDocument(JsonParser parser, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+
+        boolean outerPrefixRead = false;
+        ObjectNode outerPrefix = null;
+        TokenBuffer deferredBundles = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            if (fieldName.equals("prefix")) {
+                JsonNode prefix = writePreparedField(parser, generator, fieldName, false);
+                outerPrefix = prefix.isObject() ? (ObjectNode) prefix : null;
+                outerPrefixRead = true;
+            } else if (fieldName.equals("bundle") && !outerPrefixRead && parser.isExpectedStartObjectToken()) {
+                // outer prefixes are copied into bundles, so bundles preceding them wait until the document is read
+                deferredBundles = new TokenBuffer(parser);
+                deferredBundles.copyCurrentStructure(parser);
+            } else if (fieldName.equals("bundle")) {
+                writePreparedBundles(parser, generator, outerPrefix);
+            } else {
+                writePreparedStatements(parser, generator, fieldName);
+            }
+        }
+
+        if (deferredBundles != null) {
+            try (JsonParser bundlesParser = deferredBundles.asParser()) {
+                bundlesParser.nextToken();
+                writePreparedBundles(bundlesParser, generator, outerPrefix);
+            }
+        }
+
+        generator.writeEndObject();
+    }
+
+    private static void writePreparedBundles(JsonParser parser, JsonGenerator generator, ObjectNode outerPrefix)
+            throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            writePreparedField(parser, generator, "bundle", false);
+            return;
+        }
+
+        generator.writeFieldName("bundle");
+        generator.writeStartObject();
+        boolean isFirstBundle = true;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String bundleId = parser.currentName();
+            parser.nextToken();
+            if (parser.isExpectedStartObjectToken()) {
+                writePreparedBundle(parser, generator, bundleId, isFirstBundle, outerPrefix);
+            } else {
+                writePreparedField(parser, generator, bundleId, false);
+            }
+            isFirstBundle = false;
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writePreparedBundle(
+            JsonParser parser,
+            JsonGenerator generator,
+            String bundleId,
+            boolean addExplicitBundleId,
+            ObjectNode outerPrefix
+    ) throws IOException {
+        generator.writeFieldName(bundleId);
+        generator.writeStartObject();
+
+        boolean hasExplicitBundleId = false;
+        boolean hasPrefix = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            if (fieldName.equals("@id")) {
+                hasExplicitBundleId = true;
+                writePreparedField(parser, generator, fieldName, false);
+            } else if (fieldName.equals("prefix") && outerPrefix != null) {
+                hasPrefix = true;
+                JsonNode prefix = prepareField(streamingMapper.readTree(parser), fieldName, false);
+                ObjectNode bundlePrefix = prefix.isObject() ? (ObjectNode) prefix : streamingMapper.createObjectNode();
+                bundlePrefix.setAll(outerPrefix);
+                generator.writeFieldName(fieldName);
+                streamingMapper.writeTree(generator, bundlePrefix);
+            } else {
+                writePreparedStatements(parser, generator, fieldName);
+            }
+        }
+
+        if (addExplicitBundleId && !hasExplicitBundleId) {
+            generator.writeStringField("@id", bundleId);
+        }
+        if (outerPrefix != null && !hasPrefix) {
+            generator.writeFieldName("prefix");
+            streamingMapper.writeTree(generator, outerPrefix);
+        }
+
+        generator.writeEndObject();
+    }
+
+    private static void writePreparedStatements(JsonParser parser, JsonGenerator generator, String statementType)
+            throws IOException {
+        boolean insideTarget = stringArrayStatements.contains(statementType);
+        if (!parser.isExpectedStartObjectToken()) {
+            writePreparedField(parser, generator, statementType, false);
+            return;
+        }
+
+        generator.writeFieldName(statementType);
+        generator.writeStartObject();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String statementId = parser.currentName();
+            parser.nextToken();
+            if (!parser.isExpectedStartObjectToken()) {
+                writePreparedField(parser, generator, statementId, insideTarget);
+                continue;
+            }
+
+            generator.writeFieldName(statementId);
+            generator.writeStartObject();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String attributeName = parser.currentName();
+                parser.nextToken();
+                writePreparedAttribute(parser, generator, attributeName, insideTarget);
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writePreparedAttribute(
+            JsonParser parser,
+            JsonGenerator generator,
+            String attributeName,
+            boolean insideTarget
+    ) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            writePreparedField(parser, generator, attributeName, insideTarget);
+            return;
+        }
+
+        // plain string values are by far the most common, so they skip the tree
+        generator.writeFieldName(attributeName);
+        if ((insideTarget || stringArrayStatements.contains(attributeName))
+                && !attributeName.equals("prov:startTime") && !attributeName.equals("prov:endTime")) {
+            generator.writeStartArray();
+            generator.writeString(parser.getText());
+            generator.writeEndArray();
+        } else {
+            generator.writeString(parser.getText());
+        }
+    }
+
+    private static JsonNode writePreparedField(
+            JsonParser parser,
+            JsonGenerator generator,
+            String fieldName,
+            boolean insideTarget
+    ) throws IOException {
+        JsonNode prepared = prepareField(streamingMapper.readTree(parser), fieldName, insideTarget);
+        generator.writeFieldName(fieldName);
+        streamingMapper.writeTree(generator, prepared);
+        return prepared;
+    }
+
+    private static JsonNode prepareField(JsonNode value, String fieldName, boolean insideTarget) {
+        // applies the same passes as the tree variant to a single field of its parent object
+        ObjectNode field = streamingMapper.createObjectNode();
+        field.set(fieldName, value);
+
+        JsonNode prepared = putTypedObjectsInArrays(field, streamingMapper);
+        prepared = putStringValuesInArray(prepared, streamingMapper, insideTarget);
+        prepared = stringifyValues(prepared, streamingMapper);
+        return prepared.get(fieldName);
+    }
+
     /**
      * Add explicit "@id" property to bundle to comply with provtoolbox deserialization requirements.
      *
@@ -0,0 +1,17 @@
+package cz.muni.xmichalk.bundleVersionPicker;
+
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.xmichalk.TestDocumentProvider;
+import org.junit.jupiter.api.Test;
+
+public class VersionIndexTest {
+    @Test public void testVersionsIndexed() {
+        CpmDocument metaCpmDoc = TestDocumentProvider.samplingBundle_V0_meta;
+
+        VersionIndex index = VersionIndex.of(metaCpmDoc);
+
+        assert index == VersionIndex.of(metaCpmDoc);
+        assert index.getLatestVersionNode().getId().getUri()
+                .equals(TestDocumentProvider.samplingBundle_V1.getBundleId().getUri());
+    }
+}
@@ -0,0 +1,69 @@
+package cz.muni.xmichalk.queries;
+
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.MockedStorage;
+import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.models.ConnectorData;
+import cz.muni.xmichalk.models.QueryContext;
+import cz.muni.xmichalk.querySpecification.findable.DerivationPathFromStartNode;
+import cz.muni.xmichalk.storage.EBundlePart;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.AccessDeniedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ConnectorIndexTest {
+    private static final Boolean[] directions = {null, true, false};
+
+    static Stream<CpmDocument> documents() {
+        return Stream.of(
+                TestDocumentProvider.samplingBundle_V0,
+                TestDocumentProvider.samplingBundle_V1,
+                TestDocumentProvider.processingBundle_V0,
+                TestDocumentProvider.processingBundle_V1,
+                TestDocumentProvider.speciesIdentificationBundle_V0
+        );
+    }
+
+    private static Set<String> toIds(List<ConnectorData> connectors) {
+        return connectors.stream().map(connector -> connector.id.toQN().getUri() + " -> " +
+                connector.referencedConnectorId.toQN().getUri()).collect(Collectors.toSet());
+    }
+
+    @ParameterizedTest @MethodSource("documents")
+    public void testIndexMatchesTraversal(CpmDocument bundle) throws AccessDeniedException {
+        MockedStorage storage = new MockedStorage();
+        CpmDocument document =
+                storage.loadCpmDocument(bundle.getBundleId().getUri(), EBundlePart.TraversalInformation, null).document;
+
+        List<INode> connectors = new ArrayList<>(document.getBackwardConnectors());
+        connectors.addAll(document.getForwardConnectors());
+        assert !connectors.isEmpty();
+
+        for (INode connector : connectors) {
+            QueryContext context = new QueryContext(bundle.getBundleId(), connector.getId(), null, storage);
+            for (Boolean pathBackward : directions) {
+                for (Boolean connectorsBackward : directions) {
+                    List<ConnectorData> indexed = new GetConnectors(
+                            connectorsBackward,
+                            new DerivationPathFromStartNode(pathBackward)
+                    ).evaluate(context).result;
+                    // a subgraph finder that is not exactly DerivationPathFromStartNode is evaluated by traversal
+                    List<ConnectorData> traversed = new GetConnectors(
+                            connectorsBackward,
+                            (g, n) -> new DerivationPathFromStartNode(pathBackward).find(g, n)
+                    ).evaluate(context).result;
+
+                    assert indexed.size() == traversed.size();
+                    assert toIds(indexed).equals(toIds(traversed));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package cz.muni.xmichalk.queryService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.MockedStorage;
+import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.models.QueryContext;
+import cz.muni.xmichalk.models.QueryResult;
+import cz.muni.xmichalk.models.QueryBatchEntry;
+import cz.muni.xmichalk.models.QueryBatchResult;
+import cz.muni.xmichalk.queries.IQuery;
+import cz.muni.xmichalk.storage.EBundlePart;
+import cz.muni.xmichalk.storage.IStorage;
+import cz.muni.xmichalk.storage.StorageCpmDocument;
+import cz.muni.xmichalk.storage.storageDTO.Token;
+import org.junit.jupiter.api.Test;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.nio.file.AccessDeniedException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BundleQueryServiceTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String authHeader = "Bearer token";
+
+    private static class CountingStorage implements IStorage {
+        private final IStorage storage = new MockedStorage();
+        private final AtomicInteger loadCount = new AtomicInteger(0);
+
+        @Override public StorageCpmDocument loadCpmDocument(String uri, EBundlePart part, String authorizationHeader)
+                throws AccessDeniedException {
+            loadCount.incrementAndGet();
+            return new StorageCpmDocument(
+                    storage.loadCpmDocument(uri, part, authorizationHeader).document,
+                    new Token(null, part.name())
+            );
+        }
+
+        @Override public StorageCpmDocument loadMetaCpmDocument(String uri, String authorizationHeader)
+                throws AccessDeniedException {
+            return storage.loadMetaCpmDocument(uri, authorizationHeader);
+        }
+    }
+
+    private static IQuery<?> readQuery(String json) throws JsonProcessingException {
+        return objectMapper.readValue(json, IQuery.class);
+    }
+
+    @Test public void test_batchLoadsEachPartOnce() throws JsonProcessingException {
+        CountingStorage storage = new CountingStorage();
+        BundleQueryService service = new BundleQueryService(storage, new QueryPlanCache(10));
+        QualifiedName bundleId = TestDocumentProvider.processingBundle_V0.getBundleId();
+        INode startNode = TestDocumentProvider.processingBundle_V0.getForwardConnectors().getFirst();
+
+        Map<String, IQuery<?>> queries = new LinkedHashMap<>();
+        queries.put("connectors", readQuery("""
+                {"type": "GetConnectors", "backward": true,
+                 "fromSubgraphs": {"type": "DerivationPathFromStartNode", "backward": true}}
+                """));
+        queries.put("nodeIds", readQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}"));
+        queries.put("fits", readQuery("""
+                {"type": "TestBundleFits", "condition": {"type": "CountComparisonCondition",
+                 "first": {"type": "WholeGraph"}, "comparisonResult": "EQUALS",
+                 "second": {"type": "CountConstant", "count": 1}}}
+                """));
+        queries.put("invalid", readQuery("{\"type\": \"TestBundleFits\"}"));
+
+        QueryBatchResult result = service.evaluateBundleQueries(bundleId, startNode.getId(), queries, authHeader);
+
+        assert storage.loadCount.get() == 2;
+        assert result.tokens.size() == 2;
+        assert result.tokens.get(EBundlePart.Whole).signature().equals("Whole");
+        assert result.tokens.get(EBundlePart.TraversalInformation).signature().equals("TraversalInformation");
+
+        QueryBatchEntry connectors = result.results.get("connectors");
+        assert connectors.tokenPart == EBundlePart.TraversalInformation;
+        assert connectors.token == null;
+        assert connectors.result instanceof List<?>;
+
+        assert result.results.get("nodeIds").tokenPart == EBundlePart.Whole;
+        assert !((List<?>) result.results.get("nodeIds").result).isEmpty();
+        assert result.results.get("fits").tokenPart == EBundlePart.Whole;
+        assert (Boolean) result.results.get("fits").result;
+
+        QueryBatchEntry invalid = result.results.get("invalid");
+        assert invalid.result == null;
+        assert invalid.error != null && invalid.error.contains("condition");
+    }
+
+    @Test public void test_batchResultsMatchSingleQueries() throws Exception {
+        BundleQueryService service = new BundleQueryService(new MockedStorage(), new QueryPlanCache(10));
+        QualifiedName bundleId = TestDocumentProvider.samplingBundle_V1.getBundleId();
+        INode startNode = TestDocumentProvider.samplingBundle_V1.getForwardConnectors().getFirst();
+        IQuery<?> query = readQuery("""
+                {"type": "GetConnectors", "backward": false,
+                 "fromSubgraphs": {"type": "DerivationPathFromStartNode", "backward": false}}
+                """);
+
+        QueryBatchResult batchResult =
+                service.evaluateBundleQueries(bundleId, startNode.getId(), Map.of("connectors", query), authHeader);
+        Object singleResult = service.evaluateBundleQuery(bundleId, startNode.getId(), query, authHeader).result;
+
+        assert objectMapper.valueToTree(batchResult.results.get("connectors").result)
+                .equals(objectMapper.valueToTree(singleResult));
+    }
+
+    private static class NoResultQuery implements IQuery<Object> {
+        @Override public QueryResult<Object> evaluate(QueryContext context) {
+            return null;
+        }
+    }
+
+    @Test public void test_batchQueryWithoutResultGetsErrorEntry() throws Exception {
+        BundleQueryService service = new BundleQueryService(new MockedStorage(), new QueryPlanCache(10));
+        QualifiedName bundleId = TestDocumentProvider.samplingBundle_V1.getBundleId();
+        INode startNode = TestDocumentProvider.samplingBundle_V1.getForwardConnectors().getFirst();
+        Map<String, IQuery<?>> queries = new LinkedHashMap<>();
+        queries.put("noResult", new NoResultQuery());
+        queries.put("nodeIds", readQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}"));
+
+        QueryBatchResult result = service.evaluateBundleQueries(bundleId, startNode.getId(), queries, authHeader);
+
+        assert result.results.size() == 2;
+        QueryBatchEntry noResult = result.results.get("noResult");
+        assert noResult.result == null;
+        assert noResult.error != null;
+        assert result.results.get("nodeIds").error == null;
+    }
+}
@@ -0,0 +1,69 @@
+package cz.muni.xmichalk.queryService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.xmichalk.queries.IQuery;
+import org.junit.jupiter.api.Test;
+
+public class QueryPlanCacheTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final String mainActivityQuery = """
+            {
+              "type" : "GetNodeIds",
+              "fromSubgraphs" : {
+                "type" : "FittingNodes",
+                "nodeCondition" : {
+                  "type" : "HasAttrQualifiedNameValue",
+                  "attributeNameUri" : "http://www.w3.org/ns/prov#type",
+                  "valueUriRegex" : "https://www.commonprovenancemodel.org/cpm-namespace-v1-0/mainActivity"
+                }
+              }
+            }
+            """;
+
+    private static final String reorderedMainActivityQuery = """
+            {"fromSubgraphs":{"nodeCondition":{"valueUriRegex":"https://www.commonprovenancemodel.org/cpm-namespace-v1-0/mainActivity",
+            "attributeNameUri":"http://www.w3.org/ns/prov#type","type":"HasAttrQualifiedNameValue"},"type":"FittingNodes"},
+            "type":"GetNodeIds"}
+            """;
+
+    private static IQuery<?> readQuery(String json) throws JsonProcessingException {
+        return objectMapper.readValue(json, IQuery.class);
+    }
+
+    @Test public void test_equalQueriesSharePlan() throws JsonProcessingException {
+        QueryPlanCache cache = new QueryPlanCache(10);
+        IQuery<?> first = readQuery(mainActivityQuery);
+
+        assert cache.getPlan(first) == first;
+        assert cache.getPlan(readQuery(mainActivityQuery)) == first;
+        assert cache.getPlan(readQuery(reorderedMainActivityQuery)) == first;
+        assert cache.size() == 1;
+    }
+
+    @Test public void test_differentQueriesHaveOwnPlans() throws JsonProcessingException {
+        QueryPlanCache cache = new QueryPlanCache(10);
+        IQuery<?> first = readQuery(mainActivityQuery);
+        IQuery<?> second = readQuery(mainActivityQuery.replace("mainActivity", "backwardConnector"));
+
+        assert cache.getPlan(first) == first;
+        assert cache.getPlan(second) == second;
+        assert !QueryPlanCache.getQueryHash(first).equals(QueryPlanCache.getQueryHash(second));
+    }
+
+    @Test public void test_queriesWithoutPropertiesHashed() throws JsonProcessingException {
+        IQuery<?> query = readQuery("""
+                {
+                  "type" : "GetSubgraphs",
+                  "fromSubgraphs" : {
+                    "type" : "WholeGraph"
+                  }
+                }
+                """);
+
+        assert QueryPlanCache.getQueryHash(query).equals(QueryPlanCache.getQueryHash(readQuery("""
+                {"type":"GetSubgraphs","fromSubgraphs":{"type":"WholeGraph"}}
+                """)));
+    }
+}
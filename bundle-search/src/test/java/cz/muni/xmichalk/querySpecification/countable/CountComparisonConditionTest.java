@@ -2,6 +2,8 @@ package cz.muni.xmichalk.querySpecification.countable;
 
 import org.junit.jupiter.params.ParameterizedTest;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 public class CountComparisonConditionTest {
@@ -37,4 +39,29 @@ public class CountComparisonConditionTest {
         assert countComparisonCondition.test(null) == expectedResult;
 
     }
+
+    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testParams")
+    public void testCountComparisonCondition_countsUpToDecidingLimit(
+            int first,
+            EComparisonResult comparisonResult,
+            int second,
+            boolean expectedResult
+    ) {
+        List<Integer> limits = new ArrayList<>();
+        ICountable<Object> limitedFirst = new ICountable<>() {
+            @Override public int count(Object source) {
+                throw new AssertionError("Counted without a limit");
+            }
+
+            @Override public int countUpTo(Object source, int limit) {
+                limits.add(limit);
+                return Math.min(first, limit);
+            }
+        };
+        CountComparisonCondition<Object> countComparisonCondition =
+                new CountComparisonCondition<Object>(limitedFirst, comparisonResult, new CountConstant<>(second));
+
+        assert countComparisonCondition.test(null) == expectedResult;
+        assert limits.equals(List.of(second + 1));
+    }
 }
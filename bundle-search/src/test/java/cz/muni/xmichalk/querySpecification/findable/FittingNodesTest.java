@@ -3,6 +3,7 @@ package cz.muni.xmichalk.querySpecification.findable;
 import cz.muni.fi.cpm.model.CpmDocument;
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.models.DocumentStart;
 import cz.muni.xmichalk.models.SubgraphWrapper;
 import cz.muni.xmichalk.querySpecification.ICondition;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -111,4 +112,21 @@ public class FittingNodesTest {
         assert results.size() == document.getNodes().size();
         assert results.stream().allMatch(subgraphWrapper -> subgraphWrapper.getNodes().size() == 1);
     }
+
+    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testParams")
+    void testCountUpTo_stopsAtLimit(CpmDocument document, QualifiedName startNodeId) {
+        INode startNode = document.getNode(startNodeId);
+        List<INode> tested = new ArrayList<>();
+        ICondition<INode> condition = node -> {
+            tested.add(node);
+            return true;
+        };
+        FittingNodes fittingNodes = new FittingNodes(condition, new WholeGraph());
+
+        int count = fittingNodes.countUpTo(new DocumentStart(document, startNode), 2);
+
+        assert count == 2;
+        assert tested.size() == 2;
+        assert fittingNodes.count(new DocumentStart(document, startNode)) == document.getNodes().size();
+    }
 }
@@ -66,4 +66,19 @@ public class HasAttrTimestampValueTest {
         assert !condition.test(activityNode);
     }
 
+    @Test public void testHasAttrTimestampValue_changedBoundReparsed() {
+        HasAttrTimestampValue condition = new HasAttrTimestampValue(
+                AttributeNames.ATTR_START_TIME.getUri(),
+                null,
+                "2025-10-16T10:00:00Z",
+                null
+        );
+
+        assert condition.test(activityNode);
+
+        condition.isBefore = "2025-01-16T10:00:00Z";
+
+        assert !condition.test(activityNode);
+    }
+
 }
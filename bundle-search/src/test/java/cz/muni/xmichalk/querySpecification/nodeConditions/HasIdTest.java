@@ -2,6 +2,7 @@ package cz.muni.xmichalk.querySpecification.nodeConditions;
 
 import cz.muni.fi.cpm.merged.MergedNode;
 import cz.muni.fi.cpm.model.INode;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 
 import java.util.ArrayList;
@@ -34,4 +35,14 @@ public class HasIdTest {
 
         assert hasIdCondition.test(node) == expectedResult;
     }
+
+    @Test public void testHasId_changedRegexRecompiled() {
+        HasId hasIdCondition = new HasId(".*");
+
+        assert hasIdCondition.test(entityNode);
+
+        hasIdCondition.idUriRegex = "other";
+
+        assert !hasIdCondition.test(entityNode);
+    }
 }
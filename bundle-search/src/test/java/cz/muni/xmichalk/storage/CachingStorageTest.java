@@ -0,0 +1,204 @@
+package cz.muni.xmichalk.storage;
+
+import cz.muni.xmichalk.MockedStorage;
+import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.util.AttributeIndex;
+import cz.muni.xmichalk.util.CpmUtils;
+import cz.muni.xmichalk.util.GraphSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.AccessDeniedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachingStorageTest {
+    private static final String authHeader = "Bearer token";
+    private static final String uri1 = TestDocumentProvider.samplingBundle_V1.getBundleId().getUri();
+    private static final String uri2 = TestDocumentProvider.processingBundle_V1.getBundleId().getUri();
+    private static final String metaUri1 = TestDocumentProvider.samplingBundle_V0_meta.getBundleId().getUri();
+
+    private static class CountingStorage implements IStorage {
+        private final IStorage storage = new MockedStorage();
+        private final AtomicInteger loadCount = new AtomicInteger(0);
+        private final AtomicInteger metaLoadCount = new AtomicInteger(0);
+
+        @Override public StorageCpmDocument loadCpmDocument(String uri, EBundlePart part, String authorizationHeader)
+                throws AccessDeniedException {
+            loadCount.incrementAndGet();
+            return storage.loadCpmDocument(uri, part, authorizationHeader);
+        }
+
+        @Override public StorageCpmDocument loadMetaCpmDocument(String uri, String authorizationHeader)
+                throws AccessDeniedException {
+            metaLoadCount.incrementAndGet();
+            return storage.loadMetaCpmDocument(uri, authorizationHeader);
+        }
+    }
+
+    private static class BlockingStorage extends CountingStorage {
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile boolean failing = false;
+
+        @Override public StorageCpmDocument loadCpmDocument(String uri, EBundlePart part, String authorizationHeader)
+                throws AccessDeniedException {
+            StorageCpmDocument loaded = super.loadCpmDocument(uri, part, authorizationHeader);
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            if (failing) {
+                throw new AccessDeniedException(uri);
+            }
+            return loaded;
+        }
+    }
+
+    private static CachingStorage newCachingStorage(IStorage storage, Duration metaDocumentTtl) {
+        return new CachingStorage(storage, 1_000_000, 1_000_000, metaDocumentTtl, 1_000);
+    }
+
+    @Test public void test_documentLoadedOncePerUriAndPart() throws AccessDeniedException {
+        CountingStorage countingStorage = new CountingStorage();
+        CachingStorage storage = newCachingStorage(countingStorage, Duration.ofMinutes(1));
+
+        StorageCpmDocument first = storage.loadCpmDocument(uri1, EBundlePart.Whole, authHeader);
+        StorageCpmDocument second = storage.loadCpmDocument(uri1, EBundlePart.Whole, authHeader);
+        storage.loadCpmDocument(uri1, EBundlePart.TraversalInformation, authHeader);
+        storage.loadCpmDocument(uri2, EBundlePart.Whole, authHeader);
+        storage.loadCpmDocument(uri2, EBundlePart.Whole, authHeader);
+
+        assert first == second;
+        assert first.document.getBundleId().getUri().equals(uri1);
+        assert countingStorage.loadCount.get() == 3;
+
+        StorageCacheStats stats = storage.getStats().getFirst();
+        assert stats.hitCount == 2;
+        assert stats.missCount == 3;
+        assert stats.loadCount == 3;
+        assert stats.loadTimeSavedMillis > 0;
+    }
+
+    @Test public void test_metaDocumentsCachedSeparately() throws AccessDeniedException {
+        CountingStorage countingStorage = new CountingStorage();
+        CachingStorage storage = newCachingStorage(countingStorage, Duration.ofMinutes(1));
+
+        storage.loadMetaCpmDocument(metaUri1, authHeader);
+        storage.loadMetaCpmDocument(metaUri1, authHeader);
+        storage.loadCpmDocument(metaUri1, EBundlePart.Whole, authHeader);
+
+        assert countingStorage.metaLoadCount.get() == 1;
+        assert countingStorage.loadCount.get() == 1;
+
+        List<StorageCacheStats> stats = storage.getStats();
+        assert stats.get(1).hitCount == 1;
+    }
+
+    @Test public void test_expiredMetaDocumentReloaded() throws AccessDeniedException {
+        CountingStorage countingStorage = new CountingStorage();
+        CachingStorage storage = newCachingStorage(countingStorage, Duration.ZERO);
+
+        storage.loadMetaCpmDocument(metaUri1, authHeader);
+        storage.loadMetaCpmDocument(metaUri1, authHeader);
+
+        assert countingStorage.metaLoadCount.get() == 2;
+    }
+
+    @Test public void test_metaBundleUriKnownAfterLoad() throws AccessDeniedException {
+        CountingStorage countingStorage = new CountingStorage();
+        CachingStorage storage = newCachingStorage(countingStorage, Duration.ofMinutes(1));
+
+        assert storage.getKnownMetaBundleUri(uri1, authHeader) == null;
+
+        storage.loadCpmDocument(uri1, EBundlePart.TraversalInformation, authHeader);
+
+        assert storage.getKnownMetaBundleUri(uri1, authHeader)
+                .equals(CpmUtils.getMetaBundleId(TestDocumentProvider.samplingBundle_V1).getUri());
+        assert storage.getKnownMetaBundleUri(uri2, authHeader) == null;
+    }
+
+    @Test public void test_indexesBuiltWhenDocumentCached() throws AccessDeniedException {
+        CachingStorage storage = newCachingStorage(new CountingStorage(), Duration.ofMinutes(1));
+
+        StorageCpmDocument loaded = new MockedStorage().loadCpmDocument(uri1, EBundlePart.Whole, authHeader);
+        assert loaded.document.getNodes().stream().allMatch(node -> AttributeIndex.forNode(node) == null);
+
+        StorageCpmDocument cached = storage.loadCpmDocument(uri1, EBundlePart.Whole, authHeader);
+        StorageCpmDocument meta = storage.loadMetaCpmDocument(metaUri1, authHeader);
+        for (StorageCpmDocument document : List.of(cached, meta)) {
+            AttributeIndex attributeIndex = AttributeIndex.of(document.document);
+            GraphSnapshot snapshot = GraphSnapshot.of(document.document);
+            assert document.document.getNodes().stream().allMatch(node ->
+                    AttributeIndex.forNode(node) == attributeIndex && GraphSnapshot.forNode(node) == snapshot);
+        }
+    }
+
+    @Test public void test_concurrentMissesShareOneLoad() throws InterruptedException {
+        BlockingStorage blockingStorage = new BlockingStorage();
+        CachingStorage storage = newCachingStorage(blockingStorage, Duration.ofMinutes(1));
+
+        List<CompletableFuture<StorageCpmDocument>> loads = loadConcurrently(storage, blockingStorage);
+        blockingStorage.released.countDown();
+
+        StorageCpmDocument first = loads.getFirst().join();
+        assert loads.stream().allMatch(load -> load.join() == first);
+        assert blockingStorage.loadCount.get() == 1;
+        assert storage.loadCpmDocument(uri1, EBundlePart.Whole, authHeader) == first;
+        assert blockingStorage.loadCount.get() == 1;
+    }
+
+    @Test public void test_failedLoadReachesAllWaitersAndIsNotCached() throws Exception {
+        BlockingStorage blockingStorage = new BlockingStorage();
+        blockingStorage.failing = true;
+        CachingStorage storage = newCachingStorage(blockingStorage, Duration.ofMinutes(1));
+
+        List<CompletableFuture<StorageCpmDocument>> loads = loadConcurrently(storage, blockingStorage);
+        blockingStorage.released.countDown();
+
+        for (CompletableFuture<StorageCpmDocument> load : loads) {
+            try {
+                load.join();
+                assert false;
+            } catch (CompletionException e) {
+                assert e.getCause() instanceof AccessDeniedException;
+            }
+        }
+        assert blockingStorage.loadCount.get() == 1;
+
+        blockingStorage.failing = false;
+        StorageCpmDocument loaded = storage.loadCpmDocument(uri1, EBundlePart.Whole, authHeader);
+
+        assert loaded.document.getBundleId().getUri().equals(uri1);
+        assert blockingStorage.loadCount.get() == 2;
+    }
+
+    private static List<CompletableFuture<StorageCpmDocument>> loadConcurrently(
+            CachingStorage storage,
+            BlockingStorage blockingStorage
+    ) throws InterruptedException {
+        List<CompletableFuture<StorageCpmDocument>> loads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            loads.add(CompletableFuture.supplyAsync(
+                    () -> {
+                        try {
+                            return storage.loadCpmDocument(uri1, EBundlePart.Whole, authHeader);
+                        } catch (AccessDeniedException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, Thread::startVirtualThread
+            ));
+        }
+        // every load has either started the storage load or joined it before the load is released
+        while (blockingStorage.loadCount.get() == 0) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        return loads;
+    }
+}
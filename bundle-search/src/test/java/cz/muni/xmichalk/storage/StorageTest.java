@@ -0,0 +1,177 @@
+package cz.muni.xmichalk.storage;
+
+import cz.muni.fi.cpm.merged.CpmMergedFactory;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.ICpmFactory;
+import cz.muni.fi.cpm.model.ICpmProvFactory;
+import cz.muni.fi.cpm.vanilla.CpmProvFactory;
+import com.sun.net.httpserver.HttpServer;
+import cz.muni.xmichalk.util.ProvDocumentUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.Test;
+import org.openprovenance.prov.model.interop.Formats;
+import org.openprovenance.prov.vanilla.ProvFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+public class StorageTest {
+    private static final ProvFactory pF = new ProvFactory();
+    private static final ICpmFactory cF = new CpmMergedFactory(pF);
+    private static final ICpmProvFactory cPF = new CpmProvFactory(pF);
+    private static final String dataFolder = System.getProperty("user.dir") + "/src/test/resources/data/";
+
+    private static InputStream getStorageResponse(String documentField, byte[] document) {
+        String response = "{\"unknown\": {\"nested\": [1, 2]}, \"" + documentField + "\": \""
+                + Base64.getEncoder().encodeToString(document) + "\", \"token\": {\"data\": {\"originatorId\": \"ORG1\", "
+                + "\"authorityId\": \"TP\", \"tokenTimestamp\": 1, \"documentCreationTimestamp\": 1, "
+                + "\"documentDigest\": \"digest\", \"additionalData\": null}, \"signature\": \"signature\"}}";
+        return new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertSameAsStringDeserialization(String documentField, String dataFile) throws IOException {
+        byte[] document = Files.readAllBytes(Path.of(dataFolder, dataFile));
+
+        StorageDocument storageDocument =
+                Storage.readStorageDocument(getStorageResponse(documentField, document), documentField);
+        CpmDocument expected = new CpmDocument(
+                ProvDocumentUtils.deserialize(new String(document, StandardCharsets.UTF_8), Formats.ProvFormat.JSON),
+                pF,
+                cPF,
+                cF
+        );
+        CpmDocument actual = new CpmDocument(storageDocument.document, pF, cPF, cF);
+
+        assert actual.getBundleId().equals(expected.getBundleId());
+        assert actual.getNodes().size() == expected.getNodes().size();
+        assert actual.getEdges().size() == expected.getEdges().size();
+        assert storageDocument.token.signature().equals("signature");
+        assert storageDocument.token.data().documentDigest().equals("digest");
+    }
+
+    @Test public void test_readDocument() throws IOException {
+        assertSameAsStringDeserialization("document", "dataset1/SamplingBundle_V1.json");
+        assertSameAsStringDeserialization("document", "dataset2/ProcessingBundle_V0.json");
+    }
+
+    @Test public void test_readMetaDocument() throws IOException {
+        assertSameAsStringDeserialization("graph", "SamplingBundle_V0_meta.json");
+    }
+
+    @Test public void test_readResponseWithoutDocument() throws IOException {
+        StorageDocument storageDocument = Storage.readStorageDocument(
+                new ByteArrayInputStream("{\"token\": null}".getBytes(StandardCharsets.UTF_8)),
+                "document"
+        );
+
+        assert storageDocument.document == null;
+        assert storageDocument.token == null;
+    }
+
+    private static HttpServer startStorageServer(int statusCode, byte[] response, Set<Integer> clientPorts)
+            throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(
+                "/", exchange -> {
+                    clientPorts.add(exchange.getRemoteAddress().getPort());
+                    byte[] body = response;
+                    String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                    if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                            gzip.write(response);
+                        }
+                        body = compressed.toByteArray();
+                        exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                    }
+                    exchange.sendResponseHeaders(statusCode, body.length);
+                    try (OutputStream responseBody = exchange.getResponseBody()) {
+                        responseBody.write(body);
+                    }
+                }
+        );
+        server.start();
+        return server;
+    }
+
+    private static Storage getStorage(CloseableHttpClient httpClient) {
+        return new Storage(pF, cF, cPF, httpClient);
+    }
+
+    private static CloseableHttpClient getHttpClient(boolean compressionEnabled) {
+        return Storage.createPooledHttpClient(
+                4,
+                2,
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(30),
+                compressionEnabled
+        );
+    }
+
+    @Test public void test_connectionsReused() throws IOException {
+        byte[] document = Files.readAllBytes(Path.of(dataFolder, "dataset1/SamplingBundle_V1.json"));
+        byte[] response = getStorageResponse("document", document).readAllBytes();
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        HttpServer server = startStorageServer(200, response, clientPorts);
+
+        try (CloseableHttpClient httpClient = getHttpClient(false)) {
+            Storage storage = getStorage(httpClient);
+            String uri = "http://localhost:" + server.getAddress().getPort() + "/documents/SamplingBundle_V1";
+            for (int i = 0; i < 5; i++) {
+                StorageDocument storageDocument = storage.loadDocument(uri, "Bearer token");
+                assert storageDocument.document != null;
+            }
+        } finally {
+            server.stop(0);
+        }
+
+        assert clientPorts.size() == 1;
+    }
+
+    @Test public void test_compressedResponse() throws IOException {
+        byte[] document = Files.readAllBytes(Path.of(dataFolder, "dataset1/SamplingBundle_V1.json"));
+        byte[] response = getStorageResponse("document", document).readAllBytes();
+        HttpServer server = startStorageServer(200, response, ConcurrentHashMap.newKeySet());
+
+        try (CloseableHttpClient httpClient = getHttpClient(true)) {
+            String uri = "http://localhost:" + server.getAddress().getPort() + "/documents/SamplingBundle_V1";
+            StorageCpmDocument storageDocument =
+                    getStorage(httpClient).loadCpmDocument(uri, EBundlePart.Whole, "Bearer token");
+
+            assert storageDocument.document.getBundleId().getLocalPart().equals("SamplingBundle_V1");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test public void test_unexpectedResponseCode() throws IOException {
+        HttpServer server = startStorageServer(
+                404,
+                "{}".getBytes(StandardCharsets.UTF_8),
+                ConcurrentHashMap.newKeySet()
+        );
+
+        try (CloseableHttpClient httpClient = getHttpClient(false)) {
+            String uri = "http://localhost:" + server.getAddress().getPort() + "/documents/Missing";
+            getStorage(httpClient).loadDocument(uri, "Bearer token");
+            assert false;
+        } catch (RuntimeException e) {
+            assert e.getCause() instanceof IOException;
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package cz.muni.xmichalk.util;
+
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.models.SubgraphWrapper;
+import cz.muni.xmichalk.querySpecification.ICondition;
+import cz.muni.xmichalk.querySpecification.findable.FittingNodes;
+import cz.muni.xmichalk.querySpecification.nodeConditions.HasAttr;
+import cz.muni.xmichalk.querySpecification.nodeConditions.HasAttrLangStringValue;
+import cz.muni.xmichalk.querySpecification.nodeConditions.HasAttrQualifiedNameValue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openprovenance.prov.model.Element;
+import org.openprovenance.prov.model.Other;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static cz.muni.xmichalk.util.AttributeNames.*;
+import static cz.muni.xmichalk.util.NameSpaceConstants.CPM_URI;
+
+public class AttributeIndexTest {
+    static Stream<CpmDocument> documents() {
+        return Stream.of(
+                TestDocumentProvider.samplingBundle_V1,
+                TestDocumentProvider.processingBundle_V1,
+                TestDocumentProvider.speciesIdentificationBundle_V0,
+                TestDocumentProvider.samplingBundle_V0_meta
+        );
+    }
+
+    private static Set<String> getAttributeNameUris(CpmDocument document) {
+        Set<String> attributeNameUris = new HashSet<>(Set.of(
+                ATTR_START_TIME.getUri(),
+                ATTR_LOCATION.getUri(),
+                ATTR_PROV_TYPE.getUri(),
+                ATTR_LABEL.getUri(),
+                ATTR_VERSION.getUri(),
+                "https://example.org/missing"
+        ));
+        for (INode node : document.getNodes()) {
+            for (Element element : node.getElements()) {
+                for (Other other : element.getOther()) {
+                    attributeNameUris.add(other.getElementName().getUri());
+                }
+            }
+        }
+        return attributeNameUris;
+    }
+
+    private static Set<INode> findByIndex(CpmDocument document, ICondition<INode> condition) {
+        return new FittingNodes(condition).find(new SubgraphWrapper(document), null).stream()
+                .flatMap(subgraph -> subgraph.getNodes().stream()).collect(Collectors.toSet());
+    }
+
+    private static Set<INode> findByScan(CpmDocument document, ICondition<INode> condition) {
+        // a graph without an index makes FittingNodes test every node
+        SubgraphWrapper graph = new SubgraphWrapper(document.getNodes(), document.getEdges());
+        return new FittingNodes(condition).find(graph, null).stream()
+                .flatMap(subgraph -> subgraph.getNodes().stream()).collect(Collectors.toSet());
+    }
+
+    @ParameterizedTest @MethodSource("documents")
+    public void test_sameValuesAsElementScan(CpmDocument document) {
+        AttributeIndex index = AttributeIndex.of(document);
+
+        for (INode node : document.getNodes()) {
+            assert AttributeIndex.forNode(node) == index;
+            for (String attributeNameUri : getAttributeNameUris(document)) {
+                Object expected = AttributeUtils.collectAttributeValue(node, attributeNameUri);
+                assert Objects.equals(index.getAttributeValue(node, attributeNameUri), expected);
+                assert Objects.equals(AttributeUtils.getAttributeValue(node, attributeNameUri), expected);
+            }
+        }
+    }
+
+    @ParameterizedTest @MethodSource("documents")
+    public void test_indexLookupsSameAsScan(CpmDocument document) {
+        List<ICondition<INode>> conditions = List.of(
+                new HasAttr(ATTR_PROV_TYPE.getUri()),
+                new HasAttr(ATTR_LOCATION.getUri()),
+                new HasAttr(ATTR_REFERENCED_BUNDLE_ID.getUri()),
+                new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), CPM_URI + "forwardConnector"),
+                new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), CPM_URI + "(backward|forward)Connector"),
+                new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), CPM_URI + ".*"),
+                new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), "https://schema.org/.*"),
+                new HasAttrQualifiedNameValue(ATTR_REFERENCED_BUNDLE_ID.getUri(), ".*V0"),
+                new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), "(invalid"),
+                new HasAttrLangStringValue("https://schema.org/name", null, ".*"),
+                new HasAttrLangStringValue("https://schema.org/name", null, ".*[Ss]ample.*"),
+                new HasAttrLangStringValue("https://schema.org/name", ".*", ".*[Ss]ample.*")
+        );
+
+        for (ICondition<INode> condition : conditions) {
+            assert findByIndex(document, condition).equals(findByScan(document, condition));
+        }
+    }
+
+    @Test public void test_connectorsFoundByIndex() {
+        CpmDocument document = TestDocumentProvider.samplingBundle_V1;
+        HasAttrQualifiedNameValue isConnector =
+                new HasAttrQualifiedNameValue(ATTR_PROV_TYPE.getUri(), CPM_URI + "(backward|forward)Connector");
+
+        List<INode> fromIndex = isConnector.findFittingNodes(AttributeIndex.of(document));
+
+        assert !fromIndex.isEmpty();
+        assert fromIndex.stream().allMatch(isConnector);
+    }
+
+    @Test public void test_sameIndexForDocument() {
+        CpmDocument document = TestDocumentProvider.processingBundle_V1;
+
+        assert AttributeIndex.of(document) == AttributeIndex.of(document);
+    }
+}
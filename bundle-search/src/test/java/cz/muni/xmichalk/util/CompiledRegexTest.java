@@ -0,0 +1,23 @@
+package cz.muni.xmichalk.util;
+
+import org.junit.jupiter.api.Test;
+
+public class CompiledRegexTest {
+    @Test public void testOf_sameRegexReusesPattern() {
+        CompiledRegex compiled = CompiledRegex.of(null, "http://example.org/.*");
+
+        assert CompiledRegex.of(compiled, "http://example.org/.*") == compiled;
+        assert CompiledRegex.of(compiled, new String("http://example.org/.*")) == compiled;
+        assert compiled.matches("http://example.org/entity1");
+    }
+
+    @Test public void testOf_changedRegexRecompiled() {
+        CompiledRegex compiled = CompiledRegex.of(null, "http://example.org/.*");
+        CompiledRegex recompiled = CompiledRegex.of(compiled, "other");
+
+        assert recompiled != compiled;
+        assert recompiled.pattern() != compiled.pattern();
+        assert !recompiled.matches("http://example.org/entity1");
+        assert recompiled.matches("other");
+    }
+}
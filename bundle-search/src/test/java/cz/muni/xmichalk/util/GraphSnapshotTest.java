@@ -0,0 +1,111 @@
+package cz.muni.xmichalk.util;
+
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.models.EdgeToNode;
+import cz.muni.xmichalk.models.SubgraphWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.openprovenance.prov.model.StatementOrBundle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+public class GraphSnapshotTest {
+    static Stream<Object[]> testParams() {
+        return Stream.of(
+                new Object[]{TestDocumentProvider.samplingBundle_V0},
+                new Object[]{TestDocumentProvider.samplingBundle_V1},
+                new Object[]{TestDocumentProvider.processingBundle_V0},
+                new Object[]{TestDocumentProvider.processingBundle_V1}
+        );
+    }
+
+    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testParams")
+    public void testSnapshot_adjacencyMatchesDocument(CpmDocument document) {
+        GraphSnapshot snapshot = new GraphSnapshot(document.getNodes(), document.getEdges());
+
+        assert snapshot.documentNodeCount() == document.getNodes().size();
+        for (int ordinal = 0; ordinal < document.getNodes().size(); ordinal++) {
+            assert snapshot.getNode(ordinal) == document.getNodes().get(ordinal);
+        }
+
+        for (int ordinal = 0; ordinal < snapshot.nodeCount(); ordinal++) {
+            INode node = snapshot.getNode(ordinal);
+            assert snapshot.getOrdinal(node) == ordinal;
+            assert snapshot.getNodeKind(ordinal) == node.getKind();
+
+            List<IEdge> slotEdges = new ArrayList<>();
+            for (int slot = snapshot.getAdjacencyStart(ordinal); slot < snapshot.getAdjacencyEnd(ordinal); slot++) {
+                IEdge edge = snapshot.getEdge(snapshot.getSlotEdge(slot));
+                INode neighbour = slot < snapshot.getEffectEdgesStart(ordinal) ? edge.getEffect() : edge.getCause();
+                int neighbourOrdinal = snapshot.getNeighbour(slot);
+
+                assert neighbour == null ? neighbourOrdinal == -1 : snapshot.getNode(neighbourOrdinal) == neighbour;
+                assert snapshot.getEdgeKind(snapshot.getSlotEdge(slot)) == edge.getKind();
+                slotEdges.add(edge);
+            }
+
+            List<IEdge> nodeEdges = new ArrayList<>(node.getCauseEdges());
+            nodeEdges.addAll(node.getEffectEdges());
+            assert slotEdges.size() == nodeEdges.size();
+            for (int i = 0; i < slotEdges.size(); i++) {
+                assert slotEdges.get(i) == nodeEdges.get(i);
+            }
+        }
+    }
+
+    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testParams")
+    public void testTraverseFrom_snapshotSameAsObjectGraph(CpmDocument document) {
+        GraphSnapshot snapshot = new GraphSnapshot(document.getNodes(), document.getEdges());
+        Predicate<EdgeToNode> filter = edgeToNode -> edgeToNode.edge == null ||
+                edgeToNode.edge.getKind() != StatementOrBundle.Kind.PROV_USAGE;
+
+        for (INode startNode : document.getNodes()) {
+            for (ETraversalOrder order : ETraversalOrder.values()) {
+                List<EdgeToNode> fromObjectGraph = new ArrayList<>();
+                List<EdgeToNode> fromSnapshot = new ArrayList<>();
+
+                GraphTraverser.traverseFrom(
+                        null,
+                        startNode,
+                        edgeToNode -> fromObjectGraph.add(new EdgeToNode(edgeToNode.edge, edgeToNode.node)),
+                        filter,
+                        order
+                );
+                GraphTraverser.traverseFrom(
+                        snapshot,
+                        startNode,
+                        edgeToNode -> fromSnapshot.add(new EdgeToNode(edgeToNode.edge, edgeToNode.node)),
+                        filter,
+                        order
+                );
+
+                assert fromObjectGraph.size() == fromSnapshot.size();
+                for (int i = 0; i < fromObjectGraph.size(); i++) {
+                    assert fromObjectGraph.get(i).edge == fromSnapshot.get(i).edge;
+                    assert fromObjectGraph.get(i).node == fromSnapshot.get(i).node;
+                }
+            }
+
+            SubgraphWrapper fromObjectGraph = GraphTraverser.findSubgraphFrom(null, startNode, filter);
+            SubgraphWrapper fromSnapshot = GraphTraverser.findSubgraphFrom(snapshot, startNode, filter);
+            assert fromObjectGraph.getNodes().equals(fromSnapshot.getNodes());
+            assert fromObjectGraph.getEdges().equals(fromSnapshot.getEdges());
+        }
+    }
+
+    @Test public void testOf_sameSnapshotForDocumentAndItsNodes() {
+        CpmDocument document = TestDocumentProvider.samplingBundle_V1;
+        GraphSnapshot snapshot = GraphSnapshot.of(document);
+
+        assert GraphSnapshot.of(document) == snapshot;
+        for (INode node : document.getNodes()) {
+            assert GraphSnapshot.forNode(node) == snapshot;
+        }
+    }
+}
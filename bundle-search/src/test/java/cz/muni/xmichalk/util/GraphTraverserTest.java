@@ -1,13 +1,23 @@
 package cz.muni.xmichalk.util;
 
+import cz.muni.fi.cpm.merged.MergedEdge;
+import cz.muni.fi.cpm.merged.MergedNode;
 import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.IEdge;
 import cz.muni.fi.cpm.model.INode;
 import cz.muni.xmichalk.TestDocumentProvider;
 import cz.muni.xmichalk.models.EdgeToNode;
+import cz.muni.xmichalk.models.QualifiedNameData;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.openprovenance.prov.model.StatementOrBundle;
 import org.openprovenance.prov.vanilla.QualifiedName;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -87,6 +97,45 @@ public class GraphTraverserTest {
         assert (filteredNodes.isEmpty());
     }
 
+    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testParams")
+    void testTraverseFrom_breadthFirstReachesSameNodes(CpmDocument document, QualifiedName startNodeId) {
+        INode startNode = document.getNode(startNodeId);
+        List<INode> depthFirst = new ArrayList<>();
+        List<INode> breadthFirst = new ArrayList<>();
+
+        GraphTraverser.traverseFrom(startNode, edgeToNode -> depthFirst.add(edgeToNode.node), null);
+        GraphTraverser.traverseFrom(
+                startNode,
+                edgeToNode -> breadthFirst.add(edgeToNode.node),
+                null,
+                ETraversalOrder.BREADTH_FIRST
+        );
+
+        assert depthFirst.size() == breadthFirst.size();
+        assert new HashSet<>(depthFirst).equals(new HashSet<>(breadthFirst));
+        assert breadthFirst.getFirst() == startNode;
+    }
+
+    @Test void testTraverseFrom_deepChain() {
+        int chainLength = 100000;
+        List<INode> chain = new ArrayList<>();
+        for (int i = 0; i < chainLength; i++) {
+            chain.add(new MergedNode(new org.openprovenance.prov.vanilla.Entity(
+                    new QualifiedNameData(BLANK_URI, "entity" + i).toQN(), new ArrayList<>()
+            )));
+        }
+        for (int i = 0; i + 1 < chainLength; i++) {
+            IEdge edge = new MergedEdge(() -> StatementOrBundle.Kind.PROV_DERIVATION, chain.get(i + 1), chain.get(i));
+            chain.get(i).getCauseEdges().add(edge);
+            chain.get(i + 1).getEffectEdges().add(edge);
+        }
+        Set<INode> traversed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        GraphTraverser.traverseFrom(chain.getFirst(), edgeToNode -> traversed.add(edgeToNode.node), null);
+
+        assert traversed.size() == chainLength;
+    }
+
 
     static Stream<Object[]> testParams() {
         return Stream.of(
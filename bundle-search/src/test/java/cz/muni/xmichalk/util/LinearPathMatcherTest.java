@@ -0,0 +1,170 @@
+package cz.muni.xmichalk.util;
+
+import cz.muni.fi.cpm.merged.MergedEdge;
+import cz.muni.fi.cpm.merged.MergedNode;
+import cz.muni.fi.cpm.model.CpmDocument;
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
+import cz.muni.xmichalk.TestDocumentProvider;
+import cz.muni.xmichalk.models.EdgeToNode;
+import cz.muni.xmichalk.models.QualifiedNameData;
+import cz.muni.xmichalk.models.SubgraphWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openprovenance.prov.model.StatementOrBundle;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static cz.muni.xmichalk.util.NameSpaceConstants.BLANK_URI;
+
+public class LinearPathMatcherTest {
+    private static INode createNode(String localPart) {
+        return new MergedNode(new org.openprovenance.prov.vanilla.Entity(
+                new QualifiedNameData(BLANK_URI, localPart).toQN(), new ArrayList<>()
+        ));
+    }
+
+    private static IEdge link(INode cause, INode effect) {
+        IEdge edge = new MergedEdge(() -> StatementOrBundle.Kind.PROV_DERIVATION, effect, cause);
+        cause.getCauseEdges().add(edge);
+        effect.getEffectEdges().add(edge);
+        return edge;
+    }
+
+    @Test public void testFindMatchesFrom_nodeBlockedByPathMatchedOnOtherPath() {
+        INode start = createNode("start");
+        INode first = createNode("first");
+        INode second = createNode("second");
+        INode shared = createNode("shared");
+        link(start, first);
+        IEdge startToSecond = link(start, second);
+        link(first, shared);
+        IEdge secondToShared = link(second, shared);
+        // shared fails after start, first, because first is already on the path, but not after start, second
+        List<Predicate<EdgeToNode>> specification = List.of(
+                edgeToNode -> edgeToNode.node == start,
+                edgeToNode -> true,
+                edgeToNode -> edgeToNode.node == shared,
+                edgeToNode -> edgeToNode.node == first
+        );
+
+        List<SubgraphWrapper> matches = new LinearPathMatcher(specification).findMatchesFrom(start);
+
+        assert matches.size() == 1;
+        assert matches.getFirst().getNodes().equals(List.of(start, second, shared, first));
+        assert matches.getFirst().getEdges().getFirst() == startToSecond;
+        assert matches.getFirst().getEdges().get(1) == secondToShared;
+    }
+
+    // the finder before paths were matched in place, kept as the reference for the matches and their order
+    private static void copyingFind(
+            EdgeToNode current,
+            SubgraphWrapper foundPart,
+            List<Predicate<EdgeToNode>> specification,
+            Set<INode> visited,
+            List<SubgraphWrapper> results
+    ) {
+        INode node = current.node;
+        int index = foundPart.getNodes().size();
+        if (node == null || !visited.add(node) || specification.size() <= index) return;
+        if (!specification.get(index).test(current)) return;
+
+        foundPart.getNodes().add(node);
+        if (current.edge != null) foundPart.getEdges().add(current.edge);
+        if (foundPart.getNodes().size() == specification.size()) {
+            results.add(foundPart);
+            return;
+        }
+
+        for (IEdge e : node.getCauseEdges()) {
+            copyingFind(
+                    new EdgeToNode(e, e.getEffect()),
+                    new SubgraphWrapper(foundPart),
+                    specification,
+                    new HashSet<>(visited),
+                    results
+            );
+        }
+        for (IEdge e : node.getEffectEdges()) {
+            copyingFind(
+                    new EdgeToNode(e, e.getCause()),
+                    new SubgraphWrapper(foundPart),
+                    specification,
+                    new HashSet<>(visited),
+                    results
+            );
+        }
+    }
+
+    static Stream<Object[]> referenceParams() {
+        List<List<Predicate<EdgeToNode>>> specifications = List.of(
+                List.of(
+                        edgeToNode -> true,
+                        edgeToNode -> edgeToNode.node.getKind() == StatementOrBundle.Kind.PROV_ACTIVITY,
+                        edgeToNode -> true
+                ),
+                List.of(edgeToNode -> true, edgeToNode -> true, edgeToNode -> true, edgeToNode -> true),
+                List.of(
+                        edgeToNode -> edgeToNode.node.getKind() == StatementOrBundle.Kind.PROV_ENTITY,
+                        edgeToNode -> edgeToNode.edge.getKind() != StatementOrBundle.Kind.PROV_USAGE,
+                        edgeToNode -> true,
+                        edgeToNode -> edgeToNode.node.getKind() == StatementOrBundle.Kind.PROV_ENTITY
+                )
+        );
+        return Stream.of(
+                TestDocumentProvider.samplingBundle_V1,
+                TestDocumentProvider.processingBundle_V1,
+                TestDocumentProvider.speciesIdentificationBundle_V0
+        ).flatMap(document -> specifications.stream().map(specification -> new Object[]{document, specification}));
+    }
+
+    @ParameterizedTest @MethodSource("referenceParams")
+    public void testFindMatchesFrom_sameAsCopyingFinder(
+            CpmDocument cpmDocument,
+            List<Predicate<EdgeToNode>> specification
+    ) {
+        // one matcher for all start nodes, so dead ends remembered from earlier starts take part as well
+        LinearPathMatcher sharedMatcher = new LinearPathMatcher(specification);
+
+        for (INode node : cpmDocument.getNodes()) {
+            List<SubgraphWrapper> expected = new ArrayList<>();
+            copyingFind(new EdgeToNode(null, node), new SubgraphWrapper(), specification, new HashSet<>(), expected);
+            List<SubgraphWrapper> found = sharedMatcher.findMatchesFrom(node);
+
+            assert found.size() == expected.size();
+            for (int i = 0; i < found.size(); i++) {
+                assert found.get(i).getNodes().equals(expected.get(i).getNodes());
+                assert found.get(i).getEdges().equals(expected.get(i).getEdges());
+            }
+        }
+    }
+
+    @Test public void testStreamMatchesFrom_stopsAtFirstMatch() {
+        INode start = createNode("start");
+        for (int i = 0; i < 10; i++) {
+            link(start, createNode("effect" + i));
+        }
+        List<INode> tested = new ArrayList<>();
+        List<Predicate<EdgeToNode>> specification = List.of(
+                edgeToNode -> true, edgeToNode -> {
+                    tested.add(edgeToNode.node);
+                    return true;
+                }
+        );
+
+        SubgraphWrapper first = new LinearPathMatcher(specification).streamMatchesFrom(start).findFirst().orElseThrow();
+
+        assert first.getNodes().size() == 2;
+        assert tested.size() == 1;
+    }
+
+    @Test public void testFindMatchesFrom_emptySpecification() {
+        assert new LinearPathMatcher(List.of()).findMatchesFrom(createNode("start")).isEmpty();
+    }
+}
@@ -0,0 +1,99 @@
+package cz.muni.xmichalk.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class ProvJsonUtilsTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String dataFolder = System.getProperty("user.dir") + "/src/test/resources/data/";
+
+    private static String prepareStreaming(String json) {
+        ByteArrayOutputStream prepared = new ByteArrayOutputStream();
+        ProvJsonUtils.prepareJsonForDeserialization(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                prepared
+        );
+        return prepared.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameAsTreePreparation(String json) throws IOException {
+        JsonNode expected = mapper.readTree(ProvJsonUtils.prepareJsonForDeserialization(json));
+        JsonNode actual = mapper.readTree(prepareStreaming(json));
+
+        assert expected.equals(actual) : "expected " + expected + " but was " + actual;
+    }
+
+    private static void assertFieldOrder(JsonNode node, String... fieldNames) {
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        for (String fieldName : fieldNames) {
+            assert fields.hasNext() && fields.next().getKey().equals(fieldName);
+        }
+    }
+
+    static Stream<Path> dataFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(Path.of(dataFolder))) {
+            return files.filter(path -> path.toString().endsWith(".json")).toList().stream();
+        }
+    }
+
+    @ParameterizedTest @MethodSource("dataFiles")
+    public void test_streamingPreparationOfDataFiles(Path dataFile) throws IOException {
+        assertSameAsTreePreparation(Files.readString(dataFile, StandardCharsets.UTF_8));
+    }
+
+    @Test public void test_streamingPreparationOfValues() throws IOException {
+        assertSameAsTreePreparation("""
+                {"prefix": {"ex": "http://example.org/"},
+                 "bundle": {"ex:b": {
+                   "entity": {"ex:e1": {"ex:count": 3, "ex:ratio": 0.5, "ex:flag": true, "ex:none": null,
+                                        "ex:name": "name", "prov:type": {"$": "ex:T", "type": "prov:QUALIFIED_NAME"},
+                                        "prov:label": {"$": "label", "lang": "en"},
+                                        "ex:list": ["a", {"$": "b", "type": "xsd:string"}]}},
+                   "activity": {"ex:a1": {"prov:startTime": "2020-01-01T00:00:00", "ex:other": "x"}},
+                   "wasGeneratedBy": {"_:g1": {"prov:entity": "ex:e1", "prov:activity": "ex:a1"}}
+                 }}}
+                """);
+    }
+
+    @Test public void test_streamingPreparationOfBundleBeforePrefix() throws IOException {
+        String json = """
+                {"bundle": {"ex:b": {"prefix": {"in": "http://inner.org/"}, "entity": {"ex:e1": {}}},
+                            "ex:c": {"@id": "ex:c", "agent": {"ex:ag": {"ex:name": "n"}}}},
+                 "prefix": {"ex": "http://example.org/"}}
+                """;
+        assertSameAsTreePreparation(json);
+
+        JsonNode prepared = mapper.readTree(prepareStreaming(json));
+        assert prepared.at("/bundle/ex:b/@id").asText().equals("ex:b");
+        assert prepared.at("/bundle/ex:b/prefix/in").asText().equals("http://inner.org/");
+        assert prepared.at("/bundle/ex:c/prefix/ex").asText().equals("http://example.org/");
+        assert prepared.at("/bundle/ex:c/agent/ex:ag/ex:name/0").asText().equals("n");
+    }
+
+    @Test public void test_streamingPreparationKeepsBundleFieldOrder() throws IOException {
+        JsonNode prepared = mapper.readTree(prepareStreaming("""
+                {"prefix": {"ex": "http://example.org/"}, "bundle": {"ex:b": {"entity": {"ex:e1": {}}}}}
+                """));
+
+        assertFieldOrder(prepared.at("/bundle/ex:b"), "entity", "@id", "prefix");
+    }
+
+    @Test public void test_streamingPreparationWithoutBundle() throws IOException {
+        assertSameAsTreePreparation("""
+                {"prefix": {"ex": "http://example.org/"}, "entity": {"ex:e1": {"ex:value": 1}}}
+                """);
+    }
+}
@@ -1,49 +1,106 @@
 package cz.muni.xmichalk.util;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.muni.fi.cpm.merged.CpmMergedFactory;
 import cz.muni.fi.cpm.model.CpmDocument;
 import cz.muni.fi.cpm.model.ICpmFactory;
 import cz.muni.fi.cpm.model.ICpmProvFactory;
+import cz.muni.fi.cpm.model.IEdge;
+import cz.muni.fi.cpm.model.INode;
 import cz.muni.fi.cpm.vanilla.CpmProvFactory;
 import cz.muni.xmichalk.TestDocumentProvider;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.openprovenance.prov.model.Document;
+import org.openprovenance.prov.model.*;
 import org.openprovenance.prov.model.interop.Formats;
+import org.openprovenance.prov.vanilla.HasAttributes;
 import org.openprovenance.prov.vanilla.ProvFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
+import static cz.muni.xmichalk.util.NameSpaceConstants.BLANK_URI;
+import static cz.muni.xmichalk.util.NameSpaceConstants.PROV_URI;
+
 public class ResultsTransformationUtilsTest {
+    private static final String XSD_URI = "http://www.w3.org/2001/XMLSchema#";
+    private static final String EXAMPLE_URI = "http://example.org/";
+
     ProvFactory pF = new ProvFactory();
     ICpmFactory cF = new CpmMergedFactory(pF);
     ICpmProvFactory cPF = new CpmProvFactory(pF);
 
 
     @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testDocuments")
-    public void testTransformToJsonNode(CpmDocument cpmDocument) throws IOException {
-        JsonNode jsonNode = ResultsTransformationUtils.transformToJsonNode(cpmDocument.toDocument());
+    public void testTransformNodesToJsonNode(CpmDocument cpmDocument) throws IOException {
+        JsonNode jsonNode =
+                ResultsTransformationUtils.transformToJsonNode(cpmDocument.getNodes(), cpmDocument.getEdges());
+        String json = new ObjectMapper().writeValueAsString(jsonNode);
+
+        assert (json.equals(jsonNode.toString()));
+        assert (new ObjectMapper().readTree(json).get("prefix").has("blank"));
 
-        Document docFromJson = ProvDocumentUtils.deserialize(jsonNode.toString(), Formats.ProvFormat.JSON);
+        Document docFromJson = ProvDocumentUtils.deserialize(json, Formats.ProvFormat.JSON);
         CpmDocument newCpmDocument = new CpmDocument(docFromJson, pF, cPF, cF);
 
-        assert (cpmDocument.getBundleId().getUri().equals(newCpmDocument.getBundleId().getUri()));
-        assert (cpmDocument.getNodes().size() == newCpmDocument.getNodes().size());
-        assert (cpmDocument.getEdges().size() == newCpmDocument.getEdges().size());
-        assert (cpmDocument.getNodes().stream().allMatch(node -> newCpmDocument.getNode(node.getId()) != null));
+        assert (newCpmDocument.getNodes().size() == cpmDocument.getNodes().size());
+        assert (newCpmDocument.getEdges().size() == cpmDocument.getEdges().size());
+        assert (newCpmDocument.getNodes().stream().allMatch(node -> cpmDocument.getNodes(node.getId()) != null));
     }
 
-    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("testDocuments")
-    public void testEncapsulateInDocument(CpmDocument cpmDocument) {
+    @ParameterizedTest @org.junit.jupiter.params.provider.MethodSource("comparedDocuments")
+    public void testTransformNodesToJsonNode_sameAsInteropFramework(CpmDocument cpmDocument) throws IOException {
+        JsonNode written = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(
+                ResultsTransformationUtils.transformToJsonNode(cpmDocument.getNodes(), cpmDocument.getEdges())));
+        JsonNode expected = writeWithInteropFramework(cpmDocument.getNodes(), cpmDocument.getEdges());
 
-        Document newDocument =
-                ResultsTransformationUtils.encapsulateInDocument(cpmDocument.getNodes(), cpmDocument.getEdges());
+        Map<String, String> writtenNamespaces = getNamespaces(written);
+        Map<String, String> expectedNamespaces = getNamespaces(expected);
+        for (Map.Entry<String, String> prefix : writtenNamespaces.entrySet()) {
+            assert !expectedNamespaces.containsKey(prefix.getKey()) ||
+                    expectedNamespaces.get(prefix.getKey()).equals(prefix.getValue());
+        }
 
-        CpmDocument newCpmDocument = new CpmDocument(newDocument, pF, cPF, cF);
-        assert (newCpmDocument.getNodes().size() == cpmDocument.getNodes().size());
-        assert (newCpmDocument.getEdges().size() == cpmDocument.getEdges().size());
-        assert (newCpmDocument.getNodes().stream().allMatch(node -> cpmDocument.getNodes(node.getId()) != null));
+        Map<String, Map<String, List<String>>> writtenStatements = getStatements(written, writtenNamespaces);
+        Map<String, Map<String, List<String>>> expectedStatements = getStatements(expected, expectedNamespaces);
+        assert writtenStatements.keySet().equals(expectedStatements.keySet());
+        for (String kind : expectedStatements.keySet()) {
+            assert writtenStatements.get(kind).keySet().equals(expectedStatements.get(kind).keySet());
+            for (Map.Entry<String, List<String>> statements : expectedStatements.get(kind).entrySet()) {
+                assert writtenStatements.get(kind).get(statements.getKey()).equals(statements.getValue())
+                        : kind + " " + statements.getKey();
+            }
+        }
+    }
+
+    @Test public void testTransformNodesToJsonNode_conflictingPrefixes() throws IOException {
+        QualifiedName first = pF.newQualifiedName("http://example.org/first/", "node", "ex");
+        QualifiedName second = pF.newQualifiedName("http://example.org/second/", "node", "ex");
+        Entity entity = pF.newEntity(first, List.of(pF.newAttribute(
+                pF.getName().PROV_TYPE,
+                second,
+                pF.getName().PROV_QUALIFIED_NAME
+        )));
+        QualifiedName bundleId = pF.newQualifiedName("http://example.org/first/", "bundle", "ex");
+        CpmDocument cpmDocument = new CpmDocument(List.of(entity), bundleId, pF, cPF, cF);
+
+        JsonNode written = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(
+                ResultsTransformationUtils.transformToJsonNode(cpmDocument.getNodes(), cpmDocument.getEdges())));
+        Map<String, String> namespaces = getNamespaces(written);
+
+        assert namespaces.get("ex").equals("http://example.org/first/");
+        assert namespaces.get("ex_1").equals("http://example.org/second/");
+        JsonNode entityJson = written.path("bundle").elements().next().path("entity").path("ex:node");
+        JsonNode type = entityJson.path("prov:type").get(0);
+        assert type.path("$").asText().equals("ex_1:node");
     }
 
     static Stream<Object[]> testDocuments() {
@@ -56,4 +113,167 @@ public class ResultsTransformationUtilsTest {
                 new Object[]{TestDocumentProvider.processingBundle_V0_meta}
         );
     }
+
+    static Stream<Object[]> comparedDocuments() {
+        return Stream.concat(testDocuments(), Stream.<Object[]>of(new Object[]{getAttributeValuesDocument()}));
+    }
+
+    private static CpmDocument getAttributeValuesDocument() {
+        ProvFactory pF = new ProvFactory();
+        Name name = pF.getName();
+        QualifiedName entityId = pF.newQualifiedName(EXAMPLE_URI, "sample", "ex");
+        QualifiedName activityId = pF.newQualifiedName(EXAMPLE_URI, "sampling", "ex");
+
+        Entity entity = pF.newEntity(
+                entityId, List.of(
+                        pF.newAttribute(
+                                name.PROV_LABEL,
+                                pF.newInternationalizedString("vzorek", "cs"),
+                                name.PROV_LANG_STRING
+                        ),
+                        pF.newAttribute(
+                                name.PROV_LABEL,
+                                pF.newInternationalizedString("sample"),
+                                name.PROV_LANG_STRING
+                        ),
+                        pF.newAttribute(
+                                name.PROV_TYPE,
+                                pF.newQualifiedName("http://example.org/types/", "Sample", "types"),
+                                name.PROV_QUALIFIED_NAME
+                        ),
+                        pF.newAttribute(pF.newQualifiedName(EXAMPLE_URI, "count", "ex"), 3, name.XSD_INT),
+                        pF.newAttribute(pF.newQualifiedName(EXAMPLE_URI, "note", "ex"), "ex:text", name.XSD_STRING)
+                )
+        );
+        Activity activity = pF.newActivity(activityId);
+        activity.setStartTime(pF.newISOTime("2025-08-16T10:00:00Z"));
+        Used usage = pF.newUsed(
+                null,
+                activityId,
+                entityId,
+                null,
+                List.of(pF.newAttribute(name.PROV_ROLE, "input", name.XSD_STRING))
+        );
+
+        return new CpmDocument(
+                List.of(entity, activity, usage),
+                pF.newQualifiedName(EXAMPLE_URI, "bundle", "ex"),
+                pF,
+                new CpmProvFactory(pF),
+                new CpmMergedFactory(pF)
+        );
+    }
+
+    // the subgraph as it was written before, through a prov document and the InteropFramework
+    private static JsonNode writeWithInteropFramework(Collection<INode> nodes, Collection<IEdge> edges)
+            throws IOException {
+        ProvFactory pf = ProvFactory.getFactory();
+        Bundle bundle =
+                pf.newNamedBundle(pf.newQualifiedName(BLANK_URI, "anonymous_encapsulating_bundle", "blank"), null);
+        nodes.forEach(node -> bundle.getStatement().addAll(node.getElements()));
+        edges.forEach(edge -> bundle.getStatement().addAll(edge.getRelations()));
+
+        Namespace namespace = pf.newNamespace();
+        namespace.register(bundle.getId().getPrefix(), bundle.getId().getNamespaceURI());
+        for (Statement statement : bundle.getStatement()) {
+            if (statement instanceof Identifiable identifiable && identifiable.getId() != null) {
+                namespace.register(identifiable.getId().getPrefix(), identifiable.getId().getNamespaceURI());
+            }
+            if (statement instanceof HasAttributes hasAttributes) {
+                for (Attribute attribute : hasAttributes.getAttributes()) {
+                    QualifiedName attributeName = attribute.getElementName();
+                    namespace.register(attributeName.getPrefix(), attributeName.getNamespaceURI());
+                    if (attribute.getValue() instanceof QualifiedName value) {
+                        namespace.register(value.getPrefix(), value.getNamespaceURI());
+                    }
+                }
+            }
+        }
+
+        Document document = pf.newDocument();
+        document.setNamespace(namespace);
+        document.getStatementOrBundle().add(bundle);
+        return new ObjectMapper().readTree(ProvDocumentUtils.serialize(document, Formats.ProvFormat.JSON));
+    }
+
+    private static Map<String, String> getNamespaces(JsonNode provJson) {
+        Map<String, String> namespaces = new HashMap<>(Map.of("prov", PROV_URI, "xsd", XSD_URI));
+        provJson.path("prefix").fields()
+                .forEachRemaining(prefix -> namespaces.put(prefix.getKey(), prefix.getValue().asText()));
+        provJson.path("bundle").elements().next().path("prefix").fields()
+                .forEachRemaining(prefix -> namespaces.put(prefix.getKey(), prefix.getValue().asText()));
+        return namespaces;
+    }
+
+    // statements by kind and expanded id, each written with expanded names and sorted attribute values;
+    // statements without an id are compared as a sorted list under a single key
+    private static Map<String, Map<String, List<String>>> getStatements(
+            JsonNode provJson,
+            Map<String, String> namespaces
+    ) {
+        Map<String, Map<String, List<String>>> statementsByKind = new TreeMap<>();
+        provJson.path("bundle").elements().next().fields().forEachRemaining(kind -> {
+            if (kind.getKey().equals("prefix") || !kind.getValue().isObject()) {
+                return;
+            }
+            Map<String, List<String>> statementsById = new TreeMap<>();
+            kind.getValue().fields().forEachRemaining(statements -> {
+                String id = statements.getKey().startsWith("_:") ? "_:" : expand(statements.getKey(), namespaces);
+                for (JsonNode statement : asList(statements.getValue())) {
+                    statementsById.computeIfAbsent(id, _ -> new ArrayList<>()).add(normalize(statement, namespaces));
+                }
+            });
+            statementsById.values().forEach(Collections::sort);
+            statementsByKind.put(kind.getKey(), statementsById);
+        });
+        return statementsByKind;
+    }
+
+    private static String normalize(JsonNode statement, Map<String, String> namespaces) {
+        Map<String, List<String>> attributes = new TreeMap<>();
+        statement.fields().forEachRemaining(attribute -> {
+            List<String> values = new ArrayList<>();
+            for (JsonNode value : asList(attribute.getValue())) {
+                values.add(normalizeValue(value, namespaces));
+            }
+            Collections.sort(values);
+            attributes.put(expand(attribute.getKey(), namespaces), values);
+        });
+        return attributes.toString();
+    }
+
+    private static String normalizeValue(JsonNode value, Map<String, String> namespaces) {
+        if (!value.isObject()) {
+            return expand(value.asText(), namespaces);
+        }
+
+        String literal = value.path("$").asText();
+        if (value.has("lang")) {
+            return literal + "@" + value.get("lang").asText();
+        }
+        String type = value.has("type") ? expand(value.get("type").asText(), namespaces) : null;
+        if (type == null || type.equals(XSD_URI + "string")) {
+            return expand(literal, namespaces);
+        }
+        if (type.equals(PROV_URI + "QUALIFIED_NAME") || type.equals(XSD_URI + "QName")) {
+            return "<" + expand(literal, namespaces) + ">";
+        }
+        return literal + "^^" + type;
+    }
+
+    private static String expand(String prefixed, Map<String, String> namespaces) {
+        int colon = prefixed.indexOf(':');
+        String namespace = colon < 0 ? null : namespaces.get(prefixed.substring(0, colon));
+        return namespace == null ? prefixed : namespace + prefixed.substring(colon + 1);
+    }
+
+    private static List<JsonNode> asList(JsonNode node) {
+        List<JsonNode> items = new ArrayList<>();
+        if (node.isArray()) {
+            node.elements().forEachRemaining(items::add);
+        } else {
+            items.add(node);
+        }
+        return items;
+    }
 }
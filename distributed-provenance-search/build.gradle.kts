@@ -41,6 +41,8 @@ dependencies {
     implementation("org.apache.httpcomponents:httpclient:4.5.13")
 
     implementation("io.github.erdtman:java-json-canonicalization:1.1")
+
+    implementation("com.github.ben-manes.caffeine:caffeine")
 }
 
 
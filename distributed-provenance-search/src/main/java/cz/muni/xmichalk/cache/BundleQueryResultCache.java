@@ -0,0 +1,82 @@
+package cz.muni.xmichalk.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+import cz.muni.xmichalk.dto.CacheStatsDTO;
+import org.erdtman.jcs.JsonCanonicalizer;
+import org.openprovenance.prov.model.QualifiedName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class BundleQueryResultCache implements ICacheStatsProvider {
+    private static final Logger log = LoggerFactory.getLogger(BundleQueryResultCache.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String CACHE_NAME = "bundleQueryResults";
+
+    private final AsyncCache<BundleQueryKey, BundleQueryResultDTO> results;
+    private final Cache<JsonNode, String> queryHashes;
+
+    public BundleQueryResultCache(long maximumSize, long maximumQueryShapes) {
+        // Caffeine evicts with W-TinyLFU, so the few query shapes repeated all day stay resident.
+        // Eviction can also drop an in-flight entry, its callers still get the result but a later hop fetches again
+        this.results = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().buildAsync();
+        this.queryHashes = Caffeine.newBuilder().maximumSize(maximumQueryShapes).build();
+        log.info("Instantiated bundle query result cache with maximum size: {}", maximumSize);
+    }
+
+    public CompletableFuture<BundleQueryResultDTO> get(
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification,
+            Supplier<CompletableFuture<BundleQueryResultDTO>> loader
+    ) {
+        BundleQueryKey key = new BundleQueryKey(
+                bundleId == null ? null : bundleId.getUri(),
+                connectorId == null ? null : connectorId.getUri(),
+                getQueryHash(querySpecification),
+                CacheKeys.getAuthorizationScope(authorizationHeader)
+        );
+
+        return CacheUtils.getOrLoad(results, key, loader);
+    }
+
+    public void invalidateAll() {
+        results.synchronous().invalidateAll();
+    }
+
+    @Override public CacheStatsDTO getCacheStats() {
+        return CacheUtils.toCacheStatsDTO(CACHE_NAME, results.synchronous());
+    }
+
+    private String getQueryHash(JsonNode querySpecification) {
+        if (querySpecification == null) {
+            return null;
+        }
+        return queryHashes.get(querySpecification, BundleQueryResultCache::canonicalHash);
+    }
+
+    private static String canonicalHash(JsonNode querySpecification) {
+        try {
+            String json = objectMapper.writeValueAsString(querySpecification);
+            return CacheKeys.sha256(new JsonCanonicalizer(json).getEncodedUTF8());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Query specification cannot be serialized.", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Query specification cannot be canonicalized.", e);
+        }
+    }
+
+    private record BundleQueryKey(String bundleUri, String connectorUri, String queryHash, String authorizationScope) {
+    }
+}
@@ -0,0 +1,24 @@
+package cz.muni.xmichalk.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+final class CacheKeys {
+    private CacheKeys() {
+    }
+
+    static String getAuthorizationScope(String authorizationHeader) {
+        // keys must not keep the credentials themselves
+        return authorizationHeader == null ? null : sha256(authorizationHeader.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
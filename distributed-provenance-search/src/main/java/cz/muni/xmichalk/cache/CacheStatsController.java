@@ -0,0 +1,25 @@
+package cz.muni.xmichalk.cache;
+
+import cz.muni.xmichalk.dto.CacheStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class CacheStatsController {
+    private final List<ICacheStatsProvider> cacheStatsProviders;
+
+    public CacheStatsController(List<ICacheStatsProvider> cacheStatsProviders) {
+        this.cacheStatsProviders = cacheStatsProviders;
+    }
+
+    @Operation(summary = "Get cache statistics", description = "Returns hit and miss statistics of the service caches.")
+    @GetMapping(value = "/api/getCacheStats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsProviders.stream().map(ICacheStatsProvider::getCacheStats).toList());
+    }
+}
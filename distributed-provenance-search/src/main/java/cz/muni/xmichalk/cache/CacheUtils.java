@@ -0,0 +1,55 @@
+package cz.muni.xmichalk.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import cz.muni.xmichalk.dto.CacheStatsDTO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+public final class CacheUtils {
+    private CacheUtils() {
+    }
+
+    public static <K, V> CompletableFuture<V> getOrLoad(
+            AsyncCache<K, V> cache,
+            K key,
+            Supplier<CompletableFuture<V>> loader
+    ) {
+        AtomicBoolean loaded = new AtomicBoolean(false);
+        CompletableFuture<V> result = cache.get(
+                key, (_, _) -> {
+                    loaded.set(true);
+                    return loader.get();
+                }
+        );
+
+        // failed and null results are dropped by the cache once completed, do not reuse one seen before that
+        if (!loaded.get() && isFailedOrEmpty(result)) {
+            cache.asMap().remove(key, result);
+            return cache.get(key, (_, _) -> loader.get());
+        }
+        return result;
+    }
+
+    public static CacheStatsDTO toCacheStatsDTO(String cacheName, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDTO(
+                cacheName,
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.loadSuccessCount(),
+                stats.loadFailureCount(),
+                stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000d
+        );
+    }
+
+    private static boolean isFailedOrEmpty(CompletableFuture<?> result) {
+        return result.isCompletedExceptionally() || result.isDone() && result.getNow(null) == null;
+    }
+}
@@ -0,0 +1,7 @@
+package cz.muni.xmichalk.cache;
+
+import cz.muni.xmichalk.dto.CacheStatsDTO;
+
+public interface ICacheStatsProvider {
+    CacheStatsDTO getCacheStats();
+}
@@ -0,0 +1,67 @@
+package cz.muni.xmichalk.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.xmichalk.dto.CacheStatsDTO;
+import org.openprovenance.prov.model.QualifiedName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+public class PreferredVersionCache implements ICacheStatsProvider {
+    private static final Logger log = LoggerFactory.getLogger(PreferredVersionCache.class);
+    private static final String CACHE_NAME = "preferredVersions";
+    private static final String LATEST_VERSION_PREFERENCE = "LATEST";
+
+    private final AsyncCache<PreferredVersionKey, QualifiedName> preferredVersions;
+
+    public PreferredVersionCache(long maximumSize, Duration ttl) {
+        // new versions can be published at any time, so entries are only trusted for a short while
+        this.preferredVersions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        log.info("Instantiated preferred version cache with maximum size: {}, ttl: {}", maximumSize, ttl);
+    }
+
+    public CompletableFuture<QualifiedName> get(
+            QualifiedName bundleId,
+            QualifiedName metaBundleId,
+            String authorizationHeader,
+            String versionPreference,
+            Supplier<CompletableFuture<QualifiedName>> loader
+    ) {
+        return CacheUtils.getOrLoad(
+                preferredVersions,
+                new PreferredVersionKey(
+                        getResolvedUri(bundleId, metaBundleId, versionPreference),
+                        versionPreference,
+                        CacheKeys.getAuthorizationScope(authorizationHeader)
+                ),
+                loader
+        );
+    }
+
+    public void invalidateAll() {
+        preferredVersions.synchronous().invalidateAll();
+    }
+
+    @Override public CacheStatsDTO getCacheStats() {
+        return CacheUtils.toCacheStatsDTO(CACHE_NAME, preferredVersions.synchronous());
+    }
+
+    private static String getResolvedUri(QualifiedName bundleId, QualifiedName metaBundleId, String versionPreference) {
+        // every version of a bundle resolves to the same latest version, other preferences depend on the version
+        if (LATEST_VERSION_PREFERENCE.equals(versionPreference) && metaBundleId != null) {
+            return metaBundleId.getUri();
+        }
+        return bundleId == null ? null : bundleId.getUri();
+    }
+
+    private record PreferredVersionKey(String resolvedUri, String versionPreference, String authorizationScope) {
+    }
+}
@@ -0,0 +1,38 @@
+package cz.muni.xmichalk.dto;
+
+public class CacheStatsDTO {
+    public String cacheName;
+    public long estimatedSize;
+    public long hitCount;
+    public long missCount;
+    public double hitRate;
+    public long loadSuccessCount;
+    public long loadFailureCount;
+    public long evictionCount;
+    public double averageLoadPenaltyMillis;
+
+    public CacheStatsDTO() {
+    }
+
+    public CacheStatsDTO(
+            String cacheName,
+            long estimatedSize,
+            long hitCount,
+            long missCount,
+            double hitRate,
+            long loadSuccessCount,
+            long loadFailureCount,
+            long evictionCount,
+            double averageLoadPenaltyMillis
+    ) {
+        this.cacheName = cacheName;
+        this.estimatedSize = estimatedSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.hitRate = hitRate;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.evictionCount = evictionCount;
+        this.averageLoadPenaltyMillis = averageLoadPenaltyMillis;
+    }
+}
@@ -0,0 +1,26 @@
+package cz.muni.xmichalk.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.util.Map;
+
+public class QueryBatchDTO {
+    public QualifiedNameDTO bundleId;
+    public QualifiedNameDTO startNodeId;
+    public Map<String, JsonNode> querySpecifications;
+
+    public QueryBatchDTO() {
+
+    }
+
+    public QueryBatchDTO(
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            Map<String, JsonNode> querySpecifications
+    ) {
+        this.bundleId = new QualifiedNameDTO().from(bundleId);
+        this.startNodeId = new QualifiedNameDTO().from(connectorId);
+        this.querySpecifications = querySpecifications;
+    }
+}
@@ -0,0 +1,14 @@
+package cz.muni.xmichalk.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.muni.xmichalk.dto.token.Token;
+
+public class QueryBatchEntryDTO {
+    public String tokenPart;
+    public Token token;
+    public JsonNode result;
+    public String error;
+
+    public QueryBatchEntryDTO() {
+    }
+}
@@ -0,0 +1,30 @@
+package cz.muni.xmichalk.dto;
+
+import cz.muni.xmichalk.dto.token.Token;
+
+import java.util.Map;
+
+public class QueryBatchResultDTO {
+    public Map<String, Token> tokens;
+    public Map<String, QueryBatchEntryDTO> results;
+
+    public QueryBatchResultDTO() {
+    }
+
+    public BundleQueryResultDTO getResult(String queryName) {
+        QueryBatchEntryDTO entry = results == null ? null : results.get(queryName);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.error != null) {
+            throw new RuntimeException("Bundle query " + queryName + " failed: " + entry.error);
+        }
+
+        // results answered from a bundle part share the token of that part
+        Token token = entry.token;
+        if (token == null && entry.tokenPart != null && tokens != null) {
+            token = tokens.get(entry.tokenPart);
+        }
+        return new BundleQueryResultDTO(token, entry.result);
+    }
+}
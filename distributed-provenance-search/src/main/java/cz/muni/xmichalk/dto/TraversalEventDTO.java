@@ -0,0 +1,23 @@
+package cz.muni.xmichalk.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TraversalEventDTO {
+    public static final String RESULT = "result";
+    public static final String ERROR = "error";
+    public static final String END = "end";
+
+    public String type;
+    public FoundResultDTO result;
+    public String error;
+
+    public TraversalEventDTO() {
+    }
+
+    public TraversalEventDTO(String type, FoundResultDTO result, String error) {
+        this.type = type;
+        this.result = result;
+        this.error = error;
+    }
+}
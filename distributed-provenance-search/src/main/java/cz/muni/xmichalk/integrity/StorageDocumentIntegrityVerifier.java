@@ -1,8 +1,6 @@
 package cz.muni.xmichalk.integrity;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.muni.xmichalk.dto.token.Token;
-import org.erdtman.jcs.JsonCanonicalizer;
 import org.openprovenance.prov.model.QualifiedName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,46 +9,51 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.PublicKey;
-import java.security.Signature;
-import java.security.cert.CertificateFactory;
-import java.security.cert.X509Certificate;
-import java.util.Base64;
+import java.time.Duration;
 import java.util.List;
 
 public class StorageDocumentIntegrityVerifier implements IIntegrityVerifier {
     private static final Logger log = LoggerFactory.getLogger(StorageDocumentIntegrityVerifier.class);
+    private final TrustedPartyTokenRegistry tokenRegistry;
+    private final TokenSignatureVerifier signatureVerifier;
+
+    public StorageDocumentIntegrityVerifier(
+            Duration tokenCacheTtl,
+            Duration tokenMissRefreshInterval,
+            long maxCachedPublicKeys,
+            long maxVerifiedTokens,
+            long maxCachedOrganizations
+    ) {
+        this.signatureVerifier = new TokenSignatureVerifier(maxCachedPublicKeys, maxVerifiedTokens);
+        this.tokenRegistry = new TrustedPartyTokenRegistry(
+                StorageDocumentIntegrityVerifier::fetchOrganizationTokens,
+                tokenCacheTtl,
+                tokenMissRefreshInterval,
+                maxCachedOrganizations
+        );
+    }
 
     public boolean verifyIntegrity(QualifiedName document, Token token) {
         return verifySignature(token) && verifyTokenExists(document, token);
     }
 
     public boolean verifySignature(Token token) {
-        try {
-            PublicKey publicKey = loadPublicKeyFromCertificate(token.data().additionalData().trustedPartyCertificate());
-
-            ObjectMapper mapper = new ObjectMapper();
-            String tokenDataJsonString = mapper.writeValueAsString(token.data());
-            byte[] canonized = new JsonCanonicalizer(tokenDataJsonString).getEncodedUTF8();
-
-            byte[] signatureBytes = Base64.getDecoder().decode(token.signature());
-
-            Signature verifier = Signature.getInstance("SHA256withECDSA");
-            verifier.initVerify(publicKey);
-            verifier.update(canonized);
-            return verifier.verify(signatureBytes);
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return signatureVerifier.verify(token);
     }
 
     public boolean verifyTokenExists(QualifiedName document, Token token) {
-        String trustedPartyUri = token.data().additionalData().trustedPartyUri();
-        String url = trustedPartyUri + "/api/v1/organizations/" + token.data().originatorId() + "/tokens";
+        return tokenRegistry.containsToken(
+                token.data().additionalData().trustedPartyUri(),
+                token.data().originatorId(),
+                token
+        );
+    }
+
+    private static List<Token> fetchOrganizationTokens(String trustedPartyUri, String organizationId) {
+        String url = trustedPartyUri + "/api/v1/organizations/" + organizationId + "/tokens";
         if (!url.startsWith("http")) {
             url = "http://" + url;
         }
@@ -63,22 +66,14 @@ public class StorageDocumentIntegrityVerifier implements IIntegrityVerifier {
 
         if (!response.getStatusCode().is2xxSuccessful()) {
             log.error("Get document token API call failed with status: {}", response.getStatusCode());
-            return false;
+            return null;
         }
 
-        if (response.getBody() == null) {
-            return false;
-        }
-
-        return response.getBody().contains(token);
-
+        return response.getBody();
     }
 
     public PublicKey loadPublicKeyFromCertificate(String pemCert) throws Exception {
-        ByteArrayInputStream certStream = new ByteArrayInputStream(pemCert.getBytes(StandardCharsets.UTF_8));
-        CertificateFactory cf = CertificateFactory.getInstance("X.509");
-        X509Certificate cert = (X509Certificate) cf.generateCertificate(certStream);
-        return cert.getPublicKey();
+        return TokenSignatureVerifier.loadPublicKeyFromCertificate(pemCert);
     }
 
     public boolean verifyHash(String data, String hashFunctionName, String expectedHexHash) {
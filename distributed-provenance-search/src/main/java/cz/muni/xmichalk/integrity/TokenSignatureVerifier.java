@@ -0,0 +1,86 @@
+package cz.muni.xmichalk.integrity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.xmichalk.dto.token.Token;
+import org.erdtman.jcs.JsonCanonicalizer;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.HexFormat;
+
+public class TokenSignatureVerifier {
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSA";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Cache<String, PublicKey> publicKeysByFingerprint;
+    private final Cache<Token, Boolean> verifiedTokens;
+
+    public TokenSignatureVerifier(long maxCachedPublicKeys, long maxVerifiedTokens) {
+        this.publicKeysByFingerprint = Caffeine.newBuilder().maximumSize(maxCachedPublicKeys).build();
+        this.verifiedTokens = Caffeine.newBuilder().maximumSize(maxVerifiedTokens).build();
+    }
+
+    public boolean verify(Token token) {
+        // the token record covers the digest, all other signed data and the signature itself
+        Boolean verified = verifiedTokens.getIfPresent(token);
+        if (verified != null) {
+            return verified;
+        }
+
+        boolean result = verifyUncached(token);
+        verifiedTokens.put(token, result);
+        return result;
+    }
+
+    private boolean verifyUncached(Token token) {
+        try {
+            PublicKey publicKey = getPublicKey(token.data().additionalData().trustedPartyCertificate());
+
+            byte[] tokenDataJson = objectMapper.writeValueAsBytes(token.data());
+            byte[] canonized = new JsonCanonicalizer(tokenDataJson).getEncodedUTF8();
+
+            byte[] signatureBytes = Base64.getDecoder().decode(token.signature());
+
+            // verification runs on short-lived virtual threads, so a per-thread instance would never be reused
+            Signature verifier = Signature.getInstance(SIGNATURE_ALGORITHM);
+            verifier.initVerify(publicKey);
+            verifier.update(canonized);
+            return verifier.verify(signatureBytes);
+
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private PublicKey getPublicKey(String pemCert) throws GeneralSecurityException {
+        String fingerprint = getFingerprint(pemCert);
+        PublicKey publicKey = publicKeysByFingerprint.getIfPresent(fingerprint);
+        if (publicKey == null) {
+            publicKey = loadPublicKeyFromCertificate(pemCert);
+            publicKeysByFingerprint.put(fingerprint, publicKey);
+        }
+        return publicKey;
+    }
+
+    private static String getFingerprint(String pemCert) throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        return HexFormat.of().formatHex(digest.digest(pemCert.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static PublicKey loadPublicKeyFromCertificate(String pemCert) throws GeneralSecurityException {
+        ByteArrayInputStream certStream = new ByteArrayInputStream(pemCert.getBytes(StandardCharsets.UTF_8));
+        CertificateFactory cf = CertificateFactory.getInstance("X.509");
+        X509Certificate cert = (X509Certificate) cf.generateCertificate(certStream);
+        return cert.getPublicKey();
+    }
+}
@@ -0,0 +1,178 @@
+package cz.muni.xmichalk.integrity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.muni.xmichalk.dto.token.Token;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+public class TrustedPartyTokenRegistry {
+    private static final Logger log = LoggerFactory.getLogger(TrustedPartyTokenRegistry.class);
+
+    private final BiFunction<String, String, List<Token>> organizationTokensFetcher;
+    private final long ttlNanos;
+    private final long missRefreshIntervalNanos;
+    // keyed by the trusted party named in the token, so bounded against tokens naming arbitrary parties
+    private final Cache<OrganizationKey, OrganizationTokens> registries;
+
+    public TrustedPartyTokenRegistry(
+            BiFunction<String, String, List<Token>> organizationTokensFetcher,
+            Duration ttl,
+            Duration missRefreshInterval,
+            long maxOrganizations
+    ) {
+        this.organizationTokensFetcher = organizationTokensFetcher;
+        this.ttlNanos = ttl.toNanos();
+        this.missRefreshIntervalNanos = missRefreshInterval.toNanos();
+        this.registries = Caffeine.newBuilder().maximumSize(maxOrganizations).build();
+    }
+
+    public boolean containsToken(String trustedPartyUri, String organizationId, Token token) {
+        OrganizationTokens organizationTokens = registries.get(
+                new OrganizationKey(trustedPartyUri, organizationId), OrganizationTokens::new);
+
+        if (organizationTokens.getTokensByDigest(false).isIndexed(token)) {
+            return true;
+        }
+
+        // the token might have been issued after the last refresh
+        return organizationTokens.getTokensByDigest(true).isIndexed(token);
+    }
+
+    private record OrganizationKey(String trustedPartyUri, String organizationId) {
+    }
+
+    private record TokenIndex(Map<String, List<Token>> tokensByDigest, long refreshedAtNanos) {
+        private static final TokenIndex EMPTY = new TokenIndex(Map.of(), Long.MIN_VALUE);
+
+        static TokenIndex of(List<Token> tokens, long refreshedAtNanos) {
+            Map<String, List<Token>> tokensByDigest = new HashMap<>();
+            for (Token token : tokens) {
+                if (token == null || token.data() == null) continue;
+                tokensByDigest.computeIfAbsent(token.data().documentDigest(), _ -> new ArrayList<>(1)).add(token);
+            }
+            return new TokenIndex(tokensByDigest, refreshedAtNanos);
+        }
+
+        boolean isIndexed(Token token) {
+            if (token == null || token.data() == null) {
+                return false;
+            }
+            List<Token> candidates = tokensByDigest.get(token.data().documentDigest());
+            return candidates != null && candidates.contains(token);
+        }
+
+        boolean isLoaded() {
+            return refreshedAtNanos != Long.MIN_VALUE;
+        }
+
+        long age(long nowNanos) {
+            return nowNanos - refreshedAtNanos;
+        }
+    }
+
+    private class OrganizationTokens {
+        private final OrganizationKey key;
+        private volatile TokenIndex index = TokenIndex.EMPTY;
+        private CompletableFuture<TokenIndex> refreshInFlight;
+        private long failedAtNanos = Long.MIN_VALUE;
+        private RuntimeException failure;
+
+        OrganizationTokens(OrganizationKey key) {
+            this.key = key;
+        }
+
+        TokenIndex getTokensByDigest(boolean afterMiss) {
+            TokenIndex current = index;
+            if (!needsRefresh(current, afterMiss)) {
+                return current;
+            }
+
+            CompletableFuture<TokenIndex> refresh;
+            boolean isRefreshOwner = false;
+            synchronized (this) {
+                current = index;
+                if (!needsRefresh(current, afterMiss)) {
+                    return current;
+                }
+                if (refreshInFlight == null && hasRecentFailure()) {
+                    // a failed fetch is not repeated for every token until the miss refresh interval passes
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    return current;
+                }
+                if (refreshInFlight == null) {
+                    refreshInFlight = new CompletableFuture<>();
+                    isRefreshOwner = true;
+                }
+                refresh = refreshInFlight;
+            }
+
+            if (isRefreshOwner) {
+                refresh(refresh);
+            }
+
+            try {
+                return refresh.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+
+        private boolean needsRefresh(TokenIndex current, boolean afterMiss) {
+            if (!current.isLoaded()) {
+                return true;
+            }
+            long age = current.age(System.nanoTime());
+            return afterMiss ? age >= missRefreshIntervalNanos : age >= ttlNanos;
+        }
+
+        private boolean hasRecentFailure() {
+            return failedAtNanos != Long.MIN_VALUE && System.nanoTime() - failedAtNanos < missRefreshIntervalNanos;
+        }
+
+        private void refresh(CompletableFuture<TokenIndex> refresh) {
+            try {
+                long startedAt = System.nanoTime();
+                List<Token> tokens = organizationTokensFetcher.apply(key.trustedPartyUri(), key.organizationId());
+                TokenIndex refreshed;
+                synchronized (this) {
+                    failure = null;
+                    failedAtNanos = tokens == null ? System.nanoTime() : Long.MIN_VALUE;
+                    if (tokens != null) {
+                        index = TokenIndex.of(tokens, startedAt);
+                        log.info(
+                                "Refreshed {} tokens of organization {} from trusted party {}",
+                                tokens.size(),
+                                key.organizationId(),
+                                key.trustedPartyUri()
+                        );
+                    }
+                    refreshed = index;
+                    refreshInFlight = null;
+                }
+                refresh.complete(refreshed);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    failure = e;
+                    failedAtNanos = System.nanoTime();
+                    refreshInFlight = null;
+                }
+                refresh.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.xmichalk.dto.BundleQueryDTO;
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+import cz.muni.xmichalk.dto.QueryBatchDTO;
+import cz.muni.xmichalk.dto.QueryBatchResultDTO;
+import org.openprovenance.prov.model.QualifiedName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+public class AsyncProvServiceAPI implements IProvServiceAPI, AutoCloseable {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Logger log = LoggerFactory.getLogger(AsyncProvServiceAPI.class);
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int defaultMaxConnectionsPerHost;
+    private final Map<String, Integer> maxConnectionsPerHost;
+    private final ConcurrentMap<String, HostRequestLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    public AsyncProvServiceAPI(
+            Duration connectTimeout,
+            Duration requestTimeout,
+            int defaultMaxConnectionsPerHost,
+            Map<String, Integer> maxConnectionsPerHost
+    ) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.defaultMaxConnectionsPerHost = defaultMaxConnectionsPerHost;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        log.info(
+                "Instantiated async prov service API with default max connections per host: {}, per host overrides: {}",
+                defaultMaxConnectionsPerHost,
+                maxConnectionsPerHost
+        );
+    }
+
+    @Override public BundleQueryResultDTO fetchBundleQueryResult(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification
+    ) {
+        return await(fetchBundleQueryResultAsync(
+                serviceUri,
+                bundleId,
+                connectorId,
+                authorizationHeader,
+                querySpecification
+        ));
+    }
+
+    @Override public QualifiedName fetchPreferredBundleVersion(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName metaId,
+            String authorizationHeader,
+            String versionPreference
+    ) {
+        return await(fetchPreferredBundleVersionAsync(
+                serviceUri,
+                bundleId,
+                metaId,
+                authorizationHeader,
+                versionPreference
+        ));
+    }
+
+    @Override public BundleQueryResultDTO fetchBundleConnectors(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            boolean backward
+    ) {
+        return await(fetchBundleConnectorsAsync(serviceUri, bundleId, connectorId, authorizationHeader, backward));
+    }
+
+    @Override public CompletableFuture<BundleQueryResultDTO> fetchBundleQueryResultAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification
+    ) {
+        if (serviceUri == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Prov service cannot be null."));
+        }
+
+        HttpRequest request;
+        try {
+            request = buildRequest(
+                    serviceUri,
+                    "bundleQuery",
+                    new BundleQueryDTO(bundleId, connectorId, querySpecification),
+                    authorizationHeader
+            );
+        } catch (RuntimeException | JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return getHostLimiter(request.uri())
+                .submit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                .thenApply(response -> readResponse(response, BundleQueryResultDTO.class));
+    }
+
+    @Override public Map<String, CompletableFuture<BundleQueryResultDTO>> fetchBundleQueryResultsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            Map<String, JsonNode> querySpecifications
+    ) {
+        if (querySpecifications.isEmpty()) {
+            return Map.of();
+        }
+
+        CompletableFuture<QueryBatchResultDTO> batchResult;
+        if (serviceUri == null) {
+            batchResult = CompletableFuture.failedFuture(new IllegalArgumentException("Prov service cannot be null."));
+        } else {
+            try {
+                HttpRequest request = buildRequest(
+                        serviceUri,
+                        "bundleQueries",
+                        new QueryBatchDTO(bundleId, connectorId, querySpecifications),
+                        authorizationHeader
+                );
+                batchResult = getHostLimiter(request.uri())
+                        .submit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()))
+                        .thenApply(response -> readResponse(response, QueryBatchResultDTO.class));
+            } catch (RuntimeException | JsonProcessingException e) {
+                batchResult = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        Map<String, CompletableFuture<BundleQueryResultDTO>> results = new LinkedHashMap<>();
+        for (String queryName : querySpecifications.keySet()) {
+            results.put(queryName, batchResult.thenApply(result -> result == null ? null : result.getResult(queryName)));
+        }
+        return results;
+    }
+
+    @Override public HopQueryResults fetchHopQueryResultsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification,
+            boolean backward,
+            Map<String, JsonNode> additionalQuerySpecifications
+    ) {
+        // the query, the connectors and the additional queries of a hop are answered by a single request
+        return ProvServiceQueries.toHopQueryResults(fetchBundleQueryResultsAsync(
+                serviceUri,
+                bundleId,
+                connectorId,
+                authorizationHeader,
+                ProvServiceQueries.getHopQueries(querySpecification, backward, additionalQuerySpecifications)
+        ));
+    }
+
+    @Override public CompletableFuture<QualifiedName> fetchPreferredBundleVersionAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName metaId,
+            String authorizationHeader,
+            String versionPreference
+    ) {
+        JsonNode query = ProvServiceQueries.getPreferredVersionQuery(versionPreference, metaId);
+
+        return fetchBundleQueryResultAsync(serviceUri, bundleId, null, authorizationHeader, query)
+                .thenApply(ProvServiceQueries::toPreferredVersion);
+    }
+
+    @Override public CompletableFuture<BundleQueryResultDTO> fetchBundleConnectorsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            boolean backward
+    ) {
+        JsonNode query = ProvServiceQueries.getConnectorsQuery(backward);
+
+        return fetchBundleQueryResultAsync(serviceUri, bundleId, connectorId, authorizationHeader, query);
+    }
+
+    @Override public void close() {
+        httpClient.close();
+    }
+
+    private HttpRequest buildRequest(
+            String serviceUri,
+            String path,
+            Object body,
+            String authorizationHeader
+    ) throws JsonProcessingException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(serviceUri + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+
+        if (authorizationHeader != null) {
+            builder.header("Authorization", authorizationHeader);
+        }
+
+        return builder.build();
+    }
+
+    private HostRequestLimiter getHostLimiter(URI uri) {
+        String host = uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+        return hostLimiters.computeIfAbsent(
+                host, h -> new HostRequestLimiter(maxConnectionsPerHost.getOrDefault(h, defaultMaxConnectionsPerHost))
+        );
+    }
+
+    private static <T> T readResponse(HttpResponse<byte[]> response, Class<T> resultClass) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            throw new RuntimeException("Bundle query API call failed with status: " + response.statusCode());
+        }
+
+        byte[] body = response.body();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(body, resultClass);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read bundle query response.", e);
+        }
+    }
+
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for prov service response.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
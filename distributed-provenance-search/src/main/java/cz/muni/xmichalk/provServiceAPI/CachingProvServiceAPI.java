@@ -0,0 +1,200 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.muni.xmichalk.cache.BundleQueryResultCache;
+import cz.muni.xmichalk.cache.PreferredVersionCache;
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class CachingProvServiceAPI implements IProvServiceAPI, AutoCloseable {
+    private final IProvServiceAPI delegate;
+    private final BundleQueryResultCache bundleQueryResultCache;
+    private final PreferredVersionCache preferredVersionCache;
+    private final Object batchRegistrationLock = new Object();
+
+    public CachingProvServiceAPI(
+            IProvServiceAPI delegate,
+            BundleQueryResultCache bundleQueryResultCache,
+            PreferredVersionCache preferredVersionCache
+    ) {
+        this.delegate = delegate;
+        this.bundleQueryResultCache = bundleQueryResultCache;
+        this.preferredVersionCache = preferredVersionCache;
+    }
+
+    @Override public BundleQueryResultDTO fetchBundleQueryResult(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification
+    ) {
+        return AsyncProvServiceAPI.await(fetchBundleQueryResultAsync(
+                serviceUri,
+                bundleId,
+                connectorId,
+                authorizationHeader,
+                querySpecification
+        ));
+    }
+
+    @Override public QualifiedName fetchPreferredBundleVersion(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName metaId,
+            String authorizationHeader,
+            String versionPreference
+    ) {
+        return AsyncProvServiceAPI.await(fetchPreferredBundleVersionAsync(
+                serviceUri,
+                bundleId,
+                metaId,
+                authorizationHeader,
+                versionPreference
+        ));
+    }
+
+    @Override public BundleQueryResultDTO fetchBundleConnectors(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            boolean backward
+    ) {
+        return AsyncProvServiceAPI.await(fetchBundleConnectorsAsync(
+                serviceUri,
+                bundleId,
+                connectorId,
+                authorizationHeader,
+                backward
+        ));
+    }
+
+    @Override public CompletableFuture<BundleQueryResultDTO> fetchBundleQueryResultAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification
+    ) {
+        // bundle versions are immutable, so the result only depends on the bundle, connector, query and caller
+        return bundleQueryResultCache.get(
+                bundleId, connectorId, authorizationHeader, querySpecification,
+                () -> delegate.fetchBundleQueryResultAsync(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        querySpecification
+                )
+        );
+    }
+
+    @Override public CompletableFuture<QualifiedName> fetchPreferredBundleVersionAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName metaId,
+            String authorizationHeader,
+            String versionPreference
+    ) {
+        return preferredVersionCache.get(
+                bundleId, metaId, authorizationHeader, versionPreference,
+                () -> delegate.fetchPreferredBundleVersionAsync(
+                        serviceUri,
+                        bundleId,
+                        metaId,
+                        authorizationHeader,
+                        versionPreference
+                )
+        );
+    }
+
+    @Override public CompletableFuture<BundleQueryResultDTO> fetchBundleConnectorsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            boolean backward
+    ) {
+        return bundleQueryResultCache.get(
+                bundleId, connectorId, authorizationHeader, ProvServiceQueries.getConnectorsQuery(backward),
+                () -> delegate.fetchBundleConnectorsAsync(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        backward
+                )
+        );
+    }
+
+    @Override public Map<String, CompletableFuture<BundleQueryResultDTO>> fetchBundleQueryResultsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            Map<String, JsonNode> querySpecifications
+    ) {
+        // cached queries are answered from the cache, all the others are fetched together in one batch
+        Map<String, JsonNode> missingQuerySpecifications = new LinkedHashMap<>();
+        CompletableFuture<Map<String, CompletableFuture<BundleQueryResultDTO>>> missingResults =
+                new CompletableFuture<>();
+
+        // a concurrent identical batch either finds all queries registered by this one or registers them all itself
+        Map<String, CompletableFuture<BundleQueryResultDTO>> results = new LinkedHashMap<>();
+        synchronized (batchRegistrationLock) {
+            querySpecifications.forEach((queryName, querySpecification) -> results.put(
+                    queryName, bundleQueryResultCache.get(
+                            bundleId, connectorId, authorizationHeader, querySpecification,
+                            () -> {
+                                missingQuerySpecifications.put(queryName, querySpecification);
+                                return missingResults.thenCompose(fetched -> fetched.get(queryName));
+                            }
+                    )
+            ));
+        }
+
+        if (!missingQuerySpecifications.isEmpty()) {
+            try {
+                missingResults.complete(delegate.fetchBundleQueryResultsAsync(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        missingQuerySpecifications
+                ));
+            } catch (RuntimeException e) {
+                missingResults.completeExceptionally(e);
+            }
+        }
+        return results;
+    }
+
+    @Override public HopQueryResults fetchHopQueryResultsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification,
+            boolean backward,
+            Map<String, JsonNode> additionalQuerySpecifications
+    ) {
+        return ProvServiceQueries.toHopQueryResults(fetchBundleQueryResultsAsync(
+                serviceUri,
+                bundleId,
+                connectorId,
+                authorizationHeader,
+                ProvServiceQueries.getHopQueries(querySpecification, backward, additionalQuerySpecifications)
+        ));
+    }
+
+    @Override public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public record HopQueryResults(
+        CompletableFuture<BundleQueryResultDTO> queryResult,
+        CompletableFuture<BundleQueryResultDTO> connectorsResult,
+        Map<String, CompletableFuture<BundleQueryResultDTO>> additionalResults
+) {
+}
@@ -0,0 +1,78 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+class HostRequestLimiter {
+    private final int maxConcurrentRequests;
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+    private int running = 0;
+    private boolean draining = false;
+
+    HostRequestLimiter(int maxConcurrentRequests) {
+        if (maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests per host must be positive.");
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            try {
+                request.get().whenComplete((value, error) -> {
+                    release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+            }
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            // queued requests go first, a thread draining the queue picks them up as slots free
+            startNow = running < maxConcurrentRequests && waiting.isEmpty();
+            if (startNow) {
+                running++;
+            } else {
+                waiting.add(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    private void release() {
+        synchronized (this) {
+            running--;
+            if (draining) {
+                return;
+            }
+            draining = true;
+        }
+
+        // start waiters in a loop, a waiter failing or completing at once must not recurse into release
+        while (true) {
+            Runnable next;
+            synchronized (this) {
+                if (running >= maxConcurrentRequests || waiting.isEmpty()) {
+                    draining = false;
+                    return;
+                }
+                next = waiting.poll();
+                running++;
+            }
+            next.run();
+        }
+    }
+}
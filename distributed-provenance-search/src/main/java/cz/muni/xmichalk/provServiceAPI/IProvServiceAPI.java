@@ -4,6 +4,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import cz.muni.xmichalk.dto.BundleQueryResultDTO;
 import org.openprovenance.prov.model.QualifiedName;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 public interface IProvServiceAPI {
     BundleQueryResultDTO fetchBundleQueryResult(
             String serviceUri,
@@ -28,4 +32,95 @@ public interface IProvServiceAPI {
             String authorizationHeader,
             boolean backward
     );
+
+    default CompletableFuture<BundleQueryResultDTO> fetchBundleQueryResultAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification
+    ) {
+        return CompletableFuture.supplyAsync(
+                () -> fetchBundleQueryResult(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        querySpecification
+                ), Thread::startVirtualThread
+        );
+    }
+
+    default CompletableFuture<QualifiedName> fetchPreferredBundleVersionAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            String versionPreference
+    ) {
+        return CompletableFuture.supplyAsync(
+                () -> fetchPreferredBundleVersion(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        versionPreference
+                ), Thread::startVirtualThread
+        );
+    }
+
+    default CompletableFuture<BundleQueryResultDTO> fetchBundleConnectorsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            boolean backward
+    ) {
+        return CompletableFuture.supplyAsync(
+                () -> fetchBundleConnectors(serviceUri, bundleId, connectorId, authorizationHeader, backward),
+                Thread::startVirtualThread
+        );
+    }
+
+    default Map<String, CompletableFuture<BundleQueryResultDTO>> fetchBundleQueryResultsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            Map<String, JsonNode> querySpecifications
+    ) {
+        Map<String, CompletableFuture<BundleQueryResultDTO>> results = new LinkedHashMap<>();
+        querySpecifications.forEach((queryName, querySpecification) -> results.put(
+                queryName, fetchBundleQueryResultAsync(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        querySpecification
+                )
+        ));
+        return results;
+    }
+
+    default HopQueryResults fetchHopQueryResultsAsync(
+            String serviceUri,
+            QualifiedName bundleId,
+            QualifiedName connectorId,
+            String authorizationHeader,
+            JsonNode querySpecification,
+            boolean backward,
+            Map<String, JsonNode> additionalQuerySpecifications
+    ) {
+        return new HopQueryResults(
+                fetchBundleQueryResultAsync(serviceUri, bundleId, connectorId, authorizationHeader, querySpecification),
+                fetchBundleConnectorsAsync(serviceUri, bundleId, connectorId, authorizationHeader, backward),
+                fetchBundleQueryResultsAsync(
+                        serviceUri,
+                        bundleId,
+                        connectorId,
+                        authorizationHeader,
+                        additionalQuerySpecifications
+                )
+        );
+    }
 }
@@ -1,11 +1,8 @@
 package cz.muni.xmichalk.provServiceAPI;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.muni.xmichalk.dto.BundleQueryDTO;
 import cz.muni.xmichalk.dto.BundleQueryResultDTO;
-import cz.muni.xmichalk.dto.QualifiedNameDTO;
 import org.openprovenance.prov.model.QualifiedName;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -13,11 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
-import java.io.IOException;
-
 public class ProvServiceAPI implements IProvServiceAPI {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-
     public BundleQueryResultDTO fetchBundleQueryResult(
             String serviceUri,
             QualifiedName bundleId,
@@ -57,34 +50,12 @@ public class ProvServiceAPI implements IProvServiceAPI {
             String authorizationHeader,
             String versionPreference
     ) {
-        String metaUri = (metaId != null) ? "\"" + metaId.getUri() + "\"" : null;
-        JsonNode query = null;
-        try {
-            query = objectMapper.readTree("""
-                                                      {
-                                                        "type": "GetPreferredVersion",
-                                                        "versionPreference": "%s",
-                                                        "metaUri": %s
-                                                      }
-                                                  """.formatted(versionPreference, metaUri));
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create GetPreferredVersion query JSON.", e);
-        }
-
+        JsonNode query = ProvServiceQueries.getPreferredVersionQuery(versionPreference, metaId);
 
         BundleQueryResultDTO queryResult =
                 fetchBundleQueryResult(serviceUri, bundleId, null, authorizationHeader, query);
 
-        if (queryResult == null || queryResult.result == null) {
-            return null;
-        }
-
-        QualifiedNameDTO pickedBundleIdDto = objectMapper.convertValue(
-                queryResult.result, new TypeReference<QualifiedNameDTO>() {
-                }
-        );
-
-        return pickedBundleIdDto == null ? null : pickedBundleIdDto.toQN();
+        return ProvServiceQueries.toPreferredVersion(queryResult);
     }
 
     public BundleQueryResultDTO fetchBundleConnectors(
@@ -94,21 +65,7 @@ public class ProvServiceAPI implements IProvServiceAPI {
             String authorizationHeader,
             boolean backward
     ) {
-        JsonNode query = null;
-        try {
-            query = objectMapper.readTree("""
-                                                      {
-                                                        "type": "GetConnectors",
-                                                        "backward": %s,
-                                                        "fromSubgraphs" : {
-                                                          "type" : "DerivationPathFromStartNode",
-                                                          "backward" : %s
-                                                        }
-                                                      }
-                                                  """.formatted(backward, backward));
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create GetConnectors query JSON.", e);
-        }
+        JsonNode query = ProvServiceQueries.getConnectorsQuery(backward);
 
         return fetchBundleQueryResult(serviceUri, bundleId, connectorId, authorizationHeader, query);
     }
@@ -0,0 +1,84 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+import cz.muni.xmichalk.dto.QualifiedNameDTO;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+final class ProvServiceQueries {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String HOP_QUERY_NAME = "query";
+    private static final String HOP_CONNECTORS_NAME = "connectors";
+
+    private ProvServiceQueries() {
+    }
+
+    static JsonNode getPreferredVersionQuery(String versionPreference, QualifiedName metaId) {
+        ObjectNode query = objectMapper.createObjectNode();
+        query.put("type", "GetPreferredVersion");
+        query.put("versionPreference", versionPreference);
+        if (metaId != null) {
+            query.put("metaUri", metaId.getUri());
+        } else {
+            query.putNull("metaUri");
+        }
+        return query;
+    }
+
+    static JsonNode getConnectorsQuery(boolean backward) {
+        ObjectNode query = objectMapper.createObjectNode();
+        query.put("type", "GetConnectors");
+        query.put("backward", backward);
+        ObjectNode fromSubgraphs = query.putObject("fromSubgraphs");
+        fromSubgraphs.put("type", "DerivationPathFromStartNode");
+        fromSubgraphs.put("backward", backward);
+        return query;
+    }
+
+    static QualifiedName toPreferredVersion(BundleQueryResultDTO queryResult) {
+        if (queryResult == null || queryResult.result == null) {
+            return null;
+        }
+
+        QualifiedNameDTO pickedBundleIdDto = objectMapper.convertValue(
+                queryResult.result, new TypeReference<QualifiedNameDTO>() {
+                }
+        );
+
+        return pickedBundleIdDto == null ? null : pickedBundleIdDto.toQN();
+    }
+
+    static Map<String, JsonNode> getHopQueries(
+            JsonNode querySpecification,
+            boolean backward,
+            Map<String, JsonNode> additionalQuerySpecifications
+    ) {
+        if (additionalQuerySpecifications.containsKey(HOP_QUERY_NAME) ||
+                additionalQuerySpecifications.containsKey(HOP_CONNECTORS_NAME)) {
+            throw new IllegalArgumentException(
+                    "Additional hop queries cannot be named " + HOP_QUERY_NAME + " or " + HOP_CONNECTORS_NAME + ".");
+        }
+
+        Map<String, JsonNode> queries = new LinkedHashMap<>();
+        queries.put(HOP_QUERY_NAME, querySpecification);
+        queries.put(HOP_CONNECTORS_NAME, getConnectorsQuery(backward));
+        queries.putAll(additionalQuerySpecifications);
+        return queries;
+    }
+
+    static HopQueryResults toHopQueryResults(Map<String, CompletableFuture<BundleQueryResultDTO>> results) {
+        Map<String, CompletableFuture<BundleQueryResultDTO>> additionalResults = new LinkedHashMap<>(results);
+        return new HopQueryResults(
+                additionalResults.remove(HOP_QUERY_NAME),
+                additionalResults.remove(HOP_CONNECTORS_NAME),
+                additionalResults
+        );
+    }
+}
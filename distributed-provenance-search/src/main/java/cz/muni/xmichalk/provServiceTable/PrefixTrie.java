@@ -0,0 +1,97 @@
+package cz.muni.xmichalk.provServiceTable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// compressed trie of uri prefixes, immutable once built so any number of threads can read it without locking
+final class PrefixTrie {
+    private final Node root = new Node("", null);
+
+    PrefixTrie(Map<String, String> valuesByPrefix) {
+        for (Map.Entry<String, String> entry : valuesByPrefix.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+        root.freeze();
+    }
+
+    // value of the longest prefix of the key, null when no prefix matches
+    String findLongestPrefixValue(String key) {
+        Node node = root;
+        String found = root.value;
+        int position = 0;
+        while (position < key.length()) {
+            Node child = node.getChild(key.charAt(position));
+            if (child == null || !key.startsWith(child.label, position)) {
+                break;
+            }
+            position += child.label.length();
+            node = child;
+            if (node.value != null) {
+                found = node.value;
+            }
+        }
+        return found;
+    }
+
+    private void insert(String prefix, String value) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            char first = prefix.charAt(position);
+            Node child = node.building.get(first);
+            if (child == null) {
+                node.building.put(first, new Node(prefix.substring(position), value));
+                return;
+            }
+
+            int common = 1;
+            while (common < child.label.length() && position + common < prefix.length() &&
+                    child.label.charAt(common) == prefix.charAt(position + common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                // the new prefix ends or branches inside the edge, which is split at that point
+                Node split = new Node(child.label.substring(0, common), null);
+                child.label = child.label.substring(common);
+                split.building.put(child.label.charAt(0), child);
+                node.building.put(first, split);
+                child = split;
+            }
+            position += common;
+            node = child;
+        }
+        node.value = value;
+    }
+
+    private static final class Node {
+        private String label;
+        private String value;
+        private TreeMap<Character, Node> building = new TreeMap<>();
+        private char[] childKeys;
+        private Node[] children;
+
+        private Node(String label, String value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        private Node getChild(char first) {
+            int index = Arrays.binarySearch(childKeys, first);
+            return index < 0 ? null : children[index];
+        }
+
+        private void freeze() {
+            childKeys = new char[building.size()];
+            children = new Node[building.size()];
+            int index = 0;
+            for (Map.Entry<Character, Node> child : building.entrySet()) {
+                childKeys[index] = child.getKey();
+                children[index] = child.getValue();
+                child.getValue().freeze();
+                index++;
+            }
+            building = null;
+        }
+    }
+}
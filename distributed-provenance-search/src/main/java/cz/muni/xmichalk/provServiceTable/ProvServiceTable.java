@@ -6,24 +6,42 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ProvServiceTable implements IProvServiceTable {
-    private final LinkedHashMap<String, String> table = new LinkedHashMap<>();
     private static final Logger log = LoggerFactory.getLogger(ProvServiceTable.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Path sourceFile;
+    // lookups read whichever table is current, a reload replaces it as a whole
+    private final AtomicReference<Table> table = new AtomicReference<>(new Table(Map.of()));
+
+    public ProvServiceTable() {
+        this(null);
+    }
+
+    public ProvServiceTable(Path sourceFile) {
+        this.sourceFile = sourceFile;
+    }
 
     public String getServiceUri(String resourceUri) {
-        for (Map.Entry<String, String> entry : table.entrySet()) {
-            if (resourceUri.startsWith(entry.getKey())) {
-                return entry.getValue();
-            }
-        }
-        return null;
+        return table.get().trie.findLongestPrefixValue(resourceUri);
+    }
+
+    public Map<String, String> getEntries() {
+        return table.get().entries;
+    }
+
+    public Path getSourceFile() {
+        return sourceFile;
     }
 
     public void loadFromJson(InputStream input) throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
         LinkedHashMap<String, String> loaded = mapper.readValue(
                 input,
                 mapper.getTypeFactory()
@@ -33,8 +51,40 @@ public class ProvServiceTable implements IProvServiceTable {
                                 String.class
                         )
         );
-        table.putAll(loaded);
+        load(loaded);
+    }
 
-        log.info("Loaded prov service table: {}", table);
+    public void reload() throws IOException {
+        if (sourceFile == null) {
+            throw new IllegalStateException("Prov service table has no source file to reload from.");
+        }
+        try (InputStream input = Files.newInputStream(sourceFile)) {
+            loadFromJson(input);
+        }
+    }
+
+    public void load(Map<String, String> entries) {
+        // an empty table would leave every bundle without a service, which is never intended
+        if (entries == null || entries.isEmpty()) {
+            throw new IllegalArgumentException("Prov service table cannot be empty.");
+        }
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("Prov service table entries cannot be null: " + entry);
+            }
+        }
+        table.set(new Table(entries));
+
+        log.info("Loaded prov service table: {}", entries);
+    }
+
+    private static class Table {
+        private final Map<String, String> entries;
+        private final PrefixTrie trie;
+
+        private Table(Map<String, String> entries) {
+            this.entries = Collections.unmodifiableMap(new LinkedHashMap<>(entries));
+            this.trie = new PrefixTrie(this.entries);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package cz.muni.xmichalk.provServiceTable;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+
+@RestController
+public class ProvServiceTableController {
+    private static final Logger log = LoggerFactory.getLogger(ProvServiceTableController.class);
+
+    private final ProvServiceTable provServiceTable;
+    private final String adminAuthHeader;
+
+    public ProvServiceTableController(
+            ProvServiceTable provServiceTable,
+            @Value("${provServiceTable.adminAuthHeader:}") String adminAuthHeader
+    ) {
+        this.provServiceTable = provServiceTable;
+        this.adminAuthHeader = adminAuthHeader;
+    }
+
+    @Operation(summary = "Get prov service table", description = "Returns the prefixes and services of the table in use.")
+    @GetMapping(value = "/api/getProvServiceTable", produces = MediaType.APPLICATION_JSON_VALUE)
+    @SecurityRequirement(name = "auth")
+    public ResponseEntity<?> getProvServiceTable(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return forbidden();
+        }
+        return ResponseEntity.ok(provServiceTable.getEntries());
+    }
+
+    @Operation(
+            summary = "Reload prov service table",
+            description = "Reloads the prov service table from its source file. The previous table stays in use if " +
+                    "the file cannot be read."
+    ) @PostMapping(value = "/api/reloadProvServiceTable", produces = MediaType.APPLICATION_JSON_VALUE)
+    @SecurityRequirement(name = "auth")
+    public ResponseEntity<?> reloadProvServiceTable(HttpServletRequest request) {
+        if (!isAdmin(request)) {
+            return forbidden();
+        }
+        if (provServiceTable.getSourceFile() == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Prov service table has no source file.");
+        }
+
+        try {
+            provServiceTable.reload();
+            return ResponseEntity.ok(provServiceTable.getEntries());
+        } catch (Exception e) {
+            log.error("API reloadProvServiceTable call failed: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    @Operation(
+            summary = "Replace prov service table",
+            description = "Replaces the prov service table with the given prefixes and services until the next reload."
+    ) @PostMapping(
+            value = "/api/setProvServiceTable",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    ) @SecurityRequirement(name = "auth")
+    public ResponseEntity<?> setProvServiceTable(
+            @RequestBody Map<String, String> entries,
+            HttpServletRequest request
+    ) {
+        if (!isAdmin(request)) {
+            return forbidden();
+        }
+
+        try {
+            provServiceTable.load(entries);
+            return ResponseEntity.ok(provServiceTable.getEntries());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    private boolean isAdmin(HttpServletRequest request) {
+        // the table decides where caller credentials are sent, so changing it needs the configured admin header
+        String authorizationHeader = request.getHeader("Authorization");
+        if (adminAuthHeader == null || adminAuthHeader.isBlank() || authorizationHeader == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                adminAuthHeader.getBytes(StandardCharsets.UTF_8),
+                authorizationHeader.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    private static ResponseEntity<?> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Prov service table administration is not allowed.");
+    }
+}
@@ -0,0 +1,78 @@
+package cz.muni.xmichalk.provServiceTable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+public class ProvServiceTableWatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ProvServiceTableWatcher.class);
+
+    private final ProvServiceTable table;
+    private final WatchService watchService;
+
+    public ProvServiceTableWatcher(ProvServiceTable table) throws IOException {
+        this.table = table;
+        Path sourceFile = table.getSourceFile();
+        if (sourceFile == null) {
+            this.watchService = null;
+            log.info("Prov service table has no source file, it is not watched");
+            return;
+        }
+
+        // the directory is watched, so files replaced by a rename are noticed as well
+        Path directory = sourceFile.toAbsolutePath().getParent();
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+        );
+        Thread.ofVirtual().name("prov-service-table-watcher").start(() -> watch(sourceFile.getFileName()));
+        log.info("Watching prov service table file: {}", sourceFile.toAbsolutePath());
+    }
+
+    @Override public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private void watch(Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context());
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    log.warn("Prov service table directory is no longer accessible, stopped watching it");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // closed on shutdown
+        }
+    }
+
+    private void reload() {
+        try {
+            table.reload();
+        } catch (IOException | RuntimeException e) {
+            // a half written or invalid file keeps the previous table in place
+            log.error("Failed to reload prov service table, keeping the previous one: {}", e.getMessage());
+        }
+    }
+}
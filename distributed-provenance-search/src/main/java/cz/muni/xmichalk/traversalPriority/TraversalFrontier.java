@@ -0,0 +1,88 @@
+package cz.muni.xmichalk.traversalPriority;
+
+import cz.muni.xmichalk.models.ItemToTraverse;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+public class TraversalFrontier {
+    private final TreeMap<ItemToTraverse, Bucket> buckets;
+    private final Map<ItemToTraverse, Bucket> inFlight = new IdentityHashMap<>();
+    private int queuedCount = 0;
+
+    public TraversalFrontier(Comparator<ItemToTraverse> traversalPriorityComparator) {
+        this.buckets = new TreeMap<>(traversalPriorityComparator);
+    }
+
+    public synchronized boolean add(ItemToTraverse itemToTraverse) {
+        // items the comparator considers equal share a bucket and are polled in insertion order
+        buckets.computeIfAbsent(itemToTraverse, Bucket::new).queued.add(itemToTraverse);
+        queuedCount++;
+        return hasDispatchable();
+    }
+
+    public synchronized boolean addAll(Collection<ItemToTraverse> itemsToTraverse) {
+        for (ItemToTraverse itemToTraverse : itemsToTraverse) {
+            add(itemToTraverse);
+        }
+        return hasDispatchable();
+    }
+
+    public synchronized ItemToTraverse poll() {
+        // items wait while a higher priority item is traversed, because it might still add higher priority items
+        if (!hasDispatchable()) {
+            return null;
+        }
+
+        Bucket bucket = buckets.firstEntry().getValue();
+        ItemToTraverse itemToTraverse = bucket.queued.poll();
+        queuedCount--;
+        bucket.inFlight++;
+        inFlight.put(itemToTraverse, bucket);
+        return itemToTraverse;
+    }
+
+    public synchronized boolean release(ItemToTraverse itemToTraverse) {
+        Bucket bucket = inFlight.remove(itemToTraverse);
+        if (bucket != null) {
+            bucket.inFlight--;
+            if (bucket.isEmpty()) {
+                buckets.remove(bucket.key);
+            }
+        }
+        return hasDispatchable();
+    }
+
+    public synchronized boolean hasDispatchable() {
+        // the best bucket with any queued or in-flight items decides, empty buckets are never kept
+        Map.Entry<ItemToTraverse, Bucket> first = buckets.firstEntry();
+        return first != null && !first.getValue().queued.isEmpty();
+    }
+
+    public synchronized int size() {
+        return queuedCount;
+    }
+
+    public synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static class Bucket {
+        private final ItemToTraverse key;
+        private final Queue<ItemToTraverse> queued = new ArrayDeque<>();
+        private int inFlight = 0;
+
+        private Bucket(ItemToTraverse key) {
+            this.key = key;
+        }
+
+        private boolean isEmpty() {
+            return queued.isEmpty() && inFlight == 0;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package cz.muni.xmichalk.traverser;
+
+public enum ETraversalExecutionMode {
+    FIXED_THREAD_POOL, VIRTUAL_THREADS
+}
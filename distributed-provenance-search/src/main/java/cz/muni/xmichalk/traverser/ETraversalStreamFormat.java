@@ -0,0 +1,14 @@
+package cz.muni.xmichalk.traverser;
+
+import org.springframework.http.MediaType;
+
+public enum ETraversalStreamFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    SERVER_SENT_EVENTS(MediaType.TEXT_EVENT_STREAM);
+
+    public final MediaType mediaType;
+
+    ETraversalStreamFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+}
@@ -0,0 +1,13 @@
+package cz.muni.xmichalk.traverser;
+
+import cz.muni.xmichalk.models.ResultFromBundle;
+
+public interface ITraversalResultListener {
+    void onResult(ResultFromBundle result);
+
+    void onError(String errorMessage);
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package cz.muni.xmichalk.traverser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.xmichalk.dto.FoundResultDTO;
+import cz.muni.xmichalk.dto.TraversalEventDTO;
+import cz.muni.xmichalk.models.ResultFromBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class TraversalStreamWriter implements ITraversalResultListener {
+    public static final int DEFAULT_MAX_BUFFERED_EVENTS = 100;
+    private static final Logger log = LoggerFactory.getLogger(TraversalStreamWriter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final long ENQUEUE_POLL_MILLIS = 100;
+
+    private final OutputStream outputStream;
+    private final ETraversalStreamFormat format;
+    private final BlockingQueue<TraversalEventDTO> events;
+    private volatile boolean cancelled = false;
+
+    public TraversalStreamWriter(OutputStream outputStream, ETraversalStreamFormat format) {
+        this(outputStream, format, DEFAULT_MAX_BUFFERED_EVENTS);
+    }
+
+    public TraversalStreamWriter(OutputStream outputStream, ETraversalStreamFormat format, int maxBufferedEvents) {
+        this.outputStream = outputStream;
+        this.format = format;
+        this.events = new ArrayBlockingQueue<>(maxBufferedEvents);
+    }
+
+    @Override public void onResult(ResultFromBundle result) {
+        enqueue(new TraversalEventDTO(TraversalEventDTO.RESULT, new FoundResultDTO().from(result), null));
+    }
+
+    @Override public void onError(String errorMessage) {
+        enqueue(new TraversalEventDTO(TraversalEventDTO.ERROR, null, errorMessage));
+    }
+
+    @Override public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void complete() {
+        enqueue(new TraversalEventDTO(TraversalEventDTO.END, null, null));
+    }
+
+    public void cancel() {
+        cancelled = true;
+        events.clear();
+    }
+
+    // runs on the response thread until the end event or until the client goes away
+    public void writeEvents() throws InterruptedException {
+        while (!cancelled) {
+            TraversalEventDTO event = events.take();
+            write(event);
+            if (TraversalEventDTO.END.equals(event.type)) {
+                return;
+            }
+        }
+    }
+
+    // a full queue blocks the hop while it holds one of its traversal's permits, so only this traversal slows down
+    private void enqueue(TraversalEventDTO event) {
+        try {
+            while (!cancelled) {
+                if (events.offer(event, ENQUEUE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(TraversalEventDTO event) {
+        try {
+            byte[] data = objectMapper.writeValueAsBytes(event);
+            if (format == ETraversalStreamFormat.SERVER_SENT_EVENTS) {
+                outputStream.write(("event: " + event.type + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+                outputStream.write(data);
+                outputStream.write(NEWLINE);
+            } else {
+                outputStream.write(data);
+            }
+            outputStream.write(NEWLINE);
+            outputStream.flush();
+        } catch (IOException e) {
+            log.warn("Traversal stream closed by the client: {}", e.getMessage());
+            cancel();
+        }
+    }
+}
@@ -1,28 +1,32 @@
 package cz.muni.xmichalk.traverser;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.muni.xmichalk.dto.BundleQueryResultDTO;
 import cz.muni.xmichalk.dto.ConnectorDTO;
 import cz.muni.xmichalk.integrity.IIntegrityVerifier;
 import cz.muni.xmichalk.models.*;
+import cz.muni.xmichalk.provServiceAPI.HopQueryResults;
 import cz.muni.xmichalk.provServiceAPI.IProvServiceAPI;
 import cz.muni.xmichalk.provServiceTable.IProvServiceTable;
 import cz.muni.xmichalk.traversalPriority.ETraversalPriority;
+import cz.muni.xmichalk.traversalPriority.TraversalFrontier;
 import cz.muni.xmichalk.traversalPriority.UnsupportedTraversalPriorityException;
 import cz.muni.xmichalk.validity.EValidityCheck;
 import cz.muni.xmichalk.validity.IValidityVerifier;
 import cz.muni.xmichalk.validity.UnsupportedValidityCheckException;
+import cz.muni.xmichalk.validity.ValidityQuery;
 import org.openprovenance.prov.model.QualifiedName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
-public class Traverser {
+public class Traverser implements AutoCloseable {
     private final IProvServiceTable provServiceTable;
     private final IProvServiceAPI provServiceAPI;
     private final IIntegrityVerifier integrityVerifier;
@@ -32,6 +36,9 @@ public class Traverser {
     private final int concurrencyDegree;
     private final boolean preferProvServiceFromConnectors;
     private final boolean omitEmptyResults;
+    private final ETraversalExecutionMode executionMode;
+    private final ExecutorService virtualThreadExecutor;
+    private final Semaphore inFlightHops;
 
     public Traverser(
             IProvServiceTable traverserTable,
@@ -42,6 +49,32 @@ public class Traverser {
             boolean omitEmptyResults,
             Map<EValidityCheck, IValidityVerifier> validityCheckers,
             Map<ETraversalPriority, Comparator<ItemToTraverse>> traversalPriorityComparators
+    ) {
+        this(
+                traverserTable,
+                provServiceAPI,
+                integrityVerifier,
+                concurrencyDegree,
+                preferProvServiceFromConnectors,
+                omitEmptyResults,
+                validityCheckers,
+                traversalPriorityComparators,
+                ETraversalExecutionMode.FIXED_THREAD_POOL,
+                0
+        );
+    }
+
+    public Traverser(
+            IProvServiceTable traverserTable,
+            IProvServiceAPI provServiceAPI,
+            IIntegrityVerifier integrityVerifier,
+            int concurrencyDegree,
+            boolean preferProvServiceFromConnectors,
+            boolean omitEmptyResults,
+            Map<EValidityCheck, IValidityVerifier> validityCheckers,
+            Map<ETraversalPriority, Comparator<ItemToTraverse>> traversalPriorityComparators,
+            ETraversalExecutionMode executionMode,
+            int maxInFlightHops
     ) {
         this.provServiceTable = traverserTable;
         this.provServiceAPI = provServiceAPI;
@@ -51,13 +84,26 @@ public class Traverser {
         this.omitEmptyResults = omitEmptyResults;
         this.validityVerifiers = validityCheckers;
         this.traversalPriorityComparators = traversalPriorityComparators;
+        this.executionMode = executionMode;
+        this.virtualThreadExecutor = executionMode == ETraversalExecutionMode.VIRTUAL_THREADS ?
+                Executors.newVirtualThreadPerTaskExecutor() :
+                null;
+        this.inFlightHops = maxInFlightHops > 0 ? new Semaphore(maxInFlightHops) : null;
         log.info(
-                "Instantiated traverser with concurrency degree: {}, preferProvServiceFromConnectors: {}",
+                "Instantiated traverser with concurrency degree: {}, preferProvServiceFromConnectors: {}, execution mode: {}, max in-flight hops: {}",
                 concurrencyDegree,
-                preferProvServiceFromConnectors
+                preferProvServiceFromConnectors,
+                executionMode,
+                maxInFlightHops > 0 ? maxInFlightHops : "unlimited"
         );
     }
 
+    @Override public void close() {
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
     public Map<EValidityCheck, IValidityVerifier> getValidityVerifiers() {
         return validityVerifiers;
     }
@@ -70,6 +116,30 @@ public class Traverser {
             QualifiedName startBundleId,
             QualifiedName startNodeId,
             TraversalParams traversalParams
+    ) {
+        ConcurrentLinkedQueue<ResultFromBundle> results = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+
+        traverseChain(
+                startBundleId, startNodeId, traversalParams, new ITraversalResultListener() {
+                    @Override public void onResult(ResultFromBundle result) {
+                        results.add(result);
+                    }
+
+                    @Override public void onError(String errorMessage) {
+                        errors.add(errorMessage);
+                    }
+                }
+        );
+
+        return new TraversalResults(results.stream().toList(), errors);
+    }
+
+    public void traverseChain(
+            QualifiedName startBundleId,
+            QualifiedName startNodeId,
+            TraversalParams traversalParams,
+            ITraversalResultListener resultListener
     ) {
         Comparator<ItemToTraverse> traversalPriorityComparator =
                 traversalPriorityComparators.get(traversalParams.traversalPriority);
@@ -85,12 +155,11 @@ public class Traverser {
                 ConcurrentHashMap.newKeySet(),
                 new ConcurrentHashMap<>(),
                 new ConcurrentHashMap<>(),
-                new PriorityBlockingQueue<>(10, traversalPriorityComparator),
-                new ConcurrentLinkedQueue<>(),
-                new ConcurrentLinkedQueue<>()
+                new TraversalFrontier(traversalPriorityComparator),
+                resultListener
         );
 
-        traversalState.toTraverseQueue.add(new ItemToTraverse(
+        traversalState.toTraverse.add(new ItemToTraverse(
                 startBundleId,
                 startNodeId,
                 null,
@@ -103,64 +172,161 @@ public class Traverser {
                                         )).toList())
         ));
 
-        ExecutorService executor = Executors.newFixedThreadPool(concurrencyDegree);
-        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
-
-        AtomicInteger runningTasks = new AtomicInteger(0);
-
-        submitTraverseTasks(traversalState, traversalParams, completionService, runningTasks);
+        ExecutorService executor = executionMode == ETraversalExecutionMode.VIRTUAL_THREADS ?
+                virtualThreadExecutor :
+                Executors.newFixedThreadPool(concurrencyDegree);
+        HopScheduler hopScheduler = new HopScheduler(
+                executor,
+                new Semaphore(concurrencyDegree),
+                traversalState,
+                traversalParams
+        );
 
         try {
-            while (runningTasks.get() > 0) {
-                completionService.take(); // wait for a task to finish
-                runningTasks.decrementAndGet();
-
-                submitTraverseTasks(traversalState, traversalParams, completionService, runningTasks);
-            }
+            hopScheduler.run();
         } catch (InterruptedException e) {
             log.warn(e.getMessage());
             Thread.currentThread().interrupt();
         } finally {
-            executor.shutdown();
+            if (executor != virtualThreadExecutor) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    // only the thread running the scheduler polls the frontier and submits hops, hop threads just post events:
+    // a hop that explored its connections lets the loop submit its children early, a finished hop frees its permit
+    private final class HopScheduler {
+        private final ExecutorService executor;
+        private final Semaphore traversalPermits;
+        private final TraversalState traversalState;
+        private final TraversalParams traversalParams;
+        private final BlockingQueue<EHopEvent> hopEvents = new LinkedBlockingQueue<>();
+        private int runningHops = 0;
+
+        HopScheduler(
+                ExecutorService executor,
+                Semaphore traversalPermits,
+                TraversalState traversalState,
+                TraversalParams traversalParams
+        ) {
+            this.executor = executor;
+            this.traversalPermits = traversalPermits;
+            this.traversalState = traversalState;
+            this.traversalParams = traversalParams;
+        }
+
+        void run() throws InterruptedException {
+            submitHops();
+            while (runningHops > 0) {
+                if (hopEvents.take() == EHopEvent.FINISHED) {
+                    runningHops--;
+                }
+                submitHops();
+            }
+        }
+
+        private void submitHops() {
+            while (!traversalState.resultListener.isCancelled() && traversalPermits.tryAcquire()) {
+                ItemToTraverse next = traversalState.toTraverse.poll();
+                if (next == null) {
+                    traversalPermits.release();
+                    return;
+                }
+                if (!tryMarkAsProcessing(next, traversalState, false)) {
+                    traversalState.toTraverse.release(next);
+                    traversalPermits.release();
+                    continue;
+                }
+                runningHops++;
+                executor.execute(() -> {
+                    try {
+                        traverseHop(
+                                next,
+                                traversalState,
+                                traversalParams,
+                                () -> hopEvents.add(EHopEvent.CONNECTIONS_EXPLORED)
+                        );
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        traversalState.toTraverse.release(next);
+                        traversalPermits.release();
+                        hopEvents.add(EHopEvent.FINISHED);
+                    }
+                });
+            }
         }
+    }
 
-        return new TraversalResults(traversalState.results.stream().toList(), traversalState.errors);
+    private enum EHopEvent {
+        CONNECTIONS_EXPLORED, FINISHED
     }
 
-    private void submitTraverseTasks(
+    private void traverseHop(
+            ItemToTraverse itemToTraverse,
             TraversalState traversalState,
             TraversalParams traversalParams,
-            CompletionService<Void> completionService,
-            AtomicInteger runningTasks
-    ) {
-        ItemToTraverse next;
-        while (runningTasks.get() < concurrencyDegree && (next = pollNextToTraverse(traversalState)) != null) {
-            final ItemToTraverse finalNext = next;
-            if (!tryMarkAsProcessing(finalNext, traversalState, false)) {
-                continue;
+            Runnable submitNextTasks
+    ) throws InterruptedException {
+        BufferedHopOutput hopOutput = new BufferedHopOutput();
+        if (inFlightHops != null) {
+            inFlightHops.acquire();
+        }
+        try {
+            Connection referencedConnection = new Connection(itemToTraverse.bundleId, itemToTraverse.connectorId);
+            QualifiedName preferredBundleId = getPreferredVersion(itemToTraverse, traversalParams, hopOutput);
+            itemToTraverse.bundleId = preferredBundleId;
+            if (tryMarkAsProcessing(itemToTraverse, traversalState, true)) {
+                traverseItem(
+                        itemToTraverse, traversalState, traversalParams, hopOutput, () -> {
+                            markFinishedTraversing(
+                                    referencedConnection,
+                                    new Connection(preferredBundleId, itemToTraverse.connectorId),
+                                    traversalState
+                            );
+                            if (traversalState.toTraverse.release(itemToTraverse)) {
+                                submitNextTasks.run();
+                            }
+                        }
+                );
+            } else {
+                // the preferred version is explored by another hop, so this connection is done as well
+                traversalState.traversedReferenced.add(referencedConnection);
+                traversalState.traversingReferenced.remove(referencedConnection, itemToTraverse);
             }
-            runningTasks.incrementAndGet();
-            completionService.submit(() -> {
-                QualifiedName referencedBundleId = finalNext.bundleId;
-                QualifiedName preferredBundleId = getPreferredVersion(finalNext, traversalParams, traversalState);
-                finalNext.bundleId = preferredBundleId;
-                if (tryMarkAsProcessing(finalNext, traversalState, true)) {
-                    traverseItem(finalNext, traversalState, traversalParams);
-                    markFinishedTraversing(
-                            new Connection(referencedBundleId, finalNext.connectorId),
-                            new Connection(preferredBundleId, finalNext.connectorId),
-                            traversalState
-                    );
-                }
-                return null;
-            });
+        } finally {
+            if (inFlightHops != null) {
+                inFlightHops.release();
+            }
+            // emitted without the shared permit, a slow stream consumer only holds back its own traversal
+            hopOutput.emitTo(traversalState.resultListener);
+        }
+    }
+
+    // collects what a hop reports while it holds an in-flight permit
+    private static final class BufferedHopOutput implements ITraversalResultListener {
+        private final List<Consumer<ITraversalResultListener>> events = new ArrayList<>();
+
+        @Override public void onResult(ResultFromBundle result) {
+            events.add(listener -> listener.onResult(result));
+        }
+
+        @Override public void onError(String errorMessage) {
+            events.add(listener -> listener.onError(errorMessage));
+        }
+
+        void emitTo(ITraversalResultListener listener) {
+            events.forEach(event -> event.accept(listener));
         }
     }
 
     private void traverseItem(
             ItemToTraverse itemToTraverse,
             TraversalState traversalState,
-            TraversalParams traversalParams
+            TraversalParams traversalParams,
+            ITraversalResultListener hopOutput,
+            Runnable onConnectionsExplored
     ) {
         log.info(
                 "Started processing bundle {} from connector {}",
@@ -168,81 +334,143 @@ public class Traverser {
                 itemToTraverse.connectorId.getUri()
         );
 
+        boolean connectionsExplored = false;
         try {
-            BundleQueryResultDTO queryResult = provServiceAPI.fetchBundleQueryResult(
-                    itemToTraverse.provServiceUri,
-                    itemToTraverse.bundleId,
-                    itemToTraverse.connectorId,
-                    traversalParams.authorizationHeader,
-                    traversalParams.querySpecification
-            );
+            HopQueryResults hopQueryResults = fetchHopQueryResults(itemToTraverse, traversalParams);
+            CompletableFuture<BundleQueryResultDTO> queryResultFuture = hopQueryResults.queryResult();
+            CompletableFuture<BundleQueryResultDTO> findConnectorsResultFuture = hopQueryResults.connectorsResult();
 
-            BundleQueryResultDTO findConnectorsResult = provServiceAPI.fetchBundleConnectors(
-                    itemToTraverse.provServiceUri,
-                    itemToTraverse.bundleId,
-                    itemToTraverse.connectorId,
-                    traversalParams.authorizationHeader,
-                    traversalParams.traverseBackwards
-            );
+            Executor checkExecutor = getCheckExecutor(hopQueryResults);
 
-            boolean hasIntegrity = hasIntegrity(itemToTraverse.bundleId, queryResult, findConnectorsResult);
+            CompletableFuture<Boolean> queryIntegrityFuture = queryResultFuture.thenApplyAsync(
+                    queryResult -> hasIntegrity(itemToTraverse.bundleId, queryResult), checkExecutor);
 
-            List<Map.Entry<EValidityCheck, Boolean>> validityChecks =
-                    evaluateValidityChecks(traversalParams.validityChecks, itemToTraverse, queryResult);
+            CompletableFuture<Boolean> connectorsIntegrityFuture = findConnectorsResultFuture.thenApplyAsync(
+                    findConnectorsResult -> hasIntegrity(itemToTraverse.bundleId, findConnectorsResult),
+                    checkExecutor
+            );
 
-            ResultFromBundle newResult = convertToNewResult(itemToTraverse, queryResult, hasIntegrity, validityChecks);
-            if (newResult != null) {
-                traversalState.results.add(newResult);
-                log.info(
-                        "In bundle {} found query result: {}",
-                        itemToTraverse.bundleId.getUri(),
-                        newResult.result.toString()
-                );
-            }
+            CompletableFuture<List<Map.Entry<EValidityCheck, Boolean>>> validityChecksFuture =
+                    evaluateValidityChecks(
+                            traversalParams.validityChecks,
+                            itemToTraverse,
+                            queryResultFuture,
+                            hopQueryResults.additionalResults(),
+                            checkExecutor
+                    );
+
+            // children only depend on the connectors, their integrity and the validity checks
+            boolean connectorsIntegrity = connectorsIntegrityFuture.join();
+            List<Map.Entry<EValidityCheck, Boolean>> validityChecks = validityChecksFuture.join();
 
-            List<ItemToTraverse> newItemsToTraverse =
-                    convertToNewItemsToTraverse(itemToTraverse, findConnectorsResult, hasIntegrity, validityChecks);
-            traversalState.toTraverseQueue.addAll(newItemsToTraverse);
+            List<ItemToTraverse> newItemsToTraverse = convertToNewItemsToTraverse(
+                    itemToTraverse,
+                    findConnectorsResultFuture.join(),
+                    connectorsIntegrity,
+                    validityChecks
+            );
+            traversalState.toTraverse.addAll(newItemsToTraverse);
             log.info(
                     "In bundle {} found connections to: {}",
                     itemToTraverse.bundleId.getUri(),
                     newItemsToTraverse.stream().map(item -> item.bundleId.getUri()).collect(Collectors.joining(", "))
             );
+            connectionsExplored = true;
+            onConnectionsExplored.run();
 
+            boolean hasIntegrity = queryIntegrityFuture.join() && connectorsIntegrity;
 
+            ResultFromBundle newResult =
+                    convertToNewResult(itemToTraverse, queryResultFuture.join(), hasIntegrity, validityChecks);
+            if (newResult != null) {
+                hopOutput.onResult(newResult);
+                log.info(
+                        "In bundle {} found query result: {}",
+                        itemToTraverse.bundleId.getUri(),
+                        newResult.result.toString()
+                );
+            }
         } catch (Exception e) {
-            String errorMessage =
-                    "Error while processing bundle: " + itemToTraverse.bundleId.getUri() + ", error: " + e.getMessage();
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            String errorMessage = "Error while processing bundle: " + itemToTraverse.bundleId.getUri() + ", error: " +
+                    cause.getMessage();
             log.error(errorMessage);
-            traversalState.errors.add(errorMessage);
+            hopOutput.onError(errorMessage);
         } finally {
+            if (!connectionsExplored) {
+                onConnectionsExplored.run();
+            }
             log.info("Finished processing bundle: {}", itemToTraverse.bundleId.getUri());
         }
     }
 
-    private ItemToTraverse pollNextToTraverse(TraversalState traversalState) {
-        ItemToTraverse itemToTraverse = traversalState.toTraverseQueue.poll();
-        if (itemToTraverse == null) return null;
+    private Executor getCheckExecutor(HopQueryResults hopQueryResults) {
+        if (virtualThreadExecutor != null) {
+            return virtualThreadExecutor;
+        }
+        // the hop already holds a thread of the fixed pool, so it runs its checks itself once all results arrived
+        List<CompletableFuture<?>> results = new ArrayList<>(hopQueryResults.additionalResults().values());
+        results.add(hopQueryResults.queryResult());
+        results.add(hopQueryResults.connectorsResult());
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).exceptionally(_ -> null).join();
+        return Runnable::run;
+    }
 
-        // wait until all bundles with higher priority are processed, because they might add higher priority items to traverse
-        if (traversalState.traversingReferenced.values().stream()
-                .anyMatch(item -> traversalState.toTraverseQueue.comparator().compare(item, itemToTraverse) < 0)) {
-            traversalState.toTraverseQueue.add(itemToTraverse); // put back, try to traverse later
-            return null;
+    private HopQueryResults fetchHopQueryResults(ItemToTraverse itemToTraverse, TraversalParams traversalParams) {
+        // validity queries under the caller's authorization join the hop request, the others are batched per header
+        Map<String, JsonNode> hopValidityQueries = new LinkedHashMap<>();
+        Map<String, Map<String, JsonNode>> validityQueriesByAuthorization = new HashMap<>();
+        for (EValidityCheck validityCheck : traversalParams.validityChecks) {
+            IValidityVerifier verifier = validityVerifiers.get(validityCheck);
+            ValidityQuery validityQuery = verifier == null ? null : verifier.getValidityQuery();
+            if (validityQuery == null) {
+                continue;
+            }
+            if (Objects.equals(validityQuery.authorizationHeader(), traversalParams.authorizationHeader)) {
+                hopValidityQueries.put(validityCheck.name(), validityQuery.querySpecification());
+            } else {
+                validityQueriesByAuthorization.computeIfAbsent(
+                        validityQuery.authorizationHeader(),
+                        _ -> new LinkedHashMap<>()
+                ).put(validityCheck.name(), validityQuery.querySpecification());
+            }
         }
-        if (traversalState.traversingPreferred.values().stream()
-                .anyMatch(item -> traversalState.toTraverseQueue.comparator().compare(item, itemToTraverse) < 0)) {
-            traversalState.toTraverseQueue.add(itemToTraverse); // put back, try to traverse later
-            return null;
+
+        HopQueryResults hopQueryResults = provServiceAPI.fetchHopQueryResultsAsync(
+                itemToTraverse.provServiceUri,
+                itemToTraverse.bundleId,
+                itemToTraverse.connectorId,
+                traversalParams.authorizationHeader,
+                traversalParams.querySpecification,
+                traversalParams.traverseBackwards,
+                hopValidityQueries
+        );
+        if (validityQueriesByAuthorization.isEmpty()) {
+            return hopQueryResults;
         }
 
-        return itemToTraverse;
+        Map<String, CompletableFuture<BundleQueryResultDTO>> validityResults =
+                new HashMap<>(hopQueryResults.additionalResults());
+        validityQueriesByAuthorization.forEach((authorizationHeader, validityQueries) -> validityResults.putAll(
+                provServiceAPI.fetchBundleQueryResultsAsync(
+                        itemToTraverse.provServiceUri,
+                        itemToTraverse.bundleId,
+                        itemToTraverse.connectorId,
+                        authorizationHeader,
+                        validityQueries
+                )
+        ));
+        return new HopQueryResults(
+                hopQueryResults.queryResult(),
+                hopQueryResults.connectorsResult(),
+                validityResults
+        );
     }
 
     private QualifiedName getPreferredVersion(
             ItemToTraverse itemToTraverse,
             TraversalParams traversalParams,
-            TraversalState traversalState
+            ITraversalResultListener hopOutput
     ) {
         try {
             log.info(
@@ -270,7 +498,7 @@ public class Traverser {
         } catch (Exception e) {
             String errorMessage =
                     "Error while fetching preferred version for bundle " + itemToTraverse.bundleId.getUri() + ": " + e;
-            traversalState.errors.add(errorMessage);
+            hopOutput.onError(errorMessage);
             log.error(errorMessage);
         }
 
@@ -313,36 +541,44 @@ public class Traverser {
         traversalState.traversingPreferred.remove(preferredConnection);
     }
 
-    private boolean hasIntegrity(
-            QualifiedName bundleId,
-            BundleQueryResultDTO queryResult,
-            BundleQueryResultDTO findConnectorsResult
-    ) {
-        if (queryResult == null || findConnectorsResult == null) {
+    private boolean hasIntegrity(QualifiedName bundleId, BundleQueryResultDTO bundleQueryResult) {
+        if (bundleQueryResult == null) {
             return false;
         }
-        return integrityVerifier.verifyIntegrity(bundleId, queryResult.token) &&
-                integrityVerifier.verifyIntegrity(bundleId, findConnectorsResult.token);
+        return integrityVerifier.verifyIntegrity(bundleId, bundleQueryResult.token);
     }
 
-    private List<Map.Entry<EValidityCheck, Boolean>> evaluateValidityChecks(
+    private CompletableFuture<List<Map.Entry<EValidityCheck, Boolean>>> evaluateValidityChecks(
             List<EValidityCheck> validityChecks,
             ItemToTraverse itemTraversed,
-            BundleQueryResultDTO queryResult
+            CompletableFuture<BundleQueryResultDTO> queryResultFuture,
+            Map<String, CompletableFuture<BundleQueryResultDTO>> validityQueryResultFutures,
+            Executor checkExecutor
     ) {
-        List<Map.Entry<EValidityCheck, Boolean>> validityCheckValues = new ArrayList<>();
+        List<CompletableFuture<Map.Entry<EValidityCheck, Boolean>>> validityCheckFutures = new ArrayList<>();
         for (EValidityCheck validityCheck : validityChecks) {
             IValidityVerifier verifier = validityVerifiers.get(validityCheck);
             if (verifier != null) {
-                boolean result = verifier.verify(itemTraversed, queryResult);
-                validityCheckValues.add(new AbstractMap.SimpleImmutableEntry<>(validityCheck, result));
+                CompletableFuture<BundleQueryResultDTO> validityQueryResultFuture =
+                        validityQueryResultFutures.get(validityCheck.name());
+                CompletableFuture<Boolean> verified = validityQueryResultFuture != null ?
+                        validityQueryResultFuture.thenApplyAsync(
+                                result -> verifier.getValidityQuery().resultVerifier().test(itemTraversed, result),
+                                checkExecutor
+                        ) :
+                        verifier.verifyAsync(itemTraversed, queryResultFuture, checkExecutor);
+                validityCheckFutures.add(verified.thenApply(result -> new AbstractMap.SimpleImmutableEntry<>(
+                        validityCheck,
+                        result
+                )));
             } else {
                 String errorMessage = "No validity checker registered for: " + validityCheck;
                 log.error(errorMessage);
                 throw new UnsupportedValidityCheckException(errorMessage);
             }
         }
-        return validityCheckValues;
+        return CompletableFuture.allOf(validityCheckFutures.toArray(CompletableFuture[]::new))
+                .thenApply(_ -> validityCheckFutures.stream().map(CompletableFuture::join).toList());
     }
 
     private ResultFromBundle convertToNewResult(
@@ -1,12 +1,16 @@
 package cz.muni.xmichalk.traverser;
 
+import cz.muni.xmichalk.cache.BundleQueryResultCache;
+import cz.muni.xmichalk.cache.PreferredVersionCache;
 import cz.muni.xmichalk.integrity.IIntegrityVerifier;
 import cz.muni.xmichalk.integrity.StorageDocumentIntegrityVerifier;
 import cz.muni.xmichalk.models.ItemToTraverse;
+import cz.muni.xmichalk.provServiceAPI.AsyncProvServiceAPI;
+import cz.muni.xmichalk.provServiceAPI.CachingProvServiceAPI;
 import cz.muni.xmichalk.provServiceAPI.IProvServiceAPI;
-import cz.muni.xmichalk.provServiceAPI.ProvServiceAPI;
 import cz.muni.xmichalk.provServiceTable.IProvServiceTable;
 import cz.muni.xmichalk.provServiceTable.ProvServiceTable;
+import cz.muni.xmichalk.provServiceTable.ProvServiceTableWatcher;
 import cz.muni.xmichalk.traversalPriority.ETraversalPriority;
 import cz.muni.xmichalk.traversalPriority.IntegrityThenOrderedValidity;
 import cz.muni.xmichalk.validity.DemoValidityVerifier;
@@ -24,6 +28,8 @@ import org.springframework.core.io.ClassPathResource;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Comparator;
 import java.util.Map;
 
@@ -42,32 +48,121 @@ public class TraverserConfig {
     @Value("${traverser.concurrencyDegree:10}")
     private int traverserConcurrencyDegree;
 
+    @Value("${traverser.executionMode:FIXED_THREAD_POOL}")
+    private ETraversalExecutionMode executionMode;
+
+    @Value("${traverser.maxInFlightHops:0}")
+    private int maxInFlightHops;
+
     @Value("${traverser.preferProvServiceFromConnectors:false}")
     private boolean preferProvServiceFromConnectors;
 
     @Value("${traverser.omitEmptyResults:false}")
     private boolean omitEmptyResults;
 
+    @Value("${provServiceAPI.connectTimeoutMillis:5000}")
+    private long provServiceConnectTimeoutMillis;
+
+    @Value("${provServiceAPI.requestTimeoutMillis:60000}")
+    private long provServiceRequestTimeoutMillis;
+
+    @Value("${provServiceAPI.defaultMaxConnectionsPerHost:20}")
+    private int provServiceDefaultMaxConnectionsPerHost;
+
+    @Value("#{${provServiceAPI.maxConnectionsPerHost:{:}}}")
+    private Map<String, Integer> provServiceMaxConnectionsPerHost;
+
+    @Value("${bundleQueryCache.maximumSize:10000}")
+    private long bundleQueryCacheMaximumSize;
+
+    @Value("${bundleQueryCache.maximumQueryShapes:1000}")
+    private long bundleQueryCacheMaximumQueryShapes;
+
+    @Value("${preferredVersionCache.maximumSize:10000}")
+    private long preferredVersionCacheMaximumSize;
+
+    @Value("${preferredVersionCache.ttlSeconds:30}")
+    private long preferredVersionCacheTtlSeconds;
+
+    @Value("${integrityVerifier.tokenCacheTtlSeconds:300}")
+    private long tokenCacheTtlSeconds;
+
+    @Value("${integrityVerifier.tokenMissRefreshIntervalMillis:1000}")
+    private long tokenMissRefreshIntervalMillis;
+
+    @Value("${integrityVerifier.maxCachedPublicKeys:64}")
+    private long maxCachedPublicKeys;
+
+    @Value("${integrityVerifier.maxVerifiedTokens:10000}")
+    private long maxVerifiedTokens;
+
+    @Value("${integrityVerifier.maxCachedOrganizations:1000}")
+    private long maxCachedOrganizations;
+
     @Value("${demoValidityVerifier.authHeader}")
     private String authHeader;
 
-    @Bean public IProvServiceTable provServiceTable() {
-        ProvServiceTable table = new ProvServiceTable();
+    @Value("${provServiceTable.file:}")
+    private String provServiceTableFile;
+
+    @Bean public ProvServiceTable provServiceTable() {
         try {
-            ClassPathResource resource = new ClassPathResource("provServiceTable.json");
-            table.loadFromJson(resource.getInputStream());
+            if (provServiceTableFile == null || provServiceTableFile.isBlank()) {
+                ProvServiceTable table = new ProvServiceTable();
+                ClassPathResource resource = new ClassPathResource("provServiceTable.json");
+                table.loadFromJson(resource.getInputStream());
+                return table;
+            }
+            ProvServiceTable table = new ProvServiceTable(Path.of(provServiceTableFile));
+            table.reload();
+            return table;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load traverser table", e);
         }
-        return table;
     }
 
-    @Bean public IProvServiceAPI provServiceAPI() {
-        return new ProvServiceAPI();
+    @Bean(destroyMethod = "close")
+    public ProvServiceTableWatcher provServiceTableWatcher(ProvServiceTable provServiceTable) {
+        try {
+            return new ProvServiceTableWatcher(provServiceTable);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to watch traverser table", e);
+        }
+    }
+
+    @Bean public BundleQueryResultCache bundleQueryResultCache() {
+        return new BundleQueryResultCache(bundleQueryCacheMaximumSize, bundleQueryCacheMaximumQueryShapes);
+    }
+
+    @Bean public PreferredVersionCache preferredVersionCache() {
+        return new PreferredVersionCache(
+                preferredVersionCacheMaximumSize,
+                Duration.ofSeconds(preferredVersionCacheTtlSeconds)
+        );
+    }
+
+    @Bean public IProvServiceAPI provServiceAPI(
+            BundleQueryResultCache bundleQueryResultCache,
+            PreferredVersionCache preferredVersionCache
+    ) {
+        return new CachingProvServiceAPI(
+                new AsyncProvServiceAPI(
+                        Duration.ofMillis(provServiceConnectTimeoutMillis),
+                        Duration.ofMillis(provServiceRequestTimeoutMillis),
+                        provServiceDefaultMaxConnectionsPerHost,
+                        provServiceMaxConnectionsPerHost
+                ), bundleQueryResultCache, preferredVersionCache
+        );
     }
 
     @Bean public IIntegrityVerifier integrityVerifier() {
-        return new StorageDocumentIntegrityVerifier();
+        return new StorageDocumentIntegrityVerifier(
+                Duration.ofSeconds(tokenCacheTtlSeconds),
+                Duration.ofMillis(tokenMissRefreshIntervalMillis),
+                maxCachedPublicKeys,
+                maxVerifiedTokens,
+                maxCachedOrganizations
+        );
     }
 
     @Bean public Map<EValidityCheck, IValidityVerifier> validityVerifiers(IProvServiceAPI provServiceAPI)
@@ -108,7 +203,9 @@ public class TraverserConfig {
                 preferProvServiceFromConnectors,
                 omitEmptyResults,
                 validityVerifiers,
-                traversalPriorityComparators
+                traversalPriorityComparators,
+                executionMode,
+                maxInFlightHops
         );
     }
 }
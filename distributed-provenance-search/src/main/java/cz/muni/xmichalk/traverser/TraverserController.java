@@ -24,6 +24,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -262,6 +263,32 @@ public class TraverserController {
         return traverseChain(traversalParams, false, authorizationHeader);
     }
 
+    @Operation(
+            summary = "Traverses given bundle and its predecessors, streaming results as they are found.",
+            description = "Emits one event per found result or error, as NDJSON or as server-sent events when the Accept header asks for text/event-stream. The last event has type end."
+    ) @PostMapping(
+            value = "/api/traversePredecessors/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE}
+    ) @SecurityRequirement(name = "auth") public ResponseEntity<?> streamTraversePredecessors(
+            @RequestBody TraversalParamsDTO traversalParams,
+            HttpServletRequest request
+    ) {
+        return streamTraverseChain(traversalParams, true, request);
+    }
+
+    @Operation(
+            summary = "Traverses given bundle and its successors, streaming results as they are found.",
+            description = "Emits one event per found result or error, as NDJSON or as server-sent events when the Accept header asks for text/event-stream. The last event has type end."
+    ) @PostMapping(
+            value = "/api/traverseSuccessors/stream",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE}
+    ) @SecurityRequirement(name = "auth") public ResponseEntity<?> streamTraverseSuccessors(
+            @RequestBody TraversalParamsDTO traversalParams,
+            HttpServletRequest request
+    ) {
+        return streamTraverseChain(traversalParams, false, request);
+    }
+
     private ResponseEntity<?> traverseChain(
             TraversalParamsDTO traversalParams,
             boolean traverseBackwards,
@@ -283,16 +310,9 @@ public class TraverserController {
             QualifiedName connectorId = traversalParams.startNodeId.toQN();
 
             TraversalResults results = traverser.traverseChain(
-                    bundleId, connectorId, new TraversalParams(
-                            traverseBackwards,
-                            authorizationHeader,
-                            traversalParams.versionPreference,
-                            traversalParams.traversalPriority != null ?
-                                    traversalParams.traversalPriority :
-                                    ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
-                            traversalParams.validityChecks != null ? traversalParams.validityChecks : new ArrayList<>(),
-                            traversalParams.querySpecification
-                    )
+                    bundleId,
+                    connectorId,
+                    toTraversalParams(traversalParams, traverseBackwards, authorizationHeader)
             );
 
             TraversalResultsDTO resultsDTO =
@@ -309,6 +329,75 @@ public class TraverserController {
         }
     }
 
+    private ResponseEntity<?> streamTraverseChain(
+            TraversalParamsDTO traversalParams,
+            boolean traverseBackwards,
+            HttpServletRequest request
+    ) {
+        List<String> missingParams = getMissingParams(traversalParams);
+        if (!missingParams.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getMissingParamsMessage(missingParams));
+        }
+
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader == null || authorizationHeader.isBlank()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Missing Authorization header");
+        }
+
+        ETraversalStreamFormat format = getStreamFormat(request.getHeader("Accept"));
+        QualifiedName bundleId = traversalParams.bundleId.toQN();
+        QualifiedName connectorId = traversalParams.startNodeId.toQN();
+        TraversalParams params = toTraversalParams(traversalParams, traverseBackwards, authorizationHeader);
+
+        StreamingResponseBody body = outputStream -> {
+            TraversalStreamWriter writer = new TraversalStreamWriter(outputStream, format);
+            // the traversal runs on its own thread, the response thread only writes the events its hops queue
+            Thread.ofVirtual().name("traversal-stream").start(() -> {
+                try {
+                    traverser.traverseChain(bundleId, connectorId, params, writer);
+                } catch (Exception e) {
+                    log.error("API streamed traverseChain call failed: {}", e.getMessage(), e);
+                    writer.onError(e.getMessage());
+                } finally {
+                    writer.complete();
+                }
+            });
+            try {
+                writer.writeEvents();
+            } catch (InterruptedException e) {
+                writer.cancel();
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(format.mediaType).body(body);
+    }
+
+    private static ETraversalStreamFormat getStreamFormat(String acceptHeader) {
+        if (acceptHeader != null && acceptHeader.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return ETraversalStreamFormat.SERVER_SENT_EVENTS;
+        }
+        return ETraversalStreamFormat.NDJSON;
+    }
+
+    private static TraversalParams toTraversalParams(
+            TraversalParamsDTO traversalParams,
+            boolean traverseBackwards,
+            String authorizationHeader
+    ) {
+        return new TraversalParams(
+                traverseBackwards,
+                authorizationHeader,
+                traversalParams.versionPreference,
+                traversalParams.traversalPriority != null ?
+                        traversalParams.traversalPriority :
+                        ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
+                traversalParams.validityChecks != null ? traversalParams.validityChecks : new ArrayList<>(),
+                traversalParams.querySpecification
+        );
+    }
+
     private static String getMissingParamsMessage(List<String> missingParams) {
         StringBuilder builder = new StringBuilder("Missing required fields in the request body: ");
         for (int i = 0; i < missingParams.size(); i++) {
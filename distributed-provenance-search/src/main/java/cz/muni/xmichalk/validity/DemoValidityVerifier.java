@@ -8,11 +8,15 @@ import cz.muni.xmichalk.provServiceAPI.IProvServiceAPI;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class DemoValidityVerifier implements IValidityVerifier {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
     private final IProvServiceAPI provServiceAPI;
     private final JsonNode validitySpecification;
     private final String authorizationHeader;
+    private final ValidityQuery validityQuery;
 
     public DemoValidityVerifier(
             IProvServiceAPI provServiceAPI,
@@ -22,32 +26,50 @@ public class DemoValidityVerifier implements IValidityVerifier {
         this.provServiceAPI = provServiceAPI;
         this.authorizationHeader = authorizationHeader;
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
             validitySpecification = objectMapper.readTree(validitySpecificationJson);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-
+        validityQuery = new ValidityQuery(validitySpecification, authorizationHeader, this::toValidity);
     }
 
+    @Override public ValidityQuery getValidityQuery() {
+        return validityQuery;
+    }
 
     @Override public boolean verify(ItemToTraverse itemToTraverse, BundleQueryResultDTO queryResult) {
-        String provServiceUri = itemToTraverse.provServiceUri;
-
         BundleQueryResultDTO result = provServiceAPI.fetchBundleQueryResult(
-                provServiceUri,
+                itemToTraverse.provServiceUri,
                 itemToTraverse.bundleId,
                 itemToTraverse.connectorId,
                 authorizationHeader,
                 validitySpecification
         );
 
+        return toValidity(itemToTraverse, result);
+    }
+
+    @Override public CompletableFuture<Boolean> verifyAsync(
+            ItemToTraverse itemToTraverse,
+            CompletableFuture<BundleQueryResultDTO> queryResult,
+            Executor executor
+    ) {
+        // the validity specification is evaluated on its own, so there is no need to wait for the query result
+        return provServiceAPI.fetchBundleQueryResultAsync(
+                itemToTraverse.provServiceUri,
+                itemToTraverse.bundleId,
+                itemToTraverse.connectorId,
+                authorizationHeader,
+                validitySpecification
+        ).thenApply(result -> toValidity(itemToTraverse, result));
+    }
+
+    private boolean toValidity(ItemToTraverse itemToTraverse, BundleQueryResultDTO result) {
         if (result == null) {
             throw new RuntimeException(
                     "Fetch TEST_FITS result for bundle: " + itemToTraverse.bundleId.getUri() + " returned null.");
         }
 
-        ObjectMapper objectMapper = new ObjectMapper();
         return objectMapper.convertValue(result.result, Boolean.class);
     }
 }
@@ -3,6 +3,22 @@ package cz.muni.xmichalk.validity;
 import cz.muni.xmichalk.dto.BundleQueryResultDTO;
 import cz.muni.xmichalk.models.ItemToTraverse;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 public interface IValidityVerifier {
     boolean verify(ItemToTraverse itemToTraverse, BundleQueryResultDTO bundleSearchResult);
+
+    default CompletableFuture<Boolean> verifyAsync(
+            ItemToTraverse itemToTraverse,
+            CompletableFuture<BundleQueryResultDTO> bundleSearchResult,
+            Executor executor
+    ) {
+        return bundleSearchResult.thenApplyAsync(result -> verify(itemToTraverse, result), executor);
+    }
+
+    // verifiers answered by a bundle query of their own return it, so it can be sent together with the hop queries
+    default ValidityQuery getValidityQuery() {
+        return null;
+    }
 }
@@ -0,0 +1,15 @@
+package cz.muni.xmichalk.validity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+import cz.muni.xmichalk.models.ItemToTraverse;
+
+import java.util.function.BiPredicate;
+
+// the query is sent together with the hop queries, its result is then checked by the result verifier
+public record ValidityQuery(
+        JsonNode querySpecification,
+        String authorizationHeader,
+        BiPredicate<ItemToTraverse, BundleQueryResultDTO> resultVerifier
+) {
+}
@@ -0,0 +1,209 @@
+package cz.muni.xmichalk.integrity;
+
+import cz.muni.xmichalk.dto.token.AdditionalData;
+import cz.muni.xmichalk.dto.token.Token;
+import cz.muni.xmichalk.dto.token.TokenData;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TrustedPartyTokenRegistryTest {
+    private static final String TRUSTED_PARTY_URI = "trusted-party:8020";
+    private static final String ORGANIZATION_ID = "ORG1";
+
+    private static Token getToken(String digest) {
+        return new Token(
+                new TokenData(
+                        ORGANIZATION_ID,
+                        "TP",
+                        1L,
+                        1L,
+                        digest,
+                        new AdditionalData("bundle", "SHA256", TRUSTED_PARTY_URI, "cert")
+                ), "signature_" + digest
+        );
+    }
+
+    @Test public void test_cachedWithinTtl() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    return List.of(getToken("a"), getToken("b"));
+                }, Duration.ofMinutes(5), Duration.ofMinutes(5), 100
+        );
+
+        for (int i = 0; i < 10; i++) {
+            assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+            assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("b"));
+        }
+
+        assert fetchCount.get() == 1;
+    }
+
+    @Test public void test_missTriggersSingleRefresh() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        List<Token> issuedTokens = new CopyOnWriteArrayList<>(List.of(getToken("a")));
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    return new ArrayList<>(issuedTokens);
+                }, Duration.ofMinutes(5), Duration.ZERO, 100
+        );
+
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+        assert fetchCount.get() == 1;
+
+        issuedTokens.add(getToken("b"));
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("b"));
+        assert fetchCount.get() == 2;
+
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("b"));
+        assert fetchCount.get() == 2;
+    }
+
+    @Test public void test_missRefreshIsRateLimited() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    return List.of(getToken("a"));
+                }, Duration.ofMinutes(5), Duration.ofMinutes(5), 100
+        );
+
+        for (int i = 0; i < 10; i++) {
+            assert !registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("unknown"));
+        }
+
+        assert fetchCount.get() == 1;
+    }
+
+    @Test public void test_tamperedTokenNotFound() {
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> List.of(getToken("a")), Duration.ofMinutes(5), Duration.ZERO, 100);
+
+        Token tampered = new Token(getToken("a").data(), "other_signature");
+
+        assert !registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, tampered);
+    }
+
+    @Test public void test_concurrentLookupsCoalesced() throws Exception {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    fetchStarted.countDown();
+                    try {
+                        releaseFetch.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return List.of(getToken("a"));
+                }, Duration.ofMinutes(5), Duration.ofMinutes(5), 100
+        );
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<Boolean>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(executor.submit(() -> registry.containsToken(
+                        TRUSTED_PARTY_URI,
+                        ORGANIZATION_ID,
+                        getToken("a")
+                )));
+            }
+            fetchStarted.await();
+            Thread.sleep(100);
+            releaseFetch.countDown();
+
+            for (Future<Boolean> lookup : lookups) {
+                assert lookup.get();
+            }
+        }
+
+        assert fetchCount.get() == 1;
+    }
+
+    @Test public void test_expiredEntriesRefetched() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    return List.of(getToken("a"));
+                }, Duration.ZERO, Duration.ofMinutes(5), 100
+        );
+
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+
+        assert fetchCount.get() == 2;
+    }
+
+    @Test public void test_failedFetchNotRepeatedWithinMissRefreshInterval() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    throw new IllegalStateException("trusted party unavailable");
+                }, Duration.ofMinutes(5), Duration.ofMinutes(5), 100
+        );
+
+        for (int i = 0; i < 5; i++) {
+            try {
+                registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+                assert false;
+            } catch (IllegalStateException e) {
+                assert e.getMessage().equals("trusted party unavailable");
+            }
+        }
+
+        assert fetchCount.get() == 1;
+    }
+
+    @Test public void test_emptyResponseNotRepeatedWithinMissRefreshInterval() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    fetchCount.incrementAndGet();
+                    return null;
+                }, Duration.ofMinutes(5), Duration.ofMinutes(5), 100
+        );
+
+        for (int i = 0; i < 5; i++) {
+            assert !registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+        }
+
+        assert fetchCount.get() == 1;
+    }
+
+    @Test public void test_failedFetchRetriedAfterMissRefreshInterval() {
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        TrustedPartyTokenRegistry registry = new TrustedPartyTokenRegistry(
+                (_, _) -> {
+                    if (fetchCount.incrementAndGet() == 1) {
+                        throw new IllegalStateException("trusted party unavailable");
+                    }
+                    return List.of(getToken("a"));
+                }, Duration.ofMinutes(5), Duration.ZERO, 100
+        );
+
+        try {
+            registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+            assert false;
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assert registry.containsToken(TRUSTED_PARTY_URI, ORGANIZATION_ID, getToken("a"));
+        assert fetchCount.get() == 2;
+    }
+}
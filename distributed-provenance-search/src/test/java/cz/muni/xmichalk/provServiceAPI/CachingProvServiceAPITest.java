@@ -0,0 +1,319 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.xmichalk.cache.BundleQueryResultCache;
+import cz.muni.xmichalk.dto.BundleQueryResultDTO;
+import cz.muni.xmichalk.cache.PreferredVersionCache;
+import cz.muni.xmichalk.dto.CacheStatsDTO;
+import cz.muni.xmichalk.dto.token.Token;
+import org.junit.jupiter.api.Test;
+import org.openprovenance.prov.model.QualifiedName;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachingProvServiceAPITest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final String SERVICE_URI = "http://prov-access-service:8000/api/v1/";
+    private static final String AUTH_HEADER = "Bearer token";
+    private static final QualifiedName bundleA =
+            new org.openprovenance.prov.vanilla.QualifiedName("http://example.org/", "bundleA", "example");
+    private static final QualifiedName bundleA_new =
+            new org.openprovenance.prov.vanilla.QualifiedName("http://example.org/", "bundleA_new", "example");
+    private static final QualifiedName metaA =
+            new org.openprovenance.prov.vanilla.QualifiedName("http://example.org/", "metaA", "example");
+    private static final QualifiedName connA =
+            new org.openprovenance.prov.vanilla.QualifiedName("http://example.org/", "connA", "example");
+
+    private static class CountingProvServiceAPI implements IProvServiceAPI {
+        final AtomicInteger queryCount = new AtomicInteger(0);
+        final AtomicInteger connectorsCount = new AtomicInteger(0);
+        final AtomicInteger preferredVersionCount = new AtomicInteger(0);
+        boolean fail = false;
+        boolean returnNull = false;
+
+        @Override public BundleQueryResultDTO fetchBundleQueryResult(
+                String serviceUri,
+                QualifiedName bundleId,
+                QualifiedName connectorId,
+                String authorizationHeader,
+                JsonNode querySpecification
+        ) {
+            queryCount.incrementAndGet();
+            if (fail) {
+                throw new RuntimeException("failed");
+            }
+            if (returnNull) {
+                return null;
+            }
+            return new BundleQueryResultDTO(new Token(null, "signature"), objectMapper.valueToTree("result"));
+        }
+
+        @Override public QualifiedName fetchPreferredBundleVersion(
+                String serviceUri,
+                QualifiedName bundleId,
+                QualifiedName connectorId,
+                String authorizationHeader,
+                String versionPreference
+        ) {
+            preferredVersionCount.incrementAndGet();
+            return versionPreference.equals("LATEST") ? bundleA_new : bundleId;
+        }
+
+        @Override public BundleQueryResultDTO fetchBundleConnectors(
+                String serviceUri,
+                QualifiedName bundleId,
+                QualifiedName connectorId,
+                String authorizationHeader,
+                boolean backward
+        ) {
+            connectorsCount.incrementAndGet();
+            return new BundleQueryResultDTO(new Token(null, "signature"), objectMapper.createArrayNode());
+        }
+    }
+
+    private static CachingProvServiceAPI getCachingApi(IProvServiceAPI delegate, BundleQueryResultCache cache) {
+        return new CachingProvServiceAPI(delegate, cache, new PreferredVersionCache(100, Duration.ofMinutes(1)));
+    }
+
+    private static JsonNode getQuery(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+
+    @Test public void test_repeatedQueryServedFromCache() throws Exception {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        BundleQueryResultCache cache = new BundleQueryResultCache(100, 10);
+        CachingProvServiceAPI api = getCachingApi(delegate, cache);
+        JsonNode query = getQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+
+        BundleQueryResultDTO first = api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query);
+        BundleQueryResultDTO second = api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query);
+
+        assert delegate.queryCount.get() == 1;
+        assert second.token.signature().equals(first.token.signature());
+        assert second.result.equals(first.result);
+
+        CacheStatsDTO stats = cache.getCacheStats();
+        assert stats.hitCount == 1;
+        assert stats.missCount == 1;
+    }
+
+    @Test public void test_equivalentQueriesShareEntry() throws Exception {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+
+        api.fetchBundleQueryResult(
+                SERVICE_URI, bundleA, connA, AUTH_HEADER,
+                getQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}")
+        );
+        api.fetchBundleQueryResult(
+                SERVICE_URI, bundleA, connA, AUTH_HEADER,
+                getQuery("{\"fromSubgraphs\": {\"type\": \"WholeGraph\"}, \"type\": \"GetNodeIds\"}")
+        );
+
+        assert delegate.queryCount.get() == 1;
+    }
+
+    @Test public void test_differentKeysNotShared() throws Exception {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+        JsonNode query = getQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+        JsonNode otherQuery = getQuery("{\"type\": \"GetNodes\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+
+        api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query);
+        api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, "Bearer other_token", query);
+        api.fetchBundleQueryResult(SERVICE_URI, bundleA, null, AUTH_HEADER, query);
+        api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, otherQuery);
+
+        assert delegate.queryCount.get() == 4;
+    }
+
+    @Test public void test_failuresAndNullResultsNotCached() throws Exception {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+        JsonNode query = getQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+
+        delegate.fail = true;
+        try {
+            api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query);
+            assert false;
+        } catch (RuntimeException e) {
+            assert e.getMessage().equals("failed");
+        }
+
+        delegate.fail = false;
+        delegate.returnNull = true;
+        assert api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query) == null;
+
+        delegate.returnNull = false;
+        assert api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query) != null;
+        assert api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query) != null;
+
+        assert delegate.queryCount.get() == 3;
+    }
+
+    @Test public void test_connectorsCachedPerDirection() {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+
+        CompletableFuture<BundleQueryResultDTO> backward =
+                api.fetchBundleConnectorsAsync(SERVICE_URI, bundleA, connA, AUTH_HEADER, true);
+        CompletableFuture<BundleQueryResultDTO> backwardAgain =
+                api.fetchBundleConnectorsAsync(SERVICE_URI, bundleA, connA, AUTH_HEADER, true);
+        CompletableFuture<BundleQueryResultDTO> forward =
+                api.fetchBundleConnectorsAsync(SERVICE_URI, bundleA, connA, AUTH_HEADER, false);
+
+        assert backward.join() != null && backwardAgain.join() != null && forward.join() != null;
+        assert delegate.connectorsCount.get() == 2;
+    }
+
+    @Test public void test_latestVersionResolvedOncePerMetaBundle() {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+
+        assert api.fetchPreferredBundleVersion(SERVICE_URI, bundleA, metaA, AUTH_HEADER, "LATEST").equals(bundleA_new);
+        assert api.fetchPreferredBundleVersion(SERVICE_URI, bundleA_new, metaA, AUTH_HEADER, "LATEST")
+                .equals(bundleA_new);
+
+        assert delegate.preferredVersionCount.get() == 1;
+    }
+
+    @Test public void test_specifiedVersionResolvedPerBundle() {
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI();
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+
+        assert api.fetchPreferredBundleVersion(SERVICE_URI, bundleA, metaA, AUTH_HEADER, "SPECIFIED").equals(bundleA);
+        assert api.fetchPreferredBundleVersion(SERVICE_URI, bundleA_new, metaA, AUTH_HEADER, "SPECIFIED")
+                .equals(bundleA_new);
+        assert api.fetchPreferredBundleVersion(SERVICE_URI, bundleA, metaA, AUTH_HEADER, "SPECIFIED").equals(bundleA);
+
+        assert delegate.preferredVersionCount.get() == 2;
+    }
+
+    @Test public void test_concurrentPreferredVersionLookupsCoalesced() {
+        CompletableFuture<QualifiedName> pending = new CompletableFuture<>();
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI() {
+            @Override public CompletableFuture<QualifiedName> fetchPreferredBundleVersionAsync(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName metaId,
+                    String authorizationHeader,
+                    String versionPreference
+            ) {
+                fetchCount.incrementAndGet();
+                return pending;
+            }
+        };
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+
+        CompletableFuture<QualifiedName> first =
+                api.fetchPreferredBundleVersionAsync(SERVICE_URI, bundleA, metaA, AUTH_HEADER, "LATEST");
+        CompletableFuture<QualifiedName> second =
+                api.fetchPreferredBundleVersionAsync(SERVICE_URI, bundleA_new, metaA, AUTH_HEADER, "LATEST");
+        pending.complete(bundleA_new);
+
+        assert first.join().equals(bundleA_new);
+        assert second.join().equals(bundleA_new);
+        assert fetchCount.get() == 1;
+    }
+
+    @Test public void test_concurrentHopFetchesCoalesced() throws Exception {
+        CompletableFuture<Map<String, CompletableFuture<BundleQueryResultDTO>>> pending = new CompletableFuture<>();
+        AtomicInteger batchCount = new AtomicInteger(0);
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI() {
+            @Override public Map<String, CompletableFuture<BundleQueryResultDTO>> fetchBundleQueryResultsAsync(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    Map<String, JsonNode> querySpecifications
+            ) {
+                batchCount.incrementAndGet();
+                Map<String, CompletableFuture<BundleQueryResultDTO>> results = new HashMap<>();
+                querySpecifications.keySet().forEach(queryName -> results.put(
+                        queryName, pending.thenCompose(fetched -> fetched.get(queryName))));
+                return results;
+            }
+        };
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+        JsonNode query = getQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+        JsonNode validityQuery = getQuery("{\"type\": \"GetNodes\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<HopQueryResults>> hops = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            hops.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return api.fetchHopQueryResultsAsync(
+                        SERVICE_URI, bundleA, connA, AUTH_HEADER, query, true, Map.of("validity", validityQuery));
+            }));
+        }
+        start.countDown();
+        List<HopQueryResults> hopResults = hops.stream().map(CompletableFuture::join).toList();
+        assert batchCount.get() == 1;
+
+        BundleQueryResultDTO result =
+                new BundleQueryResultDTO(new Token(null, "signature"), objectMapper.valueToTree("result"));
+        pending.complete(Map.of(
+                "query", CompletableFuture.completedFuture(result),
+                "connectors", CompletableFuture.completedFuture(result),
+                "validity", CompletableFuture.completedFuture(result)
+        ));
+
+        for (HopQueryResults hop : hopResults) {
+            assert hop.queryResult().join() == result;
+            assert hop.connectorsResult().join() == result;
+            assert hop.additionalResults().get("validity").join() == result;
+        }
+        assert batchCount.get() == 1;
+    }
+
+    @Test public void test_batchFetchesOnlyUncachedQueries() throws Exception {
+        List<Set<String>> fetchedBatches = new ArrayList<>();
+        CountingProvServiceAPI delegate = new CountingProvServiceAPI() {
+            @Override public Map<String, CompletableFuture<BundleQueryResultDTO>> fetchBundleQueryResultsAsync(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    Map<String, JsonNode> querySpecifications
+            ) {
+                fetchedBatches.add(querySpecifications.keySet());
+                return super.fetchBundleQueryResultsAsync(
+                        serviceUri, bundleId, connectorId, authorizationHeader, querySpecifications);
+            }
+        };
+        CachingProvServiceAPI api = getCachingApi(delegate, new BundleQueryResultCache(100, 10));
+        JsonNode query = getQuery("{\"type\": \"GetNodeIds\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+        JsonNode otherQuery = getQuery("{\"type\": \"GetNodes\", \"fromSubgraphs\": {\"type\": \"WholeGraph\"}}");
+
+        api.fetchBundleQueryResult(SERVICE_URI, bundleA, connA, AUTH_HEADER, query);
+        Map<String, CompletableFuture<BundleQueryResultDTO>> results = api.fetchBundleQueryResultsAsync(
+                SERVICE_URI, bundleA, connA, AUTH_HEADER, Map.of("cached", query, "missing", otherQuery));
+        HopQueryResults hopResults = api.fetchHopQueryResultsAsync(
+                SERVICE_URI, bundleA, connA, AUTH_HEADER, otherQuery, true, Map.of("cached", query));
+
+        assert results.get("cached").join() != null && results.get("missing").join() != null;
+        assert hopResults.queryResult().join() != null;
+        assert hopResults.connectorsResult().join() != null;
+        assert hopResults.additionalResults().get("cached").join() != null;
+
+        assert fetchedBatches.size() == 2;
+        assert fetchedBatches.get(0).equals(Set.of("missing"));
+        assert fetchedBatches.get(1).equals(Set.of("connectors"));
+        assert delegate.queryCount.get() == 3;
+    }
+}
@@ -0,0 +1,62 @@
+package cz.muni.xmichalk.provServiceAPI;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HostRequestLimiterTest {
+    @Test public void test_failingBurstDrainsWithoutRecursion() {
+        HostRequestLimiter limiter = new HostRequestLimiter(1);
+        CompletableFuture<String> blocker = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger(0);
+
+        CompletableFuture<String> first = limiter.submit(() -> blocker);
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            boolean throwing = i % 2 == 0;
+            waiters.add(limiter.submit(() -> {
+                started.incrementAndGet();
+                if (throwing) {
+                    throw new RuntimeException("host unavailable");
+                }
+                return CompletableFuture.failedFuture(new RuntimeException("host unavailable"));
+            }));
+        }
+        assert started.get() == 0;
+
+        blocker.complete("done");
+
+        assert first.join().equals("done");
+        assert started.get() == waiters.size();
+        assert waiters.stream().allMatch(CompletableFuture::isCompletedExceptionally);
+    }
+
+    @Test public void test_concurrentRequestsLimited() {
+        HostRequestLimiter limiter = new HostRequestLimiter(2);
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger(0);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            int value = i;
+            results.add(limiter.submit(() -> {
+                running.incrementAndGet();
+                CompletableFuture<Integer> request = new CompletableFuture<>();
+                pending.add(request);
+                return request.thenApply(_ -> value);
+            }));
+        }
+        assert running.get() == 2;
+
+        for (int i = 0; i < 5; i++) {
+            pending.get(i).complete(i);
+            assert running.get() == Math.min(i + 3, 5);
+        }
+        for (int i = 0; i < 5; i++) {
+            assert results.get(i).join() == i;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package cz.muni.xmichalk.provServiceTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ProvServiceTableTest {
+    private static final String ORG_SERVICE = "http://org-service:8000/api/v1/";
+    private static final String DEPT_SERVICE = "http://dept-service:8000/api/v1/";
+    private static final String OTHER_SERVICE = "http://other-service:8000/api/v1/";
+
+    @Test public void test_longestPrefixWins() {
+        LinkedHashMap<String, String> entries = new LinkedHashMap<>();
+        entries.put("http://prov-storage-1:8000/api/v1/", ORG_SERVICE);
+        entries.put("http://prov-storage-1:8000/api/v1/organizations/dept/", DEPT_SERVICE);
+        entries.put("http://prov-storage-1:8000/api/v1/organizations/deputy/", OTHER_SERVICE);
+        ProvServiceTable table = new ProvServiceTable();
+        table.load(entries);
+
+        assert table.getServiceUri("http://prov-storage-1:8000/api/v1/organizations/dept/documents/a")
+                .equals(DEPT_SERVICE);
+        assert table.getServiceUri("http://prov-storage-1:8000/api/v1/organizations/deputy/documents/a")
+                .equals(OTHER_SERVICE);
+        assert table.getServiceUri("http://prov-storage-1:8000/api/v1/organizations/dep/documents/a")
+                .equals(ORG_SERVICE);
+        assert table.getServiceUri("http://prov-storage-1:8000/api/v1/").equals(ORG_SERVICE);
+        assert table.getServiceUri("http://prov-storage-1:8000/api/") == null;
+        assert table.getServiceUri("http://prov-storage-2:8000/api/v1/documents/a") == null;
+    }
+
+    @Test public void test_loadReplacesTable() throws Exception {
+        ProvServiceTable table = new ProvServiceTable();
+        table.loadFromJson(new ByteArrayInputStream(
+                "{\"http://prov-storage-1:8000/\": \"http://org-service:8000/api/v1/\"}"
+                        .getBytes(StandardCharsets.UTF_8)
+        ));
+        assert table.getServiceUri("http://prov-storage-1:8000/documents/a").equals(ORG_SERVICE);
+
+        table.load(Map.of("http://prov-storage-2:8000/", OTHER_SERVICE));
+        assert table.getServiceUri("http://prov-storage-1:8000/documents/a") == null;
+        assert table.getServiceUri("http://prov-storage-2:8000/documents/a").equals(OTHER_SERVICE);
+        assert table.getEntries().equals(Map.of("http://prov-storage-2:8000/", OTHER_SERVICE));
+    }
+
+    @Test public void test_reloadFromFile() throws Exception {
+        Path file = Files.createTempFile("provServiceTable", ".json");
+        try {
+            Files.writeString(file, "{\"http://prov-storage-1:8000/\": \"http://org-service:8000/api/v1/\"}");
+            ProvServiceTable table = new ProvServiceTable(file);
+            table.reload();
+            assert table.getServiceUri("http://prov-storage-1:8000/documents/a").equals(ORG_SERVICE);
+
+            Files.writeString(file, "{\"http://prov-storage-1:8000/\": \"http://dept-service:8000/api/v1/\"}");
+            table.reload();
+            assert table.getServiceUri("http://prov-storage-1:8000/documents/a").equals(DEPT_SERVICE);
+
+            Files.writeString(file, "{\"http://prov-storage-1:8000/\": ");
+            try {
+                table.reload();
+                assert false;
+            } catch (Exception e) {
+                // an invalid file keeps the previous table
+            }
+            assert table.getServiceUri("http://prov-storage-1:8000/documents/a").equals(DEPT_SERVICE);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test public void test_reloadWithoutFileFails() {
+        try {
+            new ProvServiceTable().reload();
+            assert false;
+        } catch (IllegalStateException e) {
+            // expected
+        } catch (Exception e) {
+            assert false;
+        }
+    }
+
+    @Test public void test_emptyTableRejected() {
+        ProvServiceTable table = new ProvServiceTable();
+        table.load(Map.of("http://prov-storage-1:8000/", ORG_SERVICE));
+
+        for (String json : new String[]{"{}", "null"}) {
+            try {
+                table.loadFromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+                assert false;
+            } catch (IllegalArgumentException e) {
+                // expected
+            } catch (Exception e) {
+                assert false;
+            }
+        }
+        try {
+            table.load(Map.of());
+            assert false;
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assert table.getServiceUri("http://prov-storage-1:8000/documents/a").equals(ORG_SERVICE);
+    }
+
+    @Test public void test_watcherReloadsChangedAndReplacedFile() throws Exception {
+        Path directory = Files.createTempDirectory("provServiceTable");
+        Path file = directory.resolve("provServiceTable.json");
+        Path replacement = directory.resolve("provServiceTable.json.tmp");
+        String resourceUri = "http://prov-storage-1:8000/documents/a";
+        try {
+            Files.writeString(file, "{\"http://prov-storage-1:8000/\": \"" + ORG_SERVICE + "\"}");
+            ProvServiceTable table = new ProvServiceTable(file);
+            table.reload();
+
+            try (ProvServiceTableWatcher _ = new ProvServiceTableWatcher(table)) {
+                Files.writeString(file, "{\"http://prov-storage-1:8000/\": \"" + DEPT_SERVICE + "\"}");
+                awaitServiceUri(table, resourceUri, DEPT_SERVICE);
+
+                // editors and deployment tools usually write a new file and rename it over the old one
+                Files.writeString(replacement, "{\"http://prov-storage-1:8000/\": \"" + OTHER_SERVICE + "\"}");
+                Files.move(replacement, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                awaitServiceUri(table, resourceUri, OTHER_SERVICE);
+            }
+        } finally {
+            Files.deleteIfExists(replacement);
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void awaitServiceUri(ProvServiceTable table, String resourceUri, String expectedServiceUri)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (!expectedServiceUri.equals(table.getServiceUri(resourceUri))) {
+            assert System.nanoTime() < deadline : "Table was not reloaded, routing to: " +
+                    table.getServiceUri(resourceUri);
+            Thread.sleep(20);
+        }
+    }
+}
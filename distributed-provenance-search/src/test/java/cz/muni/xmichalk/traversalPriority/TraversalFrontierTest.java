@@ -0,0 +1,94 @@
+package cz.muni.xmichalk.traversalPriority;
+
+import cz.muni.xmichalk.models.ItemToTraverse;
+import cz.muni.xmichalk.validity.EValidityCheck;
+import org.junit.jupiter.api.Test;
+import org.openprovenance.prov.vanilla.QualifiedName;
+
+import java.util.List;
+import java.util.Map;
+
+public class TraversalFrontierTest {
+    private static ItemToTraverse getItem(String bundle, boolean pathIntegrity, boolean pathValidity) {
+        return new ItemToTraverse(
+                new QualifiedName("http://example.org/", bundle, "ex"),
+                new QualifiedName("http://example.org/", "conn", "ex"),
+                null,
+                "http://prov-service.com/",
+                pathIntegrity,
+                List.of(Map.entry(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS, pathValidity))
+        );
+    }
+
+    @Test public void test_pollsHighestPriorityFirst() {
+        TraversalFrontier frontier = new TraversalFrontier(new IntegrityThenOrderedValidity());
+        ItemToTraverse low = getItem("low", false, false);
+        ItemToTraverse middle = getItem("middle", true, false);
+        ItemToTraverse high = getItem("high", true, true);
+
+        frontier.addAll(List.of(low, middle, high));
+
+        assert frontier.poll() == high;
+        assert frontier.release(high);
+        assert frontier.poll() == middle;
+        assert frontier.release(middle);
+        assert frontier.poll() == low;
+        assert !frontier.release(low);
+        assert frontier.poll() == null;
+        assert frontier.size() == 0;
+    }
+
+    @Test public void test_equalPriorityPolledInInsertionOrder() {
+        TraversalFrontier frontier = new TraversalFrontier(new IntegrityThenOrderedValidity());
+        ItemToTraverse first = getItem("first", true, true);
+        ItemToTraverse second = getItem("second", true, true);
+        ItemToTraverse third = getItem("third", true, true);
+
+        frontier.addAll(List.of(first, second, third));
+
+        assert frontier.poll() == first;
+        assert frontier.poll() == second;
+        assert frontier.poll() == third;
+        assert frontier.inFlightCount() == 3;
+    }
+
+    @Test public void test_lowerPriorityWaitsForHigherPriorityInFlight() {
+        TraversalFrontier frontier = new TraversalFrontier(new IntegrityThenOrderedValidity());
+        ItemToTraverse high = getItem("high", true, true);
+        ItemToTraverse low = getItem("low", false, false);
+
+        frontier.add(high);
+        assert frontier.poll() == high;
+
+        assert !frontier.add(low);
+        assert frontier.poll() == null;
+
+        ItemToTraverse higherChild = getItem("higherChild", true, true);
+        assert frontier.add(higherChild);
+        assert frontier.poll() == higherChild;
+
+        assert !frontier.release(high);
+        assert frontier.poll() == null;
+        assert frontier.release(higherChild);
+        assert frontier.poll() == low;
+    }
+
+    @Test public void test_releaseIsIdempotent() {
+        TraversalFrontier frontier = new TraversalFrontier(new IntegrityThenOrderedValidity());
+        ItemToTraverse high = getItem("high", true, true);
+        ItemToTraverse otherHigh = getItem("otherHigh", true, true);
+        ItemToTraverse low = getItem("low", false, true);
+
+        frontier.addAll(List.of(high, otherHigh, low));
+        assert frontier.poll() == high;
+        assert frontier.poll() == otherHigh;
+
+        frontier.release(high);
+        frontier.release(high);
+        assert frontier.inFlightCount() == 1;
+        assert frontier.poll() == null;
+
+        assert frontier.release(otherHigh);
+        assert frontier.poll() == low;
+    }
+}
@@ -0,0 +1,124 @@
+package cz.muni.xmichalk.traverser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.muni.xmichalk.models.ResultFromBundle;
+import cz.muni.xmichalk.validity.EValidityCheck;
+import org.junit.jupiter.api.Test;
+import org.openprovenance.prov.vanilla.QualifiedName;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class TraversalStreamWriterTest {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static ResultFromBundle getResult() {
+        return new ResultFromBundle(
+                new QualifiedName("http://example.org/", "bundleA", "ex"),
+                new QualifiedName("http://example.org/", "connA", "ex"),
+                objectMapper.valueToTree("bundleA_result"),
+                true,
+                List.of(Map.entry(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS, true)),
+                true,
+                List.of(Map.entry(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS, true))
+        );
+    }
+
+    @Test public void test_ndjson() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TraversalStreamWriter writer = new TraversalStreamWriter(outputStream, ETraversalStreamFormat.NDJSON);
+
+        writer.onResult(getResult());
+        writer.onError("failed");
+        writer.complete();
+        writer.writeEvents();
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assert lines.length == 3;
+
+        JsonNode result = objectMapper.readTree(lines[0]);
+        assert result.get("type").asText().equals("result");
+        assert result.get("result").get("bundleId").get("localPart").asText().equals("bundleA");
+        assert result.get("result").get("result").asText().equals("bundleA_result");
+        assert !result.has("error");
+
+        JsonNode error = objectMapper.readTree(lines[1]);
+        assert error.get("type").asText().equals("error");
+        assert error.get("error").asText().equals("failed");
+
+        assert objectMapper.readTree(lines[2]).get("type").asText().equals("end");
+    }
+
+    @Test public void test_serverSentEvents() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TraversalStreamWriter writer =
+                new TraversalStreamWriter(outputStream, ETraversalStreamFormat.SERVER_SENT_EVENTS);
+
+        writer.onResult(getResult());
+        writer.complete();
+        writer.writeEvents();
+
+        String[] events = outputStream.toString(StandardCharsets.UTF_8).split("\n\n");
+        assert events.length == 2;
+        assert events[0].startsWith("event: result\ndata: ");
+        JsonNode result = objectMapper.readTree(events[0].substring("event: result\ndata: ".length()));
+        assert result.get("result").get("integrity").asBoolean();
+        assert events[1].equals("event: end\ndata: {\"type\":\"end\"}");
+    }
+
+    @Test public void test_cancelledWhenClientDisconnects() throws Exception {
+        OutputStream closedStream = new OutputStream() {
+            @Override public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        TraversalStreamWriter writer = new TraversalStreamWriter(closedStream, ETraversalStreamFormat.NDJSON);
+
+        assert !writer.isCancelled();
+        writer.onResult(getResult());
+        writer.writeEvents();
+        assert writer.isCancelled();
+        writer.complete();
+    }
+
+    @Test public void test_fullBufferBlocksProducerUntilWritten() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        TraversalStreamWriter writer = new TraversalStreamWriter(outputStream, ETraversalStreamFormat.NDJSON, 1);
+        CountDownLatch produced = new CountDownLatch(1);
+
+        writer.onResult(getResult());
+        Thread producer = Thread.ofVirtual().start(() -> {
+            writer.onError("failed");
+            writer.complete();
+            produced.countDown();
+        });
+
+        assert !produced.await(200, TimeUnit.MILLISECONDS);
+        assert outputStream.size() == 0;
+
+        writer.writeEvents();
+        producer.join();
+        assert outputStream.toString(StandardCharsets.UTF_8).split("\n").length == 3;
+    }
+
+    @Test public void test_cancelReleasesBlockedProducer() throws Exception {
+        TraversalStreamWriter writer =
+                new TraversalStreamWriter(new ByteArrayOutputStream(), ETraversalStreamFormat.NDJSON, 1);
+
+        writer.onResult(getResult());
+        Thread producer = Thread.ofVirtual().start(() -> writer.onResult(getResult()));
+        assert !producer.join(Duration.ofMillis(200));
+
+        writer.cancel();
+        assert producer.join(Duration.ofSeconds(5));
+        assert writer.isCancelled();
+    }
+}
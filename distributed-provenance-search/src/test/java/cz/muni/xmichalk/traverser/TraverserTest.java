@@ -9,21 +9,34 @@ import cz.muni.xmichalk.dto.QualifiedNameDTO;
 import cz.muni.xmichalk.dto.token.Token;
 import cz.muni.xmichalk.integrity.IIntegrityVerifier;
 import cz.muni.xmichalk.models.ItemToTraverse;
+import cz.muni.xmichalk.models.ResultFromBundle;
 import cz.muni.xmichalk.models.TraversalParams;
 import cz.muni.xmichalk.models.TraversalResults;
+import cz.muni.xmichalk.provServiceAPI.HopQueryResults;
 import cz.muni.xmichalk.provServiceAPI.IProvServiceAPI;
 import cz.muni.xmichalk.provServiceTable.IProvServiceTable;
 import cz.muni.xmichalk.traversalPriority.ETraversalPriority;
 import cz.muni.xmichalk.traversalPriority.IntegrityThenOrderedValidity;
 import cz.muni.xmichalk.validity.EValidityCheck;
 import cz.muni.xmichalk.validity.IValidityVerifier;
+import cz.muni.xmichalk.validity.ValidityQuery;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.openprovenance.prov.model.QualifiedName;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 
@@ -390,4 +403,328 @@ public class TraverserTest {
                 .count() == 3;
         assert results.errors.isEmpty();
     }
+
+    @Test public void test_concurrentTraversalsOnVirtualThreads() throws Exception {
+        try (Traverser traverser = new Traverser(
+                getMockedProvServiceTable(),
+                getMockedProvServiceAPI(testDataSet1),
+                getMockedIntegrityVerifier(List.of()),
+                2,
+                true,
+                true,
+                getMockedValidityVerifiers(Map.of()),
+                getMockedPriorityComparators(),
+                ETraversalExecutionMode.VIRTUAL_THREADS,
+                3
+        ); ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            List<Future<TraversalResults>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(callers.submit(() -> traverser.traverseChain(
+                        bundleA, connA1, new TraversalParams(
+                                false,
+                                null,
+                                "LATEST",
+                                ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
+                                List.of(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS),
+                                null
+                        )
+                )));
+            }
+
+            for (Future<TraversalResults> future : futures) {
+                TraversalResults results = future.get();
+                assert results.results.size() == 5;
+                assert results.errors.isEmpty();
+            }
+        }
+    }
+
+    @Test public void test_stalledListenerHoldsNoInFlightPermit() throws Exception {
+        TraversalParams params = new TraversalParams(
+                false,
+                null,
+                "LATEST",
+                ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
+                List.of(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS),
+                null
+        );
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch resumed = new CountDownLatch(1);
+        ITraversalResultListener stalledListener = new ITraversalResultListener() {
+            @Override public void onResult(ResultFromBundle result) {
+                stalled.countDown();
+                try {
+                    resumed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override public void onError(String errorMessage) {
+            }
+        };
+
+        try (Traverser traverser = new Traverser(
+                getMockedProvServiceTable(),
+                getMockedProvServiceAPI(testDataSet1),
+                getMockedIntegrityVerifier(List.of()),
+                2,
+                true,
+                true,
+                getMockedValidityVerifiers(Map.of()),
+                getMockedPriorityComparators(),
+                ETraversalExecutionMode.VIRTUAL_THREADS,
+                1
+        ); ExecutorService callers = Executors.newFixedThreadPool(2)) {
+            Future<?> stalledTraversal =
+                    callers.submit(() -> traverser.traverseChain(bundleA, connA1, params, stalledListener));
+            assert stalled.await(10, TimeUnit.SECONDS);
+
+            // the only in-flight permit is free while the other traversal waits for its listener
+            TraversalResults results = callers.submit(() -> traverser.traverseChain(bundleA, connA1, params))
+                    .get(10, TimeUnit.SECONDS);
+            assert results.results.size() == 5;
+            assert results.errors.isEmpty();
+
+            resumed.countDown();
+            stalledTraversal.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test public void test_hopQueriesFetchedTogether() {
+        IProvServiceAPI mockedProvServiceAPI = getMockedProvServiceAPI(testDataSet1);
+        AtomicInteger hopCount = new AtomicInteger(0);
+        AtomicInteger separateQueryCount = new AtomicInteger(0);
+        IProvServiceAPI provServiceAPI = new IProvServiceAPI() {
+            @Override public BundleQueryResultDTO fetchBundleQueryResult(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    JsonNode querySpecification
+            ) {
+                separateQueryCount.incrementAndGet();
+                return mockedProvServiceAPI.fetchBundleQueryResult(
+                        serviceUri, bundleId, connectorId, authorizationHeader, querySpecification);
+            }
+
+            @Override public QualifiedName fetchPreferredBundleVersion(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    String versionPreference
+            ) {
+                return mockedProvServiceAPI.fetchPreferredBundleVersion(
+                        serviceUri, bundleId, connectorId, authorizationHeader, versionPreference);
+            }
+
+            @Override public BundleQueryResultDTO fetchBundleConnectors(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    boolean backward
+            ) {
+                separateQueryCount.incrementAndGet();
+                return mockedProvServiceAPI.fetchBundleConnectors(
+                        serviceUri, bundleId, connectorId, authorizationHeader, backward);
+            }
+
+            @Override public HopQueryResults fetchHopQueryResultsAsync(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    JsonNode querySpecification,
+                    boolean backward,
+                    Map<String, JsonNode> additionalQuerySpecifications
+            ) {
+                hopCount.incrementAndGet();
+                Map<String, CompletableFuture<BundleQueryResultDTO>> additionalResults = new HashMap<>();
+                for (String queryName : additionalQuerySpecifications.keySet()) {
+                    boolean valid = !bundleId.getUri().equals(bundleB.getUri());
+                    additionalResults.put(
+                            queryName,
+                            CompletableFuture.completedFuture(new BundleQueryResultDTO(
+                                    new Token(null, "x"),
+                                    objectMapper.valueToTree(valid)
+                            ))
+                    );
+                }
+                return new HopQueryResults(
+                        CompletableFuture.completedFuture(mockedProvServiceAPI.fetchBundleQueryResult(
+                                serviceUri, bundleId, connectorId, authorizationHeader, querySpecification)),
+                        CompletableFuture.completedFuture(mockedProvServiceAPI.fetchBundleConnectors(
+                                serviceUri, bundleId, connectorId, authorizationHeader, backward)),
+                        additionalResults
+                );
+            }
+        };
+        IValidityVerifier validityVerifier = new IValidityVerifier() {
+            @Override public boolean verify(ItemToTraverse itemToTraverse, BundleQueryResultDTO bundleSearchResult) {
+                throw new IllegalStateException("Validity query should be answered within the hop.");
+            }
+
+            @Override public ValidityQuery getValidityQuery() {
+                return new ValidityQuery(
+                        objectMapper.createObjectNode(),
+                        null,
+                        (_, validityQueryResult) -> validityQueryResult.result.asBoolean()
+                );
+            }
+        };
+
+        Traverser traverser = new Traverser(
+                getMockedProvServiceTable(),
+                provServiceAPI,
+                getMockedIntegrityVerifier(List.of()),
+                10,
+                true,
+                true,
+                Map.of(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS, validityVerifier),
+                getMockedPriorityComparators()
+        );
+
+        TraversalResults results = traverser.traverseChain(
+                bundleD, connD, new TraversalParams(
+                        true,
+                        null,
+                        "LATEST",
+                        ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
+                        List.of(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS),
+                        null
+                )
+        );
+
+        assert results.results.size() == 4;
+        assert results.errors.isEmpty();
+        assert hopCount.get() >= results.results.size();
+        assert separateQueryCount.get() == 0;
+        assert results.results.stream().filter(r -> r.validityChecks.stream().allMatch(Map.Entry::getValue)).count() ==
+                3;
+    }
+
+    @Test public void test_fixedThreadPoolRunsChecksOnPoolThreads() {
+        List<Thread> checkThreads = new CopyOnWriteArrayList<>();
+        IIntegrityVerifier integrityVerifier = (_, _) -> {
+            checkThreads.add(Thread.currentThread());
+            return true;
+        };
+        IValidityVerifier validityVerifier = (_, _) -> {
+            checkThreads.add(Thread.currentThread());
+            return true;
+        };
+
+        try (Traverser traverser = new Traverser(
+                getMockedProvServiceTable(),
+                getMockedProvServiceAPI(testDataSet1),
+                integrityVerifier,
+                2,
+                true,
+                true,
+                Map.of(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS, validityVerifier),
+                getMockedPriorityComparators(),
+                ETraversalExecutionMode.FIXED_THREAD_POOL,
+                0
+        )) {
+            TraversalResults results = traverser.traverseChain(
+                    bundleA, connA1, new TraversalParams(
+                            false,
+                            null,
+                            "LATEST",
+                            ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
+                            List.of(EValidityCheck.DEMO_SIMPLE_CONSTRAINTS),
+                            null
+                    )
+            );
+
+            assert results.results.size() == 5;
+            assert results.errors.isEmpty();
+        }
+
+        assert !checkThreads.isEmpty();
+        assert checkThreads.stream().noneMatch(Thread::isVirtual);
+        assert checkThreads.stream().noneMatch(thread -> thread == Thread.currentThread());
+    }
+
+    @Test public void test_childrenSubmittedBeforeParentFinishes() {
+        IProvServiceAPI mockedProvServiceAPI = getMockedProvServiceAPI(testDataSet1);
+        CountDownLatch childStarted = new CountDownLatch(1);
+        IProvServiceAPI provServiceAPI = new IProvServiceAPI() {
+            @Override public BundleQueryResultDTO fetchBundleQueryResult(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    JsonNode querySpecification
+            ) {
+                if (bundleId.getUri().equals(bundleB.getUri()) || bundleId.getUri().equals(bundleC.getUri())) {
+                    childStarted.countDown();
+                }
+                if (bundleId.getUri().equals(bundleA_new.getUri())) {
+                    // the parent result is only delivered once a child hop runs, so children must not wait for it
+                    try {
+                        if (!childStarted.await(10, TimeUnit.SECONDS)) {
+                            throw new IllegalStateException("No child hop started while its parent was running.");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return mockedProvServiceAPI.fetchBundleQueryResult(
+                        serviceUri, bundleId, connectorId, authorizationHeader, querySpecification);
+            }
+
+            @Override public QualifiedName fetchPreferredBundleVersion(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    String versionPreference
+            ) {
+                return mockedProvServiceAPI.fetchPreferredBundleVersion(
+                        serviceUri, bundleId, connectorId, authorizationHeader, versionPreference);
+            }
+
+            @Override public BundleQueryResultDTO fetchBundleConnectors(
+                    String serviceUri,
+                    QualifiedName bundleId,
+                    QualifiedName connectorId,
+                    String authorizationHeader,
+                    boolean backward
+            ) {
+                return mockedProvServiceAPI.fetchBundleConnectors(
+                        serviceUri, bundleId, connectorId, authorizationHeader, backward);
+            }
+        };
+
+        try (Traverser traverser = new Traverser(
+                getMockedProvServiceTable(),
+                provServiceAPI,
+                getMockedIntegrityVerifier(List.of()),
+                3,
+                true,
+                true,
+                getMockedValidityVerifiers(Map.of()),
+                getMockedPriorityComparators(),
+                ETraversalExecutionMode.VIRTUAL_THREADS,
+                0
+        )) {
+            TraversalResults results = traverser.traverseChain(
+                    bundleA, connA1, new TraversalParams(
+                            false,
+                            null,
+                            "LATEST",
+                            ETraversalPriority.INTEGRITY_THEN_ORDERED_VALIDITY_CHECKS,
+                            List.of(),
+                            null
+                    )
+            );
+
+            assert results.errors.isEmpty();
+            assert results.results.size() == 5;
+        }
+    }
 }